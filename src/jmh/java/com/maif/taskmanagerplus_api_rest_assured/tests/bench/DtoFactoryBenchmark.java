@@ -0,0 +1,51 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+
+/**
+ * Measures the DTO factory methods used to build request bodies and fixtures.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoFactoryBenchmark {
+
+    @Benchmark
+    public TaskDTO createTaskWithDefaults() {
+        return TaskDTO.createTask(null, null, null, null);
+    }
+
+    @Benchmark
+    public TaskDTO createTaskWithValues() {
+        return TaskDTO.createTask(1, "Benchmark Task", "Benchmark Task Description", "2024-06-30", true);
+    }
+
+    @Benchmark
+    public ProvinceDTO createProvinceWithDefaults() {
+        return ProvinceDTO.createProvince(null, null);
+    }
+
+    @Benchmark
+    public ProvinceDTO createProvinceWithValues() {
+        return ProvinceDTO.createProvince(1, "Benchmark Province", "BP");
+    }
+}
@@ -0,0 +1,94 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.restassured.path.json.JsonPath;
+
+/**
+ * Measures RestAssured JsonPath extraction of _embedded.tasks[n].* from HAL pages of increasing size,
+ * the way the tests check list responses. Parsing is measured separately from extraction on an
+ * already parsed document.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonPathExtractionBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int tasksPerPage;
+
+    private String body;
+    private JsonPath parsed;
+    private String lastTaskTitlePath;
+
+    @Setup
+    public void setup() {
+        body = buildTaskPage(tasksPerPage);
+        parsed = JsonPath.from(body);
+        lastTaskTitlePath = "_embedded.tasks[" + (tasksPerPage - 1) + "].title";
+    }
+
+    @Benchmark
+    public int parseAndExtractFirstTaskId() {
+        return JsonPath.from(body).getInt("_embedded.tasks[0].id");
+    }
+
+    @Benchmark
+    public String parseAndExtractLastTaskTitle() {
+        return JsonPath.from(body).getString(lastTaskTitlePath);
+    }
+
+    @Benchmark
+    public String extractLastTaskTitleFromParsed() {
+        return parsed.getString(lastTaskTitlePath);
+    }
+
+    @Benchmark
+    public List<Integer> extractAllTaskIdsFromParsed() {
+        return parsed.getList("_embedded.tasks.id", Integer.class);
+    }
+
+    /**
+     * Builds a HAL page of tasks shaped like the /v1/tasks response.
+     */
+    static String buildTaskPage(int size) {
+        StringBuilder json = new StringBuilder(size * 320 + 512);
+        json.append("{\"_embedded\":{\"tasks\":[");
+        for (int i = 0; i < size; i++) {
+            int id = i + 1;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                .append(",\"title\":\"Benchmark Task ").append(id)
+                .append("\",\"description\":\"Task Description for benchmark task number ").append(id)
+                .append("\",\"dueDate\":\"2024-06-20\",\"completed\":").append(i % 2 == 0)
+                .append(",\"_links\":{\"self\":{\"href\":\"http://localhost:8080/v1/tasks/").append(id)
+                .append("\"},\"tasks\":{\"href\":\"http://localhost:8080/v1/tasks\"}}}");
+        }
+        json.append("]},\"_links\":{\"self\":{\"href\":\"http://localhost:8080/v1/tasks?page=0&size=").append(size)
+            .append("\"}},\"page\":{\"size\":").append(size)
+            .append(",\"totalElements\":").append(size)
+            .append(",\"totalPages\":1,\"number\":0}}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.JsonUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+/**
+ * Measures the cost of building request bodies with TestUtil.convertObjectToJson and JsonUtil.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private TaskDTO task;
+    private ProvinceDTO province;
+
+    @Setup
+    public void setup() {
+        task = TaskDTO.createTask(42, "Benchmark Task", "Task used to measure JSON serialization", "2024-06-30T00:00:00Z", false);
+        province = ProvinceDTO.createProvince(7, "Benchmark Province", "BP");
+    }
+
+    @Benchmark
+    public String convertTaskToJson() {
+        return TestUtil.convertObjectToJson(task);
+    }
+
+    @Benchmark
+    public String convertProvinceToJson() {
+        return TestUtil.convertObjectToJson(province);
+    }
+
+    @Benchmark
+    public byte[] writeTaskAsBytes() {
+        return JsonUtil.toJsonBytes(task);
+    }
+}
@@ -0,0 +1,89 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.RequestSpecs;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.TaskApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.stub.StubApiServer;
+
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Compares the per-call request setup of the tests, given().spec(AuthUtil.addTokenHeader(RestAssured.given()))
+ * plus a concatenated URL, with the cached spec and templated path of the typed clients
+ * (TaskApiClient). The *Setup benchmarks only build the request; the *Get benchmarks send
+ * GET /tasks/{id} to an in-process stand-in API.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-11
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestSpecBenchmark {
+
+    private StubApiServer stub;
+    private String baseUri;
+    private int taskId;
+
+    @Setup
+    public void setup() {
+        stub = new StubApiServer(0, 0, 0, 3600).start();
+        stub.seedTasks(1);
+        taskId = 1;
+        // Before AuthUtil and RequestSpecs read their configuration
+        System.setProperty("auth.base.uri", stub.getBaseUri());
+        System.setProperty("auth.token.url", stub.getTokenUrl());
+        baseUri = stub.getBaseUri();
+        AuthUtil.authenticate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.stop();
+    }
+
+    @Benchmark
+    public void perCallSpecSetup(Blackhole blackhole) {
+        blackhole.consume(given().spec(AuthUtil.addTokenHeader(RestAssured.given())));
+        blackhole.consume(baseUri + ApiPaths.TASKS + "/" + taskId);
+    }
+
+    @Benchmark
+    public RequestSpecification cachedSpecSetup() {
+        return given().spec(RequestSpecs.forDefaultUser());
+    }
+
+    @Benchmark
+    public int perCallSpecGet() {
+        return given().spec(AuthUtil.addTokenHeader(RestAssured.given()))
+                .get(baseUri + ApiPaths.TASKS + "/" + taskId)
+                .statusCode();
+    }
+
+    @Benchmark
+    public int typedClientGet() {
+        return TaskApiClient.asDefaultUser().get(taskId).statusCode();
+    }
+}
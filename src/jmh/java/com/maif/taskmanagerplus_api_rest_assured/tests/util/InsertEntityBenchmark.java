@@ -0,0 +1,174 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the client-side cost of DataBaseInsertUtil.insertEntity: looking up the cached
+ * InsertTemplate and binding the parameters. The connection is an in-memory stub, so no database
+ * is involved and the result is the overhead the harness adds on top of the database round trip.
+ *
+ * The *Rebuilt benchmarks run the previous implementation, which built the SQL with a StringBuilder
+ * and chose the setter with an instanceof chain on every call. Run with "-prof gc" to compare the
+ * allocation per insert as well.
+ *
+ * Lives in the tests.util package because insertEntity is package-private.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertEntityBenchmark {
+
+    private Connection connection;
+    private Date dueDate;
+    private Timestamp timestamp;
+
+    @Setup
+    public void setup() {
+        connection = stub(Connection.class);
+        dueDate = Date.valueOf("2024-06-30");
+        timestamp = Timestamp.valueOf("2024-06-24 10:00:00");
+    }
+
+    @Benchmark
+    public int insertTask() throws SQLException {
+        return DataBaseInsertUtil.insertEntity(connection, "task",
+                "title", "Benchmark Task",
+                "description", "Benchmark Task Description",
+                "due_date", dueDate,
+                "completed", false);
+    }
+
+    @Benchmark
+    public int insertTaskRebuilt() throws SQLException {
+        return insertEntityRebuilt(connection, "task",
+                "title", "Benchmark Task",
+                "description", "Benchmark Task Description",
+                "due_date", dueDate,
+                "completed", false);
+    }
+
+    @Benchmark
+    public int insertProvince() throws SQLException {
+        return DataBaseInsertUtil.insertEntity(connection, "province",
+                "name", "Benchmark Province",
+                "abbreviation", "BP");
+    }
+
+    @Benchmark
+    public int insertUser() throws SQLException {
+        return DataBaseInsertUtil.insertEntity(connection, "usserr",
+                "name", "Benchmark User",
+                "email", "benchmark.user@taskmanagerplus.com",
+                "password", "$2y$12$NSsM4gEOR7MKogflKR7GMeYugkttjNhAJMvFdHrBLaLp2HzlggP5W",
+                "dt_create", timestamp,
+                "dt_update", timestamp);
+    }
+
+    @Benchmark
+    public int insertUserRebuilt() throws SQLException {
+        return insertEntityRebuilt(connection, "usserr",
+                "name", "Benchmark User",
+                "email", "benchmark.user@taskmanagerplus.com",
+                "password", "$2y$12$NSsM4gEOR7MKogflKR7GMeYugkttjNhAJMvFdHrBLaLp2HzlggP5W",
+                "dt_create", timestamp,
+                "dt_update", timestamp);
+    }
+
+    /**
+     * The insertEntity implementation before InsertTemplate, kept as the baseline.
+     */
+    private static int insertEntityRebuilt(Connection connection, String tableName, Object... columnsAndValues) throws SQLException {
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("INSERT INTO ").append(tableName).append(" (");
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append(columnsAndValues[i]);
+        }
+        sqlBuilder.append(") VALUES (");
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append("?");
+        }
+        sqlBuilder.append(")");
+
+        try (PreparedStatement statement = connection.prepareStatement(sqlBuilder.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < columnsAndValues.length; i += 2) {
+                Object value = columnsAndValues[i + 1];
+                int parameterIndex = i / 2 + 1;
+                if (value == null) {
+                    statement.setNull(parameterIndex, Types.NULL);
+                } else if (value instanceof String) {
+                    statement.setString(parameterIndex, (String) value);
+                } else if (value instanceof Timestamp) {
+                    statement.setTimestamp(parameterIndex, (Timestamp) value);
+                } else if (value instanceof Boolean) {
+                    statement.setBoolean(parameterIndex, (Boolean) value);
+                } else if (value instanceof Date) {
+                    statement.setTimestamp(parameterIndex, new Timestamp(((Date) value).getTime()));
+                }
+            }
+            if (statement.executeUpdate() > 0) {
+                ResultSet generatedKeys = statement.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a JDBC stub: statements report one inserted row and a generated key of 1,
+     * every other call returns a default value.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(InsertEntityBenchmark.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == PreparedStatement.class || returnType == ResultSet.class) {
+                        return stub(returnType);
+                    }
+                    if (returnType == int.class) {
+                        return 1;
+                    }
+                    if (returnType == boolean.class) {
+                        return true;
+                    }
+                    if (returnType == long.class) {
+                        return 1L;
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,276 @@
+package com.maif.taskmanagerplus_api_rest_assured.auth;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+import io.restassured.response.Response;
+
+/**
+ * TokenManager obtains and caches OAuth access tokens, one per username.
+ *
+ * - Tokens are requested from /oauth/token with the password grant and cached until they expire,
+ *   using the expires_in value of the token response (or defaultExpiresInSeconds when it is missing).
+ * - The password of every user is kept with its token, so getToken(username) works for any user
+ *   that was authenticated once with getToken(username, password).
+ * - Shortly before a token expires it is refreshed in the background, so callers keep getting a
+ *   valid token without waiting. Tokens that are no longer used are allowed to lapse.
+ * - Concurrent requests for the same username share a single in-flight token request.
+ * - Global RestAssured state (requestSpecification, baseURI) is never modified.
+ *
+ * The default instance is configured from application-test.properties through ConfigLoader.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-26
+ */
+public class TokenManager {
+
+    // A token is treated as expired this long before its real expiry, to absorb clock skew and request time
+    private static final long EXPIRY_SKEW_MS = 5_000;
+
+    private final String tokenUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final String grantType;
+    private final long refreshAheadMs;
+    private final int defaultExpiresInSeconds;
+
+    private final ConcurrentHashMap<String, String> passwords = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService refresher;
+
+    /**
+     * Creates a token manager for the given token endpoint and client credentials.
+     *
+     * @param tokenUrl            The URL of the OAuth token endpoint.
+     * @param clientId            The OAuth client ID.
+     * @param clientSecret        The OAuth client secret.
+     * @param grantType           The grant type sent with every token request.
+     * @param refreshAheadSeconds How long before expiry a token is refreshed in the background.
+     * @param defaultExpiresInSeconds The token lifetime assumed when a token response has no expires_in.
+     */
+    public TokenManager(String tokenUrl, String clientId, String clientSecret, String grantType, int refreshAheadSeconds,
+                        int defaultExpiresInSeconds) {
+        this.tokenUrl = tokenUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.grantType = grantType;
+        this.refreshAheadMs = TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+        this.defaultExpiresInSeconds = defaultExpiresInSeconds;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refresher = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "token-refresher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the shared token manager configured from application-test.properties.
+     *
+     * @return The default TokenManager.
+     */
+    public static TokenManager getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static final class DefaultHolder {
+        private static final TokenManager INSTANCE = new TokenManager(
+                ConfigLoader.getProperty("auth.token.url"),
+                ConfigLoader.getProperty("auth.client.id"),
+                ConfigLoader.getProperty("auth.client.secret"),
+                ConfigLoader.getProperty("auth.grant_type"),
+                ConfigLoader.getIntProperty("auth.token.refresh-ahead-seconds", 30),
+                ConfigLoader.getIntProperty("auth.token.default-expires-in-seconds", 300));
+    }
+
+    /**
+     * Returns a valid access token for the given user.
+     * A cached token is returned when it is still valid; otherwise a new token is requested,
+     * sharing the request with any other thread asking for the same user at the same time.
+     *
+     * @param username The username (email) of the user.
+     * @param password The password of the user.
+     * @return The access token.
+     * @throws IllegalStateException If the token endpoint does not return a token.
+     */
+    public String getToken(String username, String password) {
+        String previousPassword = passwords.put(username, password);
+        if (previousPassword != null && !previousPassword.equals(password)) {
+            // Different credentials for the same user: the cached token no longer applies
+            tokens.remove(username);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedToken cached = tokens.get(username);
+        if (cached != null && now < cached.expiresAt - EXPIRY_SKEW_MS) {
+            cached.lastAccessAt = now;
+            if (now >= cached.refreshAt) {
+                refresh(username, true);
+            }
+            return cached.accessToken;
+        }
+
+        try {
+            CachedToken fresh = refresh(username, false).join();
+            fresh.lastAccessAt = now;
+            return fresh.accessToken;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to obtain an access token for " + username, e.getCause());
+        }
+    }
+
+    /**
+     * Returns a valid access token for a user whose password was given to getToken(username, password) before.
+     *
+     * @param username The username (email) of the user.
+     * @return The access token.
+     * @throws IllegalStateException If the user is unknown or the token endpoint does not return a token.
+     */
+    public String getToken(String username) {
+        String password = passwords.get(username);
+        if (password == null) {
+            throw new IllegalStateException("No credentials known for user " + username);
+        }
+        return getToken(username, password);
+    }
+
+    /**
+     * Removes the cached token and the password of the given user, e.g. after the user was deleted.
+     *
+     * @param username The username (email) of the user.
+     */
+    public void forget(String username) {
+        passwords.remove(username);
+        tokens.remove(username);
+    }
+
+    /**
+     * Removes the cached token of the given user, so the next call requests a new one.
+     *
+     * @param username The username (email) of the user.
+     */
+    public void invalidate(String username) {
+        tokens.remove(username);
+    }
+
+    /**
+     * Removes all cached tokens and credentials.
+     */
+    public void clear() {
+        tokens.clear();
+        passwords.clear();
+    }
+
+    /**
+     * Starts a token request for the user unless one is already in flight, in which case that one is returned.
+     * The request runs on the calling thread when async is false, and on the refresher otherwise.
+     */
+    private CompletableFuture<CachedToken> refresh(String username, boolean async) {
+        CompletableFuture<CachedToken> created = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(username, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable request = () -> {
+            try {
+                CachedToken token = requestToken(username, passwords.get(username));
+                CachedToken previous = tokens.put(username, token);
+                if (previous != null) {
+                    token.lastAccessAt = previous.lastAccessAt;
+                }
+                scheduleRefresh(username, token);
+                created.complete(token);
+            } catch (Throwable t) {
+                created.completeExceptionally(t);
+            } finally {
+                inFlight.remove(username, created);
+            }
+        };
+
+        if (async) {
+            refresher.execute(request);
+        } else {
+            request.run();
+        }
+        return created;
+    }
+
+    /**
+     * Schedules a background refresh at the token's refresh time.
+     * Tokens that have not been used during their lifetime are dropped instead of refreshed.
+     */
+    private void scheduleRefresh(String username, CachedToken token) {
+        long delay = Math.max(0, token.refreshAt - System.currentTimeMillis());
+        refresher.schedule(() -> {
+            if (tokens.get(username) != token) {
+                return; // Already replaced or invalidated
+            }
+            if (System.currentTimeMillis() - token.lastAccessAt > token.expiresAt - token.issuedAt) {
+                tokens.remove(username, token);
+                return;
+            }
+            refresh(username, false);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests a new token from the token endpoint using the password grant.
+     */
+    private CachedToken requestToken(String username, String password) {
+        Response response = given()
+                .auth().preemptive()
+                .basic(clientId, clientSecret)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .formParam("username", username)
+                .formParam("password", password)
+                .formParam("grant_type", grantType)
+                .when()
+                .post(tokenUrl);
+
+        String accessToken = response.statusCode() == 200 ? response.jsonPath().getString("access_token") : null;
+        if (accessToken == null) {
+            throw new IllegalStateException("Failed to obtain an access token for " + username
+                    + ": HTTP " + response.statusCode() + " " + response.asString());
+        }
+
+        Number expiresIn = response.jsonPath().get("expires_in");
+        return new CachedToken(accessToken, expiresIn != null ? expiresIn.intValue() : defaultExpiresInSeconds, refreshAheadMs);
+    }
+
+    /**
+     * An access token with its issue, refresh and expiry times.
+     */
+    private static final class CachedToken {
+        private final String accessToken;
+        private final long issuedAt;
+        private final long refreshAt;
+        private final long expiresAt;
+        private volatile long lastAccessAt;
+
+        private CachedToken(String accessToken, int expiresInSeconds, long refreshAheadMs) {
+            long lifetimeMs = TimeUnit.SECONDS.toMillis(expiresInSeconds);
+            this.accessToken = accessToken;
+            this.issuedAt = System.currentTimeMillis();
+            this.expiresAt = issuedAt + lifetimeMs;
+            // Refresh ahead of expiry, but never earlier than halfway through the token's lifetime
+            this.refreshAt = issuedAt + Math.max(lifetimeMs - refreshAheadMs, lifetimeMs / 2);
+            this.lastAccessAt = issuedAt;
+        }
+    }
+}
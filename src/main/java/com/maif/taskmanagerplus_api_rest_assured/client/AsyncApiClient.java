@@ -0,0 +1,499 @@
+package com.maif.taskmanagerplus_api_rest_assured.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+
+/**
+ * AsyncApiClient calls the TaskManagerPlus API without blocking: every method returns a
+ * CompletableFuture right away and the request runs on the JDK HttpClient.
+ *
+ * RestAssured needs one thread per request in flight. Here a handful of threads (async.threads)
+ * serve any number of requests in flight, so a single JVM can keep tens of thousands of requests
+ * open against the API. async.max-in-flight caps them; further requests wait in a queue without
+ * holding a thread. Every request in flight needs its own HTTP/1.1 connection, and so a local port.
+ *
+ * The client works as one user. Its access token is requested from /oauth/token with the password
+ * grant on first use and again once it expires. A 401 response drops the cached token.
+ * Requests that do not return the expected status fail with an IllegalStateException holding the
+ * status and body. exchange() returns the raw response for callers that check statuses themselves.
+ *
+ * The default instance is configured from application-test.properties through ConfigLoader
+ * (auth.* and async.*).
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-10
+ */
+public class AsyncApiClient implements AutoCloseable {
+
+    public static final String TASKS = "/tasks";
+    public static final String PROVINCES = "/provinces";
+    public static final String USERS = "/usserrs";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // A token is treated as expired this long before its real expiry
+    private static final long EXPIRY_SKEW_MS = 5_000;
+
+    private final String baseUri;
+    private final URI tokenUri;
+    private final String clientAuthorization;
+    private final String grantType;
+    private final String username;
+    private final String password;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    private final AtomicReference<CompletableFuture<AccessToken>> token = new AtomicReference<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a client for the given API and user.
+     *
+     * @param baseUri          The base URI of the API, e.g. "http://localhost:8080/v1".
+     * @param tokenUrl         The URL of the OAuth token endpoint.
+     * @param clientId         The OAuth client ID.
+     * @param clientSecret     The OAuth client secret.
+     * @param grantType        The grant type sent with every token request.
+     * @param username         The username (email) the client works as.
+     * @param password         The password of the user.
+     * @param threads          The number of threads running the HTTP exchanges and callbacks.
+     * @param maxInFlight      The maximum number of requests in flight (0 = unlimited).
+     * @param requestTimeoutMs How long a request may take before it fails.
+     */
+    public AsyncApiClient(String baseUri, String tokenUrl, String clientId, String clientSecret, String grantType,
+            String username, String password, int threads, int maxInFlight, long requestTimeoutMs) {
+        this.baseUri = baseUri;
+        this.tokenUri = URI.create(tokenUrl);
+        this.clientAuthorization = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        this.grantType = grantType;
+        this.username = username;
+        this.password = password;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "async-api-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Returns the shared client configured from application-test.properties, working as auth.username.
+     *
+     * @return The default AsyncApiClient.
+     */
+    public static AsyncApiClient getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a client configured from application-test.properties that works as the given user.
+     *
+     * @param username The username (email) of the user.
+     * @param password The password of the user.
+     * @return A new AsyncApiClient; close it when done.
+     */
+    public static AsyncApiClient forUser(String username, String password) {
+        return new AsyncApiClient(
+                ConfigLoader.getProperty("auth.base.uri"),
+                ConfigLoader.getProperty("auth.token.url"),
+                ConfigLoader.getProperty("auth.client.id"),
+                ConfigLoader.getProperty("auth.client.secret"),
+                ConfigLoader.getProperty("auth.grant_type"),
+                username,
+                password,
+                ConfigLoader.getIntProperty("async.threads", 4),
+                ConfigLoader.getIntProperty("async.max-in-flight", 5000),
+                ConfigLoader.getLongProperty("async.request-timeout-ms", 30_000L));
+    }
+
+    private static final class DefaultHolder {
+        private static final AsyncApiClient INSTANCE = forUser(
+                ConfigLoader.getProperty("auth.username"), ConfigLoader.getProperty("auth.password"));
+    }
+
+    // Tasks
+
+    public CompletableFuture<TaskDTO> createTask(TaskDTO task) {
+        return call("POST", TASKS, task, 201, body -> read(body, TaskDTO.class));
+    }
+
+    public CompletableFuture<TaskDTO> getTask(int id) {
+        return call("GET", TASKS + "/" + id, null, 200, body -> read(body, TaskDTO.class));
+    }
+
+    public CompletableFuture<TaskDTO> updateTask(int id, TaskDTO task) {
+        return call("PUT", TASKS + "/" + id, task, 200, body -> read(body, TaskDTO.class));
+    }
+
+    public CompletableFuture<Void> deleteTask(int id) {
+        return call("DELETE", TASKS + "/" + id, null, 204, body -> null);
+    }
+
+    /**
+     * Returns one page of tasks.
+     *
+     * @param page The page number, starting at 0.
+     * @param size The page size.
+     * @return The tasks of the page (empty after the last page).
+     */
+    public CompletableFuture<List<TaskDTO>> listTasks(int page, int size) {
+        return call("GET", TASKS + "?page=" + page + "&size=" + size, null, 200,
+                body -> readEmbedded(body, "tasks", TaskDTO.class));
+    }
+
+    // Provinces
+
+    public CompletableFuture<ProvinceDTO> createProvince(ProvinceDTO province) {
+        return call("POST", PROVINCES, province, 201, body -> read(body, ProvinceDTO.class));
+    }
+
+    public CompletableFuture<ProvinceDTO> getProvince(int id) {
+        return call("GET", PROVINCES + "/" + id, null, 200, body -> read(body, ProvinceDTO.class));
+    }
+
+    public CompletableFuture<ProvinceDTO> updateProvince(int id, ProvinceDTO province) {
+        return call("PUT", PROVINCES + "/" + id, province, 200, body -> read(body, ProvinceDTO.class));
+    }
+
+    public CompletableFuture<Void> deleteProvince(int id) {
+        return call("DELETE", PROVINCES + "/" + id, null, 204, body -> null);
+    }
+
+    /**
+     * Returns one page of provinces.
+     *
+     * @param page The page number, starting at 0.
+     * @param size The page size.
+     * @return The provinces of the page (empty after the last page).
+     */
+    public CompletableFuture<List<ProvinceDTO>> listProvinces(int page, int size) {
+        return call("GET", PROVINCES + "?page=" + page + "&size=" + size, null, 200,
+                body -> readEmbedded(body, "provinces", ProvinceDTO.class));
+    }
+
+    // Users
+
+    public CompletableFuture<UserDTO> createUser(UserDTO user) {
+        return call("POST", USERS, user, 201, body -> read(body, UserDTO.class));
+    }
+
+    public CompletableFuture<UserDTO> getUser(int id) {
+        return call("GET", USERS + "/" + id, null, 200, body -> read(body, UserDTO.class));
+    }
+
+    public CompletableFuture<UserDTO> updateUser(int id, UserDTO user) {
+        return call("PUT", USERS + "/" + id, user, 200, body -> read(body, UserDTO.class));
+    }
+
+    public CompletableFuture<Void> deleteUser(int id) {
+        return call("DELETE", USERS + "/" + id, null, 204, body -> null);
+    }
+
+    /**
+     * Changes the password of a user, as that user.
+     *
+     * @param id              The ID of the user.
+     * @param currentPassword The current password.
+     * @param newPassword     The new password.
+     * @return Completes when the password was changed.
+     */
+    public CompletableFuture<Void> changePassword(int id, String currentPassword, String newPassword) {
+        PasswordChange body = new PasswordChange(currentPassword, newPassword);
+        return call("PUT", USERS + "/" + id + "/password", body, 204, response -> null);
+    }
+
+    // OAuth
+
+    /**
+     * Requests a new access token for any user, without caching it.
+     *
+     * @param username The username (email) of the user.
+     * @param password The password of the user.
+     * @return The access token.
+     */
+    public CompletableFuture<String> requestToken(String username, String password) {
+        return requestAccessToken(username, password).thenApply(accessToken -> accessToken.value);
+    }
+
+    /**
+     * Returns the cached access token of the client's user, requesting a new one if there is none
+     * or it has expired. Concurrent callers share one token request.
+     *
+     * @return The access token.
+     */
+    public CompletableFuture<String> token() {
+        return accessToken().thenApply(accessToken -> accessToken.value);
+    }
+
+    /**
+     * Returns the future of the cached token, or of a new token request if there is no valid one.
+     */
+    private CompletableFuture<AccessToken> accessToken() {
+        while (true) {
+            CompletableFuture<AccessToken> current = token.get();
+            if (current != null && (!current.isDone() || (!current.isCompletedExceptionally() && current.join().isValid()))) {
+                return current;
+            }
+            CompletableFuture<AccessToken> fresh = new CompletableFuture<>();
+            if (token.compareAndSet(current, fresh)) {
+                requestAccessToken(username, password).whenComplete((accessToken, failure) -> {
+                    if (failure != null) {
+                        fresh.completeExceptionally(failure);
+                    } else {
+                        fresh.complete(accessToken);
+                    }
+                });
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * Sends a request as the client's user and returns the raw response, whatever its status.
+     *
+     * @param method The HTTP method.
+     * @param path   The path relative to the base URI, with query string if any.
+     * @param body   The object to send as JSON, or null for no body.
+     * @return The response with the body as bytes; fails if the body cannot be converted to JSON.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> exchange(String method, String path, Object body) {
+        byte[] json;
+        try {
+            json = body != null ? write(body) : null;
+        } catch (UncheckedIOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<AccessToken> usedToken = accessToken();
+        return usedToken.thenCompose(accessToken -> {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUri + path))
+                    .timeout(requestTimeout)
+                    .header("Authorization", "Bearer " + accessToken.value)
+                    .header("Accept", "application/json");
+            if (json != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(json));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            return submit(request.build());
+        }).thenApply(response -> {
+            if (response.statusCode() == 401) {
+                // The token was revoked or has expired early; request a new one next time, unless
+                // another request has already replaced it
+                token.compareAndSet(usedToken, null);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Returns the number of requests currently sent and not yet answered.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests waiting for a free slot (see async.max-in-flight).
+     */
+    public int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * Stops the client's threads. Requests still in flight do not complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> call(String method, String path, Object body, int expectedStatus,
+            Function<byte[], T> reader) {
+        return exchange(method, path, body).thenApply(response -> {
+            if (response.statusCode() != expectedStatus) {
+                throw new IllegalStateException(method + " " + path + " returned HTTP " + response.statusCode()
+                        + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            return reader.apply(response.body());
+        });
+    }
+
+    private CompletableFuture<AccessToken> requestAccessToken(String username, String password) {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                + "&grant_type=" + URLEncoder.encode(grantType, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(tokenUri)
+                .timeout(requestTimeout)
+                .header("Authorization", clientAuthorization)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return submit(request).thenApply(response -> {
+            JsonNode json = response.statusCode() == 200 ? readTree(response.body()) : null;
+            if (json == null || !json.hasNonNull("access_token")) {
+                throw new IllegalStateException("Failed to obtain an access token for " + username + ": HTTP "
+                        + response.statusCode() + " " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            return new AccessToken(json.get("access_token").asText(), json.path("expires_in").asInt(300));
+        });
+    }
+
+    /**
+     * Sends the request once fewer than maxInFlight requests are in flight. Requests over the limit
+     * are queued and sent by whichever request completes next, so no thread ever waits for a slot.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> submit(HttpRequest request) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            try {
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                        .whenComplete((response, failure) -> {
+                            inFlight.decrementAndGet();
+                            sendWaiting();
+                            if (failure != null) {
+                                result.completeExceptionally(failure);
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                // Rejected before it was sent (e.g. the client is shut down); sendWaiting goes on with the next
+                inFlight.decrementAndGet();
+                result.completeExceptionally(e);
+            }
+        });
+        sendWaiting();
+        return result;
+    }
+
+    private void sendWaiting() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (maxInFlight > 0 && current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable send = waiting.poll();
+            if (send == null) {
+                // Another thread took it; give the slot back and look again
+                inFlight.decrementAndGet();
+                continue;
+            }
+            send.run();
+        }
+    }
+
+    private static byte[] write(Object body) {
+        try {
+            return MAPPER.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to convert object to JSON", e);
+        }
+    }
+
+    private static <T> T read(byte[] body, Class<T> type) {
+        try {
+            return MAPPER.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + type.getSimpleName() + " from the response", e);
+        }
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the response", e);
+        }
+    }
+
+    /**
+     * Reads the items of a HAL page (_embedded.<embeddedKey>); a page without items has no _embedded.
+     */
+    private static <T> List<T> readEmbedded(byte[] body, String embeddedKey, Class<T> type) {
+        JsonNode items = readTree(body).path("_embedded").path(embeddedKey);
+        try {
+            return MAPPER.readerForListOf(type).readValue(items.isMissingNode() ? MAPPER.createArrayNode() : items);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + type.getSimpleName() + " items from the response", e);
+        }
+    }
+
+    /**
+     * The body of the password change request.
+     */
+    static final class PasswordChange {
+        public final String currentPassword;
+        public final String newPassword;
+
+        private PasswordChange(String currentPassword, String newPassword) {
+            this.currentPassword = currentPassword;
+            this.newPassword = newPassword;
+        }
+    }
+
+    /**
+     * An access token with its expiry time.
+     */
+    private static final class AccessToken {
+        private final String value;
+        private final long expiresAt;
+
+        private AccessToken(String value, int expiresInSeconds) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expiresInSeconds);
+        }
+
+        private boolean isValid() {
+            return System.currentTimeMillis() < expiresAt - EXPIRY_SKEW_MS;
+        }
+    }
+}
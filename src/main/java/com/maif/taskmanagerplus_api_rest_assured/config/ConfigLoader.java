@@ -2,6 +2,7 @@ package com.maif.taskmanagerplus_api_rest_assured.config;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Properties;
 
 /**
@@ -9,12 +10,15 @@ import java.util.Properties;
  * from the application-test.properties file located in the src/test/resources directory.
  * 
  * This class initializes a Properties object upon class loading and loads the properties
- * file using a FileInputStream. It provides methods to retrieve specific configuration
+ * file from the classpath, falling back to a FileInputStream on src/test/resources when it is
+ * not on the classpath. It provides methods to retrieve specific configuration
  * values such as database URL, username, password, and driver class name.
  * 
  * Usage:
  * - Call getDbUrl(), getUsername(), getPassword(), or getDriverClassName() to obtain
  *   the respective configuration values from the loaded properties.
+ * - With db.mode=embedded these return the db.embedded.* settings (an in-memory database
+ *   in MySQL mode) instead of the spring.datasource.* ones.
  * 
  * Note:
  * - This class assumes the application-test.properties file exists in the expected path.
@@ -42,7 +46,13 @@ public class ConfigLoader {
         properties = new Properties();
         try {
             // Load the application-test.properties file
-            properties.load(new FileInputStream("src/test/resources/application-test.properties"));
+            InputStream input = ConfigLoader.class.getClassLoader().getResourceAsStream("application-test.properties");
+            if (input == null) {
+                input = new FileInputStream("src/test/resources/application-test.properties");
+            }
+            try (InputStream in = input) {
+                properties.load(in);
+            }
         } catch (IOException e) {
             e.printStackTrace();
             // Handle exception (e.g., throw an exception or set default values)
@@ -51,12 +61,24 @@ public class ConfigLoader {
     
     /**
      * Generic method to retrieve any property by key from the loaded properties.
+     * A JVM system property with the same key (e.g. -Dload.clients=500) takes precedence,
+     * so harness runs can be tuned from the command line without editing the file.
      * 
      * @param key The key of the property to retrieve
      * @return The value of the property
      */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        String override = System.getProperty(key);
+        return override != null ? override : properties.getProperty(key);
+    }
+
+    /**
+     * Tells whether the embedded in-memory database is selected (db.mode=embedded) instead of MySQL.
+     * 
+     * @return true if the db.embedded.* settings are used
+     */
+    public static boolean isEmbeddedDatabase() {
+        return "embedded".equalsIgnoreCase(getProperty("db.mode"));
     }
 
     /**
@@ -65,7 +87,7 @@ public class ConfigLoader {
      * @return The database URL configured in application-test.properties
      */
     public static String getDbUrl() {
-        return properties.getProperty("spring.datasource.url");
+        return getProperty(isEmbeddedDatabase() ? "db.embedded.url" : "spring.datasource.url");
     }
 
     /**
@@ -74,7 +96,7 @@ public class ConfigLoader {
      * @return The database username configured in application-test.properties
      */
     public static String getUsername() {
-        return properties.getProperty("spring.datasource.username");
+        return getProperty(isEmbeddedDatabase() ? "db.embedded.username" : "spring.datasource.username");
     }
 
     /**
@@ -83,7 +105,8 @@ public class ConfigLoader {
      * @return The database password configured in application-test.properties
      */
     public static String getPassword() {
-        return properties.getProperty("spring.datasource.password");
+        String password = getProperty(isEmbeddedDatabase() ? "db.embedded.password" : "spring.datasource.password");
+        return password != null ? password : "";
     }
     
     /**
@@ -92,6 +115,114 @@ public class ConfigLoader {
      * @return The JDBC driver class name configured in application-test.properties
      */
     public static String getDriverClassName() {
-        return properties.getProperty("spring.datasource.driver-class-name");
+        return getProperty(isEmbeddedDatabase() ? "db.embedded.driver-class-name" : "spring.datasource.driver-class-name");
+    }
+
+    /**
+     * Retrieves the classpath resource of the schema script run when the embedded database is started.
+     * 
+     * @return The schema script resource configured in application-test.properties
+     */
+    public static String getEmbeddedSchemaPath() {
+        return getProperty("db.embedded.schema");
+    }
+
+    /**
+     * Retrieves a property as an int, falling back to a default when it is missing or blank.
+     * 
+     * @param key          The key of the property to retrieve
+     * @param defaultValue The value returned when the property is not set
+     * @return The property value parsed as an int
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Retrieves a property as a long, falling back to a default when it is missing or blank.
+     * 
+     * @param key          The key of the property to retrieve
+     * @param defaultValue The value returned when the property is not set
+     * @return The property value parsed as a long
+     */
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * Retrieves a property as a double, falling back to a default when it is missing or blank.
+     * 
+     * @param key          The key of the property to retrieve
+     * @param defaultValue The value returned when the property is not set
+     * @return The property value parsed as a double
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    /**
+     * Retrieves the maximum number of pooled database connections.
+     * 
+     * @return The pool size configured in application-test.properties (default 10)
+     */
+    public static int getPoolMaxSize() {
+        return getIntProperty("db.pool.max-size", 10);
+    }
+
+    /**
+     * Retrieves how long a pooled connection may stay idle before it is closed.
+     * 
+     * @return The idle timeout in milliseconds (default 60 seconds)
+     */
+    public static long getPoolIdleTimeoutMs() {
+        return getLongProperty("db.pool.idle-timeout-ms", 60_000L);
+    }
+
+    /**
+     * Retrieves how long a pooled connection may live before it is retired.
+     * 
+     * @return The max lifetime in milliseconds (default 30 minutes)
+     */
+    public static long getPoolMaxLifetimeMs() {
+        return getLongProperty("db.pool.max-lifetime-ms", 1_800_000L);
+    }
+
+    /**
+     * Retrieves how long a caller waits for a free pooled connection.
+     * 
+     * @return The connection timeout in milliseconds (default 30 seconds)
+     */
+    public static long getPoolConnectionTimeoutMs() {
+        return getLongProperty("db.pool.connection-timeout-ms", 30_000L);
+    }
+
+    /**
+     * Retrieves the timeout used to validate a pooled connection on borrow.
+     * 
+     * @return The validation timeout in seconds (default 2 seconds)
+     */
+    public static int getPoolValidationTimeoutSeconds() {
+        return getIntProperty("db.pool.validation-timeout-seconds", 2);
+    }
+
+    /**
+     * Retrieves how many prepared statements each pooled connection keeps open for reuse.
+     * 
+     * @return The statement cache size per connection (default 32, 0 disables the cache)
+     */
+    public static int getPoolStatementCacheSize() {
+        return getIntProperty("db.pool.statement-cache-size", 32);
+    }
+
+    /**
+     * Retrieves how many rows the bulk fixture methods send in one multi-row INSERT or DELETE.
+     * 
+     * @return The number of rows per statement (default 1000)
+     */
+    public static int getBulkRowsPerStatement() {
+        return getIntProperty("db.bulk.rows-per-statement", 1000);
     }
 }
@@ -0,0 +1,42 @@
+package com.maif.taskmanagerplus_api_rest_assured.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * UserDTO class represents a Data Transfer Object for users (the 'usserr' resource).
+ * This class contains properties for the user's ID, name, email, and password.
+ * It provides methods to create a UserDTO object with default or custom values.
+ *
+ * Lombok is used to automatically generate the getters and setters for the fields.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-25
+ */
+@Setter
+@Getter
+public class UserDTO {
+    private Integer id;        // Unique identifier for the user
+    private String name;       // Name of the user
+    private String email;      // Email of the user, also used as the login
+    private String password;   // Password of the user (bcrypt hash when inserted directly in the database)
+
+    /**
+     * Static method to create a UserDTO object with optional custom values.
+     * If any parameter is null, a default value will be used.
+     *
+     * @param name      The name of the user (optional).
+     * @param email     The email of the user (optional).
+     * @param password  The password of the user (optional).
+     * @return A UserDTO object with the provided or default values.
+     */
+    public static UserDTO createUser(String name, String email, String password) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName(name != null ? name : "Default User Name");
+        userDTO.setEmail(email != null ? email : "default.user@taskmanagerplus.com");
+        userDTO.setPassword(password != null ? password : "$2y$12$NSsM4gEOR7MKogflKR7GMeYugkttjNhAJMvFdHrBLaLp2HzlggP5W");
+        return userDTO;
+    }
+
+    // Getters and Setters are automatically generated by Lombok
+}
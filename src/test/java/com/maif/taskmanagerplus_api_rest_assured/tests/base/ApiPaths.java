@@ -0,0 +1,25 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.base;
+
+/**
+ * ApiPaths holds the resource paths of the TaskManagerPlus API, relative to the base URI
+ * (auth.base.uri, e.g. "http://localhost:8080/v1").
+ * 
+ * The test classes and the load and benchmark tools share these constants, so a route is
+ * defined in one place only.
+ * 
+ * Author: Maicon Fang
+ * Date: 2024-06-27
+ */
+public final class ApiPaths {
+
+    public static final String TASKS = "/tasks";
+    public static final String PROVINCES = "/provinces";
+    public static final String USERS = "/usserrs";
+
+    // Suffixes appended to a resource path
+    public static final String NO_PAGINATION = "/noPagination";
+    public static final String PASSWORD = "/password";
+
+    private ApiPaths() {
+    }
+}
@@ -1,36 +1,59 @@
 package com.maif.taskmanagerplus_api_rest_assured.tests.base;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
 import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.EndpointLatencyFilter;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.CreatedEntityFilter;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
 
 import io.restassured.RestAssured;
 
 /**
  * BaseTest class sets up the necessary configuration for running tests.
- * This class performs authentication and sets the base URI for REST Assured.
+ * This class performs authentication and exposes the base URI of the API.
+ * 
+ * Tests build absolute URLs from BASE_URI and every request gets its own specification with the
+ * token headers, so test classes and methods can run in parallel (see junit-platform.properties).
+ * The only global RestAssured changes are made once when this class is initialized (before any test runs):
+ * - HttpConnectionPool makes all requests share pooled keep-alive connections instead of opening a
+ *   new connection per request. Set http.pool.enabled=false to leave it out.
+ * - EndpointLatencyFilter writes a per-endpoint latency report to target/latency/ at the end of
+ *   the run. Set perf.latency-report.enabled=false to leave it out.
+ * - CreatedEntityFilter registers entities created through the API with CleanupRegistry, in the
+ *   scope of the running test class; CleanupExtension deletes each class's rows after the class.
  * 
  * Author: Maicon Fang
  * Date: 2024-06-19
  * 
  */
+@ExtendWith(CleanupExtension.class)
 public class BaseTest {
 
+    // Base URI of the API, e.g. "http://localhost:8080/v1"
+    protected static final String BASE_URI = ConfigLoader.getProperty("auth.base.uri");
+
+    static {
+        // Class initialization runs once per JVM, so the pool and the filters are added exactly once
+        HttpConnectionPool.installShared();
+        if (Boolean.parseBoolean(ConfigLoader.getProperty("perf.latency-report.enabled"))) {
+            RestAssured.filters(EndpointLatencyFilter.shared());
+        }
+        RestAssured.filters(new CreatedEntityFilter());
+    }
+
     /**
      * The setup method is annotated with @BeforeAll, meaning it will run once before any of the test methods in the class.
-     * This method performs the following actions:
-     * 1. Authenticates the user using AuthUtil.
-     * 2. Sets the base URI for REST Assured to "http://localhost:8080/v1".
+     * It authenticates the default user, so its token is cached before the first request.
+     * The token is shared by all test classes and refreshed by TokenManager before it expires.
      */
     @BeforeAll
     public static void setup() {
         
         // Perform authentication
         AuthUtil.authenticate();
-        
-        // Set the complete base URL
-        RestAssured.baseURI = ConfigLoader.getProperty("auth.base.uri");
     }
     
 }
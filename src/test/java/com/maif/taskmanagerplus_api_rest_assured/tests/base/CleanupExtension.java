@@ -0,0 +1,49 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.base;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.CleanupRegistry;
+
+/**
+ * JUnit extension that gives every test class its own CleanupRegistry scope, kept in the class's
+ * ExtensionContext store. The scope is the thread's current scope while a test method of the class
+ * runs (including its @BeforeEach/@AfterEach methods), so the IDs the method registers belong to the
+ * class. After the class, only those rows are deleted, on a background thread while the next classes
+ * already run; classes running in parallel keep their rows until they finish themselves.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-07
+ */
+public class CleanupExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(CleanupExtension.class);
+    private static final String SCOPE = "scope";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(SCOPE, CleanupRegistry.openScope());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        // The method's store falls back to the store of its class
+        CleanupRegistry.setCurrentScope(context.getStore(NAMESPACE).get(SCOPE, CleanupRegistry.Scope.class));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CleanupRegistry.setCurrentScope(null);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        CleanupRegistry.Scope scope = context.getStore(NAMESPACE).remove(SCOPE, CleanupRegistry.Scope.class);
+        if (scope != null) {
+            CleanupRegistry.flushAsync(scope);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Snapshots the given tables before the first test of the class and restores them after the last
+ * one (see TableSnapshotExtension), so tests may change or delete rows that existed before the class.
+ *
+ * Only those existing rows are restored. Rows the tests create are deleted by CleanupRegistry, by ID,
+ * so no rows of other classes are touched and classes on the same table need no {@code @ResourceLock}:
+ * their test methods keep running in parallel. Classes on the same table share one snapshot.
+ *
+ * Example:
+ * ```
+ * @RestoreTables("task")
+ * public class TaskApiTest extends BaseTest { ... }
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-06
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@ExtendWith(TableSnapshotExtension.class)
+public @interface RestoreTables {
+
+    /**
+     * The tables to restore, e.g. "task", "province" or "usserr".
+     */
+    String[] value();
+}
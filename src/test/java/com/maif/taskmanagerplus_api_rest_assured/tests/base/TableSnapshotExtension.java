@@ -0,0 +1,92 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.base;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TableSnapshot;
+
+/**
+ * JUnit extension behind {@link RestoreTables}: takes a TableSnapshot of every listed table in
+ * beforeAll and restores them in afterAll, also when tests failed.
+ *
+ * Classes that list the same table and run at the same time share one snapshot: the first class
+ * to start takes it and the last one to finish restores it. So a class never snapshots rows that
+ * another running class has just changed, and never restores while that class still runs.
+ *
+ * If a restore fails, the other tables are still restored and the class is reported as failed.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-06
+ */
+public class TableSnapshotExtension implements BeforeAllCallback, AfterAllCallback {
+
+    // Active snapshots by table; guarded by itself
+    private static final Map<String, SharedSnapshot> ACTIVE = new HashMap<>();
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        for (String table : tablesOf(context)) {
+            synchronized (ACTIVE) {
+                SharedSnapshot shared = ACTIVE.get(table);
+                if (shared == null) {
+                    shared = new SharedSnapshot(TableSnapshot.take(table));
+                    ACTIVE.put(table, shared);
+                }
+                shared.classes++;
+            }
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        IllegalStateException failure = null;
+        for (String table : tablesOf(context)) {
+            TableSnapshot snapshot = null;
+            synchronized (ACTIVE) {
+                SharedSnapshot shared = ACTIVE.get(table);
+                if (shared != null && --shared.classes == 0) {
+                    ACTIVE.remove(table);
+                    snapshot = shared.snapshot;
+                }
+            }
+            if (snapshot == null) {
+                continue;
+            }
+            try {
+                snapshot.restore();
+            } catch (IllegalStateException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static String[] tablesOf(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestClass(), RestoreTables.class)
+                .map(RestoreTables::value)
+                .orElse(new String[0]);
+    }
+
+    /**
+     * A snapshot and the number of running classes that use it.
+     */
+    private static final class SharedSnapshot {
+        private final TableSnapshot snapshot;
+        private int classes;
+
+        private SharedSnapshot(TableSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
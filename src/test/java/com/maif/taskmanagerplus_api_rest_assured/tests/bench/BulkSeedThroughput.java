@@ -0,0 +1,92 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.LoadDataSeeder;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.SyntheticDataGenerator;
+
+/**
+ * Compares seeding generated tasks and provinces with the multi-row INSERTs of DataBaseInsertUtil
+ * (insertTasks, insertProvinces, in chunks of 10000 rows) against LoadDataSeeder's streaming
+ * LOAD DATA LOCAL INFILE, on the MySQL database of application-test.properties.
+ *
+ * Both paths load the same rows from SyntheticDataGenerator; every row is deleted again before
+ * the program exits. The MySQL server must allow LOAD DATA LOCAL (SET GLOBAL local_infile = 1).
+ *
+ * Usage (rows per run are optional, default 1000000):
+ * ```
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.BulkSeedThroughput \
+ *     -Dexec.args=1000000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-13
+ */
+public class BulkSeedThroughput {
+
+    private static final int INSERT_CHUNK = 10_000;
+
+    public static void main(String[] args) {
+        long rowCount = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        SyntheticDataGenerator generator = SyntheticDataGenerator.fromConfig();
+
+        // Warm up the pool, the JIT and the LOAD DATA connection path with a small round trip
+        DataBaseInsertUtil.deleteTasks(DataBaseInsertUtil.insertTasks(collect(generator.tasks(0, 1000).iterator(), 1000)));
+        LoadDataSeeder.deleteLoaded(LoadDataSeeder.loadTasks(generator.tasks(0, 1000)));
+
+        System.out.println("Rows per run: " + rowCount);
+        System.out.println(String.format("%-10s %-14s %12s %14s", "table", "path", "elapsed ms", "rows/sec"));
+
+        // Tasks, multi-row INSERT
+        List<Integer> ids = new ArrayList<>();
+        long start = System.nanoTime();
+        Iterator<TaskDTO> tasks = generator.tasks(0, rowCount).iterator();
+        while (tasks.hasNext()) {
+            ids.addAll(DataBaseInsertUtil.insertTasks(collect(tasks, INSERT_CHUNK)));
+        }
+        print("task", "INSERT", ids.size(), System.nanoTime() - start);
+        DataBaseInsertUtil.deleteTasks(ids);
+
+        // Tasks, LOAD DATA
+        LoadDataSeeder.Result result = LoadDataSeeder.loadTasks(generator.tasks(0, rowCount));
+        print("task", "LOAD DATA", result.getRows(), result.getElapsedNanos());
+        System.out.println("  " + result);
+        LoadDataSeeder.deleteLoaded(result);
+
+        // Provinces, multi-row INSERT
+        ids = new ArrayList<>();
+        start = System.nanoTime();
+        Iterator<ProvinceDTO> provinces = generator.provinces(0, rowCount).iterator();
+        while (provinces.hasNext()) {
+            ids.addAll(DataBaseInsertUtil.insertProvinces(collect(provinces, INSERT_CHUNK)));
+        }
+        print("province", "INSERT", ids.size(), System.nanoTime() - start);
+        DataBaseInsertUtil.deleteProvinces(ids);
+
+        // Provinces, LOAD DATA
+        result = LoadDataSeeder.loadProvinces(generator.provinces(0, rowCount));
+        print("province", "LOAD DATA", result.getRows(), result.getElapsedNanos());
+        System.out.println("  " + result);
+        LoadDataSeeder.deleteLoaded(result);
+    }
+
+    private static <T> List<T> collect(Iterator<T> items, int max) {
+        List<T> chunk = new ArrayList<>(max);
+        while (chunk.size() < max && items.hasNext()) {
+            chunk.add(items.next());
+        }
+        return chunk;
+    }
+
+    private static void print(String table, String path, long rows, long elapsedNanos) {
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        double rowsPerSecond = rows / (elapsedNanos / 1_000_000_000.0);
+        System.out.println(String.format("%-10s %-14s %12.1f %14.0f", table, path, elapsedMs, rowsPerSecond));
+    }
+}
@@ -0,0 +1,87 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+/**
+ * Compares the throughput of the single-row fixture inserts (insertTask, insertProvince)
+ * with the bulk variants (insertTasks, insertProvinces) against the configured database
+ * (MySQL, or the in-memory database with -Ddb.mode=embedded).
+ *
+ * Every inserted row is deleted again before the program exits. The pool statistics at the end show
+ * how many statements were prepared and how often the statement cache was hit; run with
+ * -Ddb.pool.statement-cache-size=0 to compare without the cache.
+ *
+ * Usage (row count is optional, default 5000):
+ * ```
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.FixtureInsertThroughput \
+ *     -Dexec.args=5000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-25
+ */
+public class FixtureInsertThroughput {
+
+    public static void main(String[] args) {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+
+        List<TaskDTO> tasks = new ArrayList<>(rowCount);
+        List<ProvinceDTO> provinces = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            tasks.add(TaskDTO.createTask("Bench Task " + i, "Bench Task Description " + i, "2024-06-30", i % 2 == 0));
+            provinces.add(ProvinceDTO.createProvince("Bench Province " + i, "B" + (i % 100)));
+        }
+
+        // Warm up the pool and the JIT with a small bulk round trip
+        DataBaseInsertUtil.deleteTasks(DataBaseInsertUtil.insertTasks(tasks.subList(0, Math.min(100, rowCount))));
+
+        System.out.println("Rows per run: " + rowCount);
+        System.out.println(String.format("%-10s %-12s %12s %14s", "table", "path", "elapsed ms", "rows/sec"));
+
+        // Tasks, single-row path
+        List<Integer> ids = new ArrayList<>(rowCount);
+        long start = System.nanoTime();
+        for (TaskDTO task : tasks) {
+            ids.add(DataBaseInsertUtil.insertTask(task.getTitle(), task.getDescription(),
+                    TestUtil.convertToLocalDate(task.getDueDate()), task.getCompleted()));
+        }
+        print("task", "single-row", rowCount, System.nanoTime() - start);
+        DataBaseInsertUtil.deleteTasks(ids);
+
+        // Tasks, bulk path
+        start = System.nanoTime();
+        ids = DataBaseInsertUtil.insertTasks(tasks);
+        print("task", "bulk", ids.size(), System.nanoTime() - start);
+        DataBaseInsertUtil.deleteTasks(ids);
+
+        // Provinces, single-row path
+        ids = new ArrayList<>(rowCount);
+        start = System.nanoTime();
+        for (ProvinceDTO province : provinces) {
+            ids.add(DataBaseInsertUtil.insertProvince(province.getName(), province.getAbbreviation()));
+        }
+        print("province", "single-row", rowCount, System.nanoTime() - start);
+        DataBaseInsertUtil.deleteProvinces(ids);
+
+        // Provinces, bulk path
+        start = System.nanoTime();
+        ids = DataBaseInsertUtil.insertProvinces(provinces);
+        print("province", "bulk", ids.size(), System.nanoTime() - start);
+        DataBaseInsertUtil.deleteProvinces(ids);
+
+        System.out.println("Pool: " + DataBaseInsertUtil.getPoolStats());
+    }
+
+    private static void print(String table, String path, int rows, long elapsedNanos) {
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        double rowsPerSecond = rows / (elapsedNanos / 1_000_000_000.0);
+        System.out.println(String.format("%-10s %-12s %12.1f %14.0f", table, path, elapsedMs, rowsPerSecond));
+    }
+}
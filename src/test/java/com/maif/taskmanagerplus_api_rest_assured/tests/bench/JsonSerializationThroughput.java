@@ -0,0 +1,80 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.JsonUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+/**
+ * Compares serializing TaskDTO and ProvinceDTO with a new ObjectMapper per call (the previous
+ * TestUtil.convertObjectToJson) against the cached writers of JsonUtil, as String and as byte[].
+ *
+ * Prints throughput and bytes allocated per operation for each variant. Runs offline.
+ *
+ * Usage (iterations per measurement are optional, default 200000):
+ * ```
+ * mvn test-compile exec:java \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.JsonSerializationThroughput
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-28
+ */
+public class JsonSerializationThroughput {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps the results reachable so the JIT cannot drop the serialization
+    private static long sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        TaskDTO task = TaskDTO.createTask(42, "Benchmark Task", "Task used to measure JSON serialization", "2024-06-30T00:00:00Z", false);
+        ProvinceDTO province = ProvinceDTO.createProvince(7, "Benchmark Province", "BP");
+
+        System.out.println(String.format("%-12s %-28s %14s %14s", "dto", "variant", "ops/sec", "bytes/op"));
+        for (Object dto : new Object[] { task, province }) {
+            String name = dto.getClass().getSimpleName();
+            measure(name, "new ObjectMapper per call", iterations, dto, JsonSerializationThroughput::newMapperPerCall);
+            measure(name, "TestUtil.convertObjectToJson", iterations, dto, TestUtil::convertObjectToJson);
+            measure(name, "JsonUtil.toJsonBytes", iterations, dto, JsonUtil::toJsonBytes);
+        }
+    }
+
+    private static String newMapperPerCall(Object object) {
+        try {
+            return new ObjectMapper().writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert object to JSON", e);
+        }
+    }
+
+    private static void measure(String dto, String variant, int iterations, Object value, Function<Object, Object> serializer) {
+        // Warm up, so the measurement sees JIT-compiled code
+        run(iterations / 4, value, serializer);
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        run(iterations, value, serializer);
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.println(String.format("%-12s %-28s %14.0f %14d", dto, variant,
+                iterations / (elapsed / 1_000_000_000.0), allocated / iterations));
+    }
+
+    private static void run(int iterations, Object value, Function<Object, Object> serializer) {
+        for (int i = 0; i < iterations; i++) {
+            Object json = serializer.apply(value);
+            sink += json instanceof String ? ((String) json).length() : ((byte[]) json).length;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import static io.restassured.RestAssured.given;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.stub.StubApiServer;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HalStreamValidator;
+
+import io.restassured.response.Response;
+
+/**
+ * Compares validating a large /tasks/noPagination response with RestAssured's JsonPath against
+ * HalStreamValidator. Both variants check the item count and that every ID is unique.
+ *
+ * Runs offline against an in-process StubApiServer seeded with the given number of tasks, and
+ * prints the elapsed time and the bytes allocated by the calling thread for each variant.
+ *
+ * Usage (row count is optional, default 100000):
+ * ```
+ * mvn test-compile exec:java \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.ListValidationFootprint \
+ *     -Dexec.args=100000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-03
+ */
+public class ListValidationFootprint {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        StubApiServer stub = new StubApiServer(0, 0, 0, 3600).start();
+        try {
+            stub.seedTasks(rowCount);
+            // Read by TokenManager when it is first used, so it must be set before authenticating
+            System.setProperty("auth.token.url", stub.getTokenUrl());
+            String url = stub.getBaseUri() + "/tasks/noPagination";
+
+            System.out.println(String.format("Rows: %d%n%-22s %12s %16s %8s", rowCount, "variant", "elapsed ms", "allocated MB", "valid"));
+            for (int round = 0; round < 3; round++) {
+                // The first round warms up the JIT and the HTTP client
+                boolean print = round > 0;
+                measure("JsonPath", print, () -> validateWithJsonPath(fetch(url), rowCount));
+                measure("HalStreamValidator", print, () -> validateStreaming(fetch(url), rowCount));
+            }
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private static Response fetch(String url) {
+        return given()
+                .spec(AuthUtil.addTokenHeader(given()))
+                .when()
+                .get(url)
+                .then()
+                .statusCode(200)
+                .extract().response();
+    }
+
+    private static boolean validateWithJsonPath(Response response, int rowCount) {
+        List<Map<String, Object>> tasks = response.jsonPath().getList("_embedded.tasks");
+        Set<Object> ids = new HashSet<>();
+        for (Map<String, Object> task : tasks) {
+            if (!ids.add(task.get("id"))) {
+                return false;
+            }
+        }
+        return tasks.size() == rowCount;
+    }
+
+    private static boolean validateStreaming(Response response, int rowCount) {
+        return HalStreamValidator.forItems("tasks", TaskDTO.class)
+                .expectCount(rowCount)
+                .expectUnique("id", TaskDTO::getId)
+                .validate(response)
+                .isValid();
+    }
+
+    private static void measure(String variant, boolean print, Supplier<Boolean> run) {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        boolean valid = run.get();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (print) {
+            System.out.println(String.format("%-22s %12d %16.1f %8s", variant, elapsedMs, allocated / (1024.0 * 1024.0), valid));
+        }
+    }
+}
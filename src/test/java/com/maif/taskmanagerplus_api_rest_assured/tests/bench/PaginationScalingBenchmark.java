@@ -0,0 +1,437 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import static io.restassured.RestAssured.given;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.stub.StubApiServer;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HalStreamValidator;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Measures how the noPagination endpoint and paged walks of the same collection scale with the
+ * number of rows, to show from which size on noPagination is no longer viable.
+ *
+ * For every row count in scaling.row-counts (seeded cumulatively) it measures:
+ * - noPagination read with JsonPath, as the tests' body matchers do
+ * - noPagination read with HalStreamValidator
+ * - a paged walk for every size in scaling.page-sizes, each page read with JsonPath
+ *
+ * Columns: requests sent, total time, per-request p50/p99, response bytes, bytes allocated by the
+ * client thread and heap retained by one parsed response (measured after a GC). noPagination with
+ * JsonPath is viable while it stays below scaling.max-latency-ms and scaling.max-client-mb; once it
+ * is not, it is skipped for the larger sizes. Walks with more than scaling.max-pages-per-walk pages
+ * request an evenly spread sample of pages and extrapolate the total time (marked with ~).
+ *
+ * scaling.seed selects where the rows come from:
+ * - db: inserted with DataBaseInsertUtil into the API's database (titles or names carry a unique
+ *   prefix used as filter), and deleted again at the end
+ * - stub: an in-process StubApiServer, so the client side can be measured offline (the stand-in
+ *   shares the heap, so its response buffers can show up in the retained column)
+ *
+ * The 1M row step needs a large heap, e.g. MAVEN_OPTS=-Xmx4g. The table is printed and written
+ * to target/bench/.
+ *
+ * Usage:
+ * ```
+ * mvn test-compile exec:java \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.PaginationScalingBenchmark \
+ *     -Dscaling.seed=stub -Dscaling.row-counts=1000,10000,100000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-05
+ */
+public class PaginationScalingBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final String HEADER_FORMAT = "%-10s %-26s %9s %12s %10s %10s %12s %12s %12s  %s%n";
+    private static final String ROW_FORMAT = "%-10d %-26s %9d %12s %10.2f %10.2f %12.1f %12.1f %12.1f  %s%n";
+
+    // Rows inserted per bulk call while seeding the database
+    private static final int SEED_CHUNK = 10_000;
+
+    // Keeps the parsed responses reachable so the JIT cannot drop the parsing
+    private static long sink;
+
+    private final boolean tasks;
+    private final String collectionPath;
+    private final String embeddedKey;
+    private final Class<?> itemType;
+    private final long[] rowCounts;
+    private final int[] pageSizes;
+    private final boolean seedStub;
+    private final int maxPagesPerWalk;
+    private final double maxLatencyMs;
+    private final double maxClientMb;
+
+    private String baseUri = ConfigLoader.getProperty("auth.base.uri");
+    private StubApiServer stub;
+    // Filter that limits the results to the seeded rows (db seeding only)
+    private String filterName;
+    private String filterValue;
+    private final List<Integer> seededIds = new ArrayList<>();
+
+    public PaginationScalingBenchmark(String resource, long[] rowCounts, int[] pageSizes, boolean seedStub,
+            int maxPagesPerWalk, double maxLatencyMs, double maxClientMb) {
+        this.tasks = "tasks".equalsIgnoreCase(resource.trim());
+        this.collectionPath = tasks ? ApiPaths.TASKS : ApiPaths.PROVINCES;
+        this.embeddedKey = tasks ? "tasks" : "provinces";
+        this.itemType = tasks ? TaskDTO.class : ProvinceDTO.class;
+        this.rowCounts = rowCounts;
+        this.pageSizes = pageSizes;
+        this.seedStub = seedStub;
+        this.maxPagesPerWalk = maxPagesPerWalk;
+        this.maxLatencyMs = maxLatencyMs;
+        this.maxClientMb = maxClientMb;
+    }
+
+    public static void main(String[] args) {
+        PaginationScalingBenchmark benchmark = new PaginationScalingBenchmark(
+                ConfigLoader.getProperty("scaling.resource"),
+                parseLongs(ConfigLoader.getProperty("scaling.row-counts")),
+                parseInts(ConfigLoader.getProperty("scaling.page-sizes")),
+                "stub".equalsIgnoreCase(ConfigLoader.getProperty("scaling.seed")),
+                ConfigLoader.getIntProperty("scaling.max-pages-per-walk", 500),
+                ConfigLoader.getLongProperty("scaling.max-latency-ms", 1000),
+                ConfigLoader.getLongProperty("scaling.max-client-mb", 100));
+        benchmark.run();
+    }
+
+    /**
+     * Seeds every row count in turn, measures all modes and writes the report.
+     */
+    public void run() {
+        if (seedStub) {
+            stub = new StubApiServer(0, 0, 0, 3600).start();
+            baseUri = stub.getBaseUri();
+            // Read by TokenManager when it is first used, so it must be set before authenticating
+            System.setProperty("auth.token.url", stub.getTokenUrl());
+        } else {
+            filterName = tasks ? "title" : "name";
+            filterValue = TestUtil.uniqueName(tasks ? "Scaling Task" : "Scaling Province");
+        }
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(HEADER_FORMAT, "rows", "mode", "requests", "total ms", "p50 ms", "p99 ms",
+                "resp MB", "alloc MB", "retained MB", "viable"));
+        String verdict = null;
+        try {
+            AuthUtil.authenticate();
+            long seeded = 0;
+            boolean unpagedViable = true;
+            for (long rowCount : rowCounts) {
+                seed(seeded, rowCount);
+                seeded = rowCount;
+                System.out.println("Seeded " + rowCount + " " + embeddedKey + ", measuring...");
+                if (rowCount == rowCounts[0]) {
+                    warmUp(rowCount);
+                }
+
+                if (unpagedViable) {
+                    Measurement unpaged = measureUnpagedJsonPath(rowCount);
+                    unpagedViable = unpaged.error == null && unpaged.totalMs <= maxLatencyMs
+                            && unpaged.retainedBytes / 1_048_576.0 <= maxClientMb;
+                    unpaged.viable = unpagedViable ? "yes" : "NO" + (unpaged.error != null ? " (" + unpaged.error + ")" : "");
+                    if (!unpagedViable && verdict == null) {
+                        verdict = "noPagination (JsonPath) stops being viable at " + rowCount + " rows: "
+                                + (unpaged.error != null ? unpaged.error : String.format("%.0f ms, %.1f MB retained", unpaged.totalMs,
+                                        unpaged.retainedBytes / 1_048_576.0))
+                                + " (limits " + (long) maxLatencyMs + " ms, " + (long) maxClientMb + " MB)";
+                    }
+                    append(table, unpaged);
+                } else {
+                    table.append(String.format("%-10d %-26s %s%n", rowCount, "noPagination (JsonPath)", "skipped, not viable at a smaller size"));
+                }
+                append(table, measureUnpagedStreaming(rowCount));
+                for (int pageSize : pageSizes) {
+                    append(table, measurePagedWalk(rowCount, pageSize));
+                }
+                table.append('\n');
+            }
+        } finally {
+            cleanUp();
+        }
+
+        String report = "Paged vs noPagination scaling of " + collectionPath + " (" + (seedStub ? "stand-in API" : "API at " + baseUri)
+                + ")\n\n" + table + (verdict != null ? verdict : "noPagination (JsonPath) stayed viable up to "
+                        + rowCounts[rowCounts.length - 1] + " rows") + "\n";
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("bench/pagination-scaling-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    /**
+     * Adds rows until the collection holds rowCount seeded rows.
+     */
+    private void seed(long from, long rowCount) {
+        if (seedStub) {
+            int count = (int) (rowCount - from);
+            if (tasks) {
+                stub.seedTasks(count);
+            } else {
+                stub.seedProvinces(count);
+            }
+            return;
+        }
+        for (long start = from; start < rowCount; start += SEED_CHUNK) {
+            int count = (int) Math.min(SEED_CHUNK, rowCount - start);
+            List<Integer> ids;
+            if (tasks) {
+                List<TaskDTO> chunk = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    chunk.add(TaskDTO.createTask(filterValue + " " + (start + i), "Seeded by the scaling benchmark", "2024-06-30", false));
+                }
+                ids = DataBaseInsertUtil.insertTasks(chunk);
+            } else {
+                List<ProvinceDTO> chunk = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    chunk.add(ProvinceDTO.createProvince(filterValue + " " + (start + i), "SC"));
+                }
+                ids = DataBaseInsertUtil.insertProvinces(chunk);
+            }
+            if (ids.size() != count) {
+                throw new IllegalStateException("Seeding failed: inserted " + ids.size() + " of " + count + " rows");
+            }
+            seededIds.addAll(ids);
+        }
+    }
+
+    /**
+     * Runs every mode once without recording, so the first row count is not measured with a cold
+     * JIT and HTTP client.
+     */
+    private void warmUp(long rowCount) {
+        measureUnpagedJsonPath(rowCount);
+        measureUnpagedStreaming(rowCount);
+        for (int pageSize : pageSizes) {
+            measurePagedWalk(rowCount, pageSize);
+        }
+    }
+
+    private void cleanUp() {
+        if (stub != null) {
+            stub.stop();
+        }
+        if (!seededIds.isEmpty()) {
+            int deleted = tasks ? DataBaseInsertUtil.deleteTasks(seededIds) : DataBaseInsertUtil.deleteProvinces(seededIds);
+            System.out.println("Seeded rows deleted: " + deleted);
+        }
+    }
+
+    private Measurement measureUnpagedJsonPath(long rowCount) {
+        Measurement measurement = new Measurement(rowCount, "noPagination (JsonPath)");
+        long baseline = usedHeapAfterGc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            Response response = request(collectionPath + ApiPaths.NO_PAGINATION, -1, -1);
+            List<Object> items = response.jsonPath().getList("_embedded." + embeddedKey);
+            measurement.record(System.nanoTime() - start);
+            measurement.responseBytes = response.asByteArray().length;
+            measurement.allocatedBytes = allocatedBytes() - allocatedBefore;
+            // The response and its parsed tree are still referenced here
+            measurement.retainedBytes = Math.max(0, usedHeapAfterGc() - baseline);
+            sink += items != null ? items.size() : 0;
+        } catch (OutOfMemoryError e) {
+            measurement.error = "out of memory";
+        }
+        return measurement;
+    }
+
+    private Measurement measureUnpagedStreaming(long rowCount) {
+        Measurement measurement = new Measurement(rowCount, "noPagination (streamed)");
+        long baseline = usedHeapAfterGc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Response response = request(collectionPath + ApiPaths.NO_PAGINATION, -1, -1);
+        try (CountingInputStream body = new CountingInputStream(response.asInputStream())) {
+            HalStreamValidator.Result result = HalStreamValidator.forItems(embeddedKey, itemType).validate(body);
+            measurement.record(System.nanoTime() - start);
+            measurement.responseBytes = body.count;
+            measurement.allocatedBytes = allocatedBytes() - allocatedBefore;
+            measurement.retainedBytes = Math.max(0, usedHeapAfterGc() - baseline);
+            sink += result.getCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        measurement.viable = "-";
+        return measurement;
+    }
+
+    private Measurement measurePagedWalk(long rowCount, int pageSize) {
+        Measurement measurement = new Measurement(rowCount, "paged size=" + pageSize);
+        long pages = Math.max(1, (rowCount + pageSize - 1) / pageSize);
+        long sampled = Math.min(pages, maxPagesPerWalk);
+
+        long allocatedBefore = allocatedBytes();
+        long walkStart = System.nanoTime();
+        for (long i = 0; i < sampled; i++) {
+            // Evenly spread over the whole range when only a sample of the pages is requested
+            long page = sampled == pages ? i : i * pages / sampled;
+            long baseline = i == 0 ? usedHeapAfterGc() : 0;
+            long start = System.nanoTime();
+            Response response = request(collectionPath, page, pageSize);
+            List<Object> items = response.jsonPath().getList("_embedded." + embeddedKey);
+            measurement.record(System.nanoTime() - start);
+            measurement.responseBytes += response.asByteArray().length;
+            if (i == 0) {
+                // Memory of one page; the allocation of this GC is excluded from the walk below
+                measurement.retainedBytes = Math.max(0, usedHeapAfterGc() - baseline);
+            }
+            sink += items != null ? items.size() : 0;
+        }
+        measurement.allocatedBytes = allocatedBytes() - allocatedBefore;
+        measurement.totalMs = (System.nanoTime() - walkStart) / 1_000_000.0;
+
+        if (sampled < pages) {
+            // Extrapolate from the sampled pages
+            measurement.totalMs = measurement.totalMs * pages / sampled;
+            measurement.responseBytes = measurement.responseBytes * pages / sampled;
+            measurement.allocatedBytes = measurement.allocatedBytes * pages / sampled;
+            measurement.extrapolated = true;
+        }
+        measurement.requests = pages;
+        measurement.viable = "-";
+        return measurement;
+    }
+
+    private Response request(String path, long page, int size) {
+        RequestSpecification spec = given().spec(AuthUtil.addTokenHeader(RestAssured.given()));
+        if (filterName != null) {
+            spec.queryParam(filterName, filterValue);
+        }
+        if (page >= 0) {
+            spec.queryParam("page", page).queryParam("size", size);
+        }
+        Response response = spec.when().get(baseUri + path);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned HTTP " + response.statusCode());
+        }
+        return response;
+    }
+
+    private static void append(StringBuilder table, Measurement m) {
+        if (m.error != null) {
+            table.append(String.format("%-10d %-26s %s%n", m.rowCount, m.mode, m.viable));
+            return;
+        }
+        table.append(String.format(ROW_FORMAT, m.rowCount, m.mode, m.requests,
+                (m.extrapolated ? "~" : "") + String.format("%.0f", m.totalMs),
+                m.latencies.getPercentileNanos(50) / 1_000_000.0,
+                m.latencies.getPercentileNanos(99) / 1_000_000.0,
+                m.responseBytes / 1_048_576.0, m.allocatedBytes / 1_048_576.0, m.retainedBytes / 1_048_576.0, m.viable));
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+        }
+        // Approximate: objects freed between two calls can make the difference slightly negative
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] parseLongs(String values) {
+        String[] parts = values.split(",");
+        long[] parsed = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Long.parseLong(parts[i].trim());
+        }
+        return parsed;
+    }
+
+    private static int[] parseInts(String values) {
+        String[] parts = values.split(",");
+        int[] parsed = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Integer.parseInt(parts[i].trim());
+        }
+        return parsed;
+    }
+
+    /**
+     * The results of one mode at one row count.
+     */
+    private static final class Measurement {
+        private final long rowCount;
+        private final String mode;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long requests;
+        private double totalMs;
+        private long responseBytes;
+        private long allocatedBytes;
+        private long retainedBytes;
+        private boolean extrapolated;
+        private String viable = "-";
+        private String error;
+
+        private Measurement(long rowCount, String mode) {
+            this.rowCount = rowCount;
+            this.mode = mode;
+        }
+
+        private void record(long nanos) {
+            latencies.recordNanos(nanos);
+            requests++;
+            totalMs += nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Counts the bytes read from the response body.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
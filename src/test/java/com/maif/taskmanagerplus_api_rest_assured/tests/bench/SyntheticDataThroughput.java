@@ -0,0 +1,95 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.SyntheticDataGenerator;
+
+/**
+ * Measures how fast SyntheticDataGenerator produces tasks, provinces and users, on one thread and
+ * as a parallel stream, and how many bytes a record allocates. For comparison, the first row
+ * builds tasks the way the seeding code did before (TaskDTO.createTask with a concatenated title).
+ *
+ * The checksum of every run is printed: the sequential and parallel runs of a type must match, as
+ * records only depend on the seed and their index. Runs offline.
+ *
+ * Usage (records per run are optional, default 1000000):
+ * ```
+ * mvn test-compile exec:java \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.SyntheticDataThroughput
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-12
+ */
+public class SyntheticDataThroughput {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SyntheticDataGenerator generator = SyntheticDataGenerator.fromConfig();
+
+        System.out.println(String.format("%-10s %-32s %14s %10s %18s", "type", "variant", "records/sec", "bytes/rec", "checksum"));
+        measure("task", "createTask + concatenation", records,
+                i -> TaskDTO.createTask("Seeded Task " + i, "Seeded by the scaling benchmark", "2024-06-30", false),
+                SyntheticDataThroughput::taskChecksum);
+        measure("task", "generator", records, generator::task, SyntheticDataThroughput::taskChecksum);
+        measure("province", "generator", records, generator::province, SyntheticDataThroughput::provinceChecksum);
+        measure("user", "generator", records, generator::user, SyntheticDataThroughput::userChecksum);
+        System.out.println("Parallel runs use " + Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.println();
+
+        System.out.println("Sample records:");
+        generator.tasks(0, 3).forEach(task -> System.out.println("  task     " + task.getTitle() + " | "
+                + task.getDescription() + " | " + task.getDueDate() + " | completed=" + task.getCompleted()));
+        generator.provinces(0, 3).forEach(province -> System.out.println("  province " + province.getName() + " | "
+                + province.getAbbreviation()));
+        generator.users(0, 3).forEach(user -> System.out.println("  user     " + user.getName() + " | " + user.getEmail()));
+    }
+
+    private static <T> void measure(String type, String variant, int records, LongFunction<T> factory, ToLongFunction<T> checksum) {
+        // Warm up, so the measurement sees JIT-compiled code
+        LongStream.range(0, records / 4).mapToObj(factory).mapToLong(checksum).sum();
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long sequentialChecksum = LongStream.range(0, records).mapToObj(factory).mapToLong(checksum).sum();
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        print(type, variant + ", 1 thread", records, elapsed, allocated / records, sequentialChecksum);
+
+        start = System.nanoTime();
+        long parallelChecksum = LongStream.range(0, records).parallel().mapToObj(factory).mapToLong(checksum).sum();
+        elapsed = System.nanoTime() - start;
+        print(type, variant + ", parallel", records, elapsed, -1, parallelChecksum);
+        if (parallelChecksum != sequentialChecksum) {
+            throw new IllegalStateException("Parallel " + type + "s differ from the sequential ones");
+        }
+    }
+
+    private static void print(String type, String variant, int records, long elapsedNanos, long bytesPerRecord, long checksum) {
+        System.out.println(String.format("%-10s %-32s %14.0f %10s %18x", type, variant,
+                records / (elapsedNanos / 1_000_000_000.0), bytesPerRecord < 0 ? "-" : String.valueOf(bytesPerRecord), checksum));
+    }
+
+    private static long taskChecksum(TaskDTO task) {
+        return task.getTitle().hashCode() * 31L + task.getDescription().hashCode()
+                + task.getDueDate().hashCode() * 17L + (task.getCompleted() ? 1 : 0);
+    }
+
+    private static long provinceChecksum(ProvinceDTO province) {
+        return province.getName().hashCode() * 31L + province.getAbbreviation().hashCode();
+    }
+
+    private static long userChecksum(UserDTO user) {
+        return user.getName().hashCode() * 31L + user.getEmail().hashCode();
+    }
+}
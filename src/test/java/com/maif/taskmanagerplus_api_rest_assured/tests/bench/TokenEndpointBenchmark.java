@@ -0,0 +1,236 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.bench;
+
+import static io.restassured.RestAssured.given;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.tests.load.LoadThreads;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.response.Response;
+
+/**
+ * Measures the throughput and latency of POST /oauth/token (password grant) during a login storm,
+ * for users whose passwords are stored with different bcrypt cost factors.
+ *
+ * For every cost in token-bench.costs it inserts token-bench.users users with DataBaseInsertUtil.insertUser,
+ * all with a bcrypt hash of auth.password at that cost. token-bench.clients clients then request
+ * tokens back to back for token-bench.seconds-per-cost seconds, cycling through the users. Every
+ * request is a real login: tokens are not cached, so the API checks the password hash each time.
+ * The first token-bench.warmup-requests requests of each cost are not recorded.
+ *
+ * Each +1 in the cost factor doubles the work of a hash, so from cost 10 to 14 a login is expected
+ * to become about 16 times more expensive once the token endpoint is bound by bcrypt. The report
+ * shows tokens/sec and p50/p90/p99/p99.9 per cost, and the throughput relative to the first cost.
+ *
+ * Needs the API and its MySQL database (the stand-in API accepts any password, so it does not hash).
+ * The users of each cost are deleted before the next one starts. The table is printed and written
+ * to target/bench/.
+ *
+ * Usage:
+ * ```
+ * mvn test-compile exec:java \
+ *     -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.bench.TokenEndpointBenchmark \
+ *     -Dtoken-bench.clients=64 -Dtoken-bench.costs=10,12,14
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-16
+ */
+public class TokenEndpointBenchmark {
+
+    // bcrypt hashes of auth.password ("123") by cost factor, in the $2y$ format of the fixtures.
+    // Cost 12 is sessions.password-hash, the hash the fixtures use; the others were generated with
+    // the same password.
+    private static final Map<Integer, String> PASSWORD_HASHES = Map.of(
+            10, "$2y$10$tid59u/waP1dY2B2VPazY.j/brGGd0yomnifW3oVglSU/inokQyZS",
+            12, ConfigLoader.getProperty("sessions.password-hash"),
+            14, "$2y$14$nMvp5ur2feHZ/EFjLQBwnOlDjSYUwxRZiXQn5QgiOlFIsg.k.iaY.");
+
+    private static final String TOKEN_URL = ConfigLoader.getProperty("auth.token.url");
+    private static final String CLIENT_ID = ConfigLoader.getProperty("auth.client.id");
+    private static final String CLIENT_SECRET = ConfigLoader.getProperty("auth.client.secret");
+    private static final String PASSWORD = ConfigLoader.getProperty("auth.password");
+
+    private final int users;
+    private final int clients;
+    private final long secondsPerCost;
+    private final int warmupRequests;
+
+    public TokenEndpointBenchmark(int users, int clients, long secondsPerCost, int warmupRequests) {
+        this.users = users;
+        this.clients = clients;
+        this.secondsPerCost = secondsPerCost;
+        this.warmupRequests = warmupRequests;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String costs = ConfigLoader.getProperty("token-bench.costs");
+        TokenEndpointBenchmark benchmark = new TokenEndpointBenchmark(
+                ConfigLoader.getIntProperty("token-bench.users", 200),
+                ConfigLoader.getIntProperty("token-bench.clients", 32),
+                ConfigLoader.getLongProperty("token-bench.seconds-per-cost", 30),
+                ConfigLoader.getIntProperty("token-bench.warmup-requests", 50));
+        benchmark.run(costs != null ? costs : "10,12,14");
+    }
+
+    /**
+     * Runs the storm for every cost factor and writes the report.
+     *
+     * @param costs Comma-separated bcrypt cost factors (10, 12 or 14).
+     */
+    public void run(String costs) throws InterruptedException {
+        HttpConnectionPool.installShared();
+
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        Map<String, Long> errors = new LinkedHashMap<>();
+        StringBuilder summary = new StringBuilder();
+        double firstTokensPerSecond = 0;
+        for (String entry : costs.split(",")) {
+            int cost = Integer.parseInt(entry.trim());
+            String hash = PASSWORD_HASHES.get(cost);
+            if (hash == null) {
+                throw new IllegalArgumentException("No password hash for bcrypt cost " + cost + ", use one of " + PASSWORD_HASHES.keySet());
+            }
+
+            List<Integer> userIds = new ArrayList<>(users);
+            List<String> emails = insertUsers(cost, hash, userIds);
+            LatencyHistogram histogram = new LatencyHistogram();
+            AtomicLong errorCount = new AtomicLong();
+            double elapsedSeconds;
+            int deleted;
+            try {
+                elapsedSeconds = runStorm(emails, histogram, errorCount);
+            } finally {
+                deleted = DataBaseInsertUtil.deleteUsers(userIds);
+            }
+
+            String name = "bcrypt cost " + cost;
+            histograms.put(name, histogram);
+            errors.put(name, errorCount.get());
+            double tokensPerSecond = (histogram.getCount() - errorCount.get()) / elapsedSeconds;
+            if (firstTokensPerSecond == 0) {
+                firstTokensPerSecond = tokensPerSecond;
+            }
+            summary.append(String.format("%-16s %12.1f %14.2f %10d%n", name, tokensPerSecond,
+                    firstTokensPerSecond / Math.max(tokensPerSecond, 1e-9), deleted));
+            System.out.println(String.format("%s: %.1f tokens/s, p99 %.1f ms, %d errors", name, tokensPerSecond,
+                    histogram.getPercentileNanos(99) / 1e6, errorCount.get()));
+        }
+
+        String report = "POST /oauth/token login storm: " + clients + " clients, " + users + " users per cost, "
+                + secondsPerCost + " s per cost\n\n"
+                + LatencyReport.formatTable(histograms, errors, secondsPerCost) + "\n"
+                + String.format("%-16s %12s %14s %10s%n", "cost", "tokens/sec", "x slower", "users del")
+                + summary;
+        System.out.println();
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("bench/token-endpoint-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    /**
+     * Inserts the users of one cost and adds their IDs to userIds, so they can be deleted even if
+     * an insert fails halfway.
+     *
+     * @return The emails of the users.
+     */
+    private List<String> insertUsers(int cost, String hash, List<Integer> userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> emails = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String email = TestUtil.uniqueEmail("token.bench.cost" + cost);
+            int id = DataBaseInsertUtil.insertUser("Token Bench User " + i, email, hash, now, now);
+            if (id < 0) {
+                DataBaseInsertUtil.deleteUsers(userIds);
+                throw new IllegalStateException("Could not insert the users of the token benchmark");
+            }
+            userIds.add(id);
+            emails.add(email);
+        }
+        return emails;
+    }
+
+    /**
+     * Lets all clients request tokens at once for secondsPerCost seconds, after a warm-up.
+     *
+     * @return The measured duration in seconds.
+     */
+    private double runStorm(List<String> emails, LatencyHistogram histogram, AtomicLong errorCount) throws InterruptedException {
+        for (int i = 0; i < warmupRequests; i++) {
+            requestToken(emails.get(i % emails.size()));
+        }
+
+        AtomicInteger nextUser = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long[] window = new long[2];
+        ExecutorService executor = LoadThreads.newClientExecutor("token-bench-client");
+        for (int i = 0; i < clients; i++) {
+            executor.execute(() -> {
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < window[1]) {
+                    String email = emails.get(Math.floorMod(nextUser.getAndIncrement(), emails.size()));
+                    long sent = System.nanoTime();
+                    boolean success = requestToken(email);
+                    histogram.recordNanos(System.nanoTime() - sent);
+                    if (!success) {
+                        errorCount.incrementAndGet();
+                    }
+                }
+            });
+        }
+        window[0] = System.nanoTime();
+        window[1] = window[0] + TimeUnit.SECONDS.toNanos(secondsPerCost);
+        // The latch publishes the window to the clients
+        startSignal.countDown();
+        executor.shutdown();
+        executor.awaitTermination(secondsPerCost + 300, TimeUnit.SECONDS);
+        return (System.nanoTime() - window[0]) / 1_000_000_000.0;
+    }
+
+    /**
+     * Sends one password grant, like TokenManager but without caching.
+     *
+     * @return true if a token was issued.
+     */
+    private static boolean requestToken(String email) {
+        try {
+            Response response = given()
+                    .auth().preemptive()
+                    .basic(CLIENT_ID, CLIENT_SECRET)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .formParam("username", email)
+                    .formParam("password", PASSWORD)
+                    .formParam("grant_type", "password")
+                    .when()
+                    .post(TOKEN_URL);
+            return response.statusCode() == 200;
+        } catch (Exception e) {
+            // RestAssured rethrows IOExceptions unchecked, e.g. when the server drops the connection
+            return false;
+        }
+    }
+}
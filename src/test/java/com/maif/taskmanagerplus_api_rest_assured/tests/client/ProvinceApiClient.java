@@ -0,0 +1,37 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.client;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+
+/**
+ * ProvinceApiClient sends the requests of the provinces resource (ProvinceDTO bodies), see ResourceApiClient.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-11
+ */
+public class ProvinceApiClient extends ResourceApiClient {
+
+    private static final ProvinceApiClient DEFAULT_USER = new ProvinceApiClient(null);
+
+    private ProvinceApiClient(String username) {
+        super(ApiPaths.PROVINCES, username);
+    }
+
+    /**
+     * Returns the client of the default user (auth.username).
+     *
+     * @return The shared client.
+     */
+    public static ProvinceApiClient asDefaultUser() {
+        return DEFAULT_USER;
+    }
+
+    /**
+     * Returns a client that sends requests as a user authenticated with AuthUtil.authenticateUser.
+     *
+     * @param username The username (email) of the user.
+     * @return The client.
+     */
+    public static ProvinceApiClient asUser(String username) {
+        return new ProvinceApiClient(username);
+    }
+}
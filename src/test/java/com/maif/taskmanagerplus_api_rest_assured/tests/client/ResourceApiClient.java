@@ -0,0 +1,135 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.client;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.Map;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.JsonUtil;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * ResourceApiClient sends the requests of one API resource (e.g. /tasks) as one auth identity.
+ *
+ * Every operation starts from the identity's cached spec (see RequestSpecs) and uses templated
+ * paths such as "/tasks/{id}", so no spec, header or URL string is built by the caller. Operations
+ * return the RestAssured Response, so tests keep asserting with .then(). Bodies are DTOs, which
+ * are written with JsonUtil, or raw JSON strings (e.g. to send invalid values).
+ *
+ * Subclasses only choose the resource; instances are immutable and can be shared between threads.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-11
+ */
+public abstract class ResourceApiClient {
+
+    private final String collectionPath;
+    private final String itemPath;
+    private final String noPaginationPath;
+    // null for the default user
+    private final String username;
+
+    protected ResourceApiClient(String resourcePath, String username) {
+        this.collectionPath = resourcePath;
+        this.itemPath = resourcePath + "/{id}";
+        this.noPaginationPath = resourcePath + ApiPaths.NO_PAGINATION;
+        this.username = username;
+    }
+
+    /**
+     * Returns a new request with the identity's spec, for requests without a dedicated operation.
+     *
+     * @return The request specification.
+     */
+    public RequestSpecification request() {
+        return given().spec(username == null ? RequestSpecs.forDefaultUser() : RequestSpecs.forUser(username));
+    }
+
+    /**
+     * Sends POST to the collection.
+     *
+     * @param body The DTO or JSON string to create.
+     * @return The response.
+     */
+    public Response create(Object body) {
+        return request().body(toJson(body)).post(collectionPath);
+    }
+
+    /**
+     * Sends GET for one item.
+     *
+     * @param id The ID of the item.
+     * @return The response.
+     */
+    public Response get(long id) {
+        return request().get(itemPath, id);
+    }
+
+    /**
+     * Sends PUT for one item.
+     *
+     * @param id   The ID of the item.
+     * @param body The DTO or JSON string with the new values.
+     * @return The response.
+     */
+    public Response update(long id, Object body) {
+        return request().body(toJson(body)).put(itemPath, id);
+    }
+
+    /**
+     * Sends DELETE for one item.
+     *
+     * @param id The ID of the item.
+     * @return The response.
+     */
+    public Response delete(long id) {
+        return request().delete(itemPath, id);
+    }
+
+    /**
+     * Sends GET to the paged collection with the given filters, e.g. title, page and size.
+     *
+     * @param queryParams The query parameters.
+     * @return The response (a HAL page).
+     */
+    public Response filter(Map<String, ?> queryParams) {
+        return request().queryParams(queryParams).get(collectionPath);
+    }
+
+    /**
+     * Sends GET to the unpaged collection (/noPagination) with the given filters.
+     *
+     * @param queryParams The query parameters (may be empty).
+     * @return The response (all matching items, without a page).
+     */
+    public Response listAll(Map<String, ?> queryParams) {
+        return request().queryParams(queryParams).get(noPaginationPath);
+    }
+
+    /**
+     * Sends a request to a path below one item, e.g. "/password".
+     *
+     * @param method The HTTP method.
+     * @param id     The ID of the item.
+     * @param suffix The path below the item.
+     * @param body   The DTO or JSON string to send, or null.
+     * @return The response.
+     */
+    protected Response itemRequest(String method, long id, String suffix, Object body) {
+        RequestSpecification request = request();
+        if (body != null) {
+            request.body(toJson(body));
+        }
+        return request.request(method, itemPath + suffix, id);
+    }
+
+    protected String getUsername() {
+        return username;
+    }
+
+    private static String toJson(Object body) {
+        return body instanceof String ? (String) body : JsonUtil.toJson(body);
+    }
+}
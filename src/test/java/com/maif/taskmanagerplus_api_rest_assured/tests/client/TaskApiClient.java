@@ -0,0 +1,37 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.client;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+
+/**
+ * TaskApiClient sends the requests of the tasks resource (TaskDTO bodies), see ResourceApiClient.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-11
+ */
+public class TaskApiClient extends ResourceApiClient {
+
+    private static final TaskApiClient DEFAULT_USER = new TaskApiClient(null);
+
+    private TaskApiClient(String username) {
+        super(ApiPaths.TASKS, username);
+    }
+
+    /**
+     * Returns the client of the default user (auth.username).
+     *
+     * @return The shared client.
+     */
+    public static TaskApiClient asDefaultUser() {
+        return DEFAULT_USER;
+    }
+
+    /**
+     * Returns a client that sends requests as a user authenticated with AuthUtil.authenticateUser.
+     *
+     * @param username The username (email) of the user.
+     * @return The client.
+     */
+    public static TaskApiClient asUser(String username) {
+        return new TaskApiClient(username);
+    }
+}
@@ -0,0 +1,51 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.client;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+
+import io.restassured.response.Response;
+
+/**
+ * UserApiClient sends the requests of the usserrs resource (UserDTO bodies), see ResourceApiClient,
+ * plus the password change.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-11
+ */
+public class UserApiClient extends ResourceApiClient {
+
+    private static final UserApiClient DEFAULT_USER = new UserApiClient(null);
+
+    private UserApiClient(String username) {
+        super(ApiPaths.USERS, username);
+    }
+
+    /**
+     * Returns the client of the default user (auth.username).
+     *
+     * @return The shared client.
+     */
+    public static UserApiClient asDefaultUser() {
+        return DEFAULT_USER;
+    }
+
+    /**
+     * Returns a client that sends requests as a user authenticated with AuthUtil.authenticateUser.
+     *
+     * @param username The username (email) of the user.
+     * @return The client.
+     */
+    public static UserApiClient asUser(String username) {
+        return new UserApiClient(username);
+    }
+
+    /**
+     * Sends PUT /usserrs/{id}/password.
+     *
+     * @param id   The ID of the user.
+     * @param body The JSON with currentPassword and newPassword.
+     * @return The response.
+     */
+    public Response changePassword(long id, Object body) {
+        return itemRequest("PUT", id, ApiPaths.PASSWORD, body);
+    }
+}
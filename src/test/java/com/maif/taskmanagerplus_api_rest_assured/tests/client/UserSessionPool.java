@@ -0,0 +1,264 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.client;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.SyntheticDataGenerator;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.specification.RequestSpecification;
+import lombok.Getter;
+
+/**
+ * UserSessionPool provides many authenticated users for load, so traffic is not all sent as the
+ * single auth.username and per-user caching and locking on the server show up.
+ *
+ * open() inserts the users into usserr in one bulk insert (DataBaseInsertUtil.insertUsers, users
+ * from SyntheticDataGenerator, which stores the password hash sessions.password-hash), then
+ * authenticates them with authConcurrency token requests in flight. There is no bcrypt library on
+ * the classpath, so the hash cannot be derived from auth.password; instead the first user logs in
+ * alone, and open() fails right away with a clear message if the hash does not match
+ * auth.password. Workers then take a Session, which carries the user's cached request spec
+ * (RequestSpecs) and typed clients:
+ * - ROUND_ROBIN: next() hands out the users in turn, so every request can come from another user
+ * - STICKY: next() always returns the same user to the same thread; forWorker(n) does the same for
+ *   an explicit worker number
+ *
+ * Tokens are cached and refreshed by TokenManager like those of the default user. close() tears the
+ * pool down in one pass: one bulk delete of all its users, then their tokens and specs are dropped.
+ *
+ * Settings (application-test.properties, used by fromConfig):
+ * - sessions.users, sessions.assignment (round-robin or sticky), sessions.auth-concurrency
+ * - sessions.password-hash: the bcrypt hash stored for the users; must be the hash of auth.password
+ *
+ * Usage:
+ * ```
+ * try (UserSessionPool sessions = UserSessionPool.fromConfig().open()) {
+ *     sessions.next().getTasks().get(id);
+ * }
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-17
+ */
+public final class UserSessionPool implements AutoCloseable {
+
+    /**
+     * How sessions are assigned to workers.
+     */
+    public enum Assignment {
+        ROUND_ROBIN, STICKY;
+
+        /**
+         * Parses "round-robin" or "sticky".
+         *
+         * @param value The property value.
+         * @return The assignment.
+         */
+        public static Assignment fromProperty(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final String PASSWORD = ConfigLoader.getProperty("auth.password");
+
+    private final int size;
+    private final Assignment assignment;
+    private final int authConcurrency;
+
+    private final List<Session> sessions = new ArrayList<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    // Replaced by close(), so a reopened pool does not hand out the sessions of the previous one
+    private volatile ThreadLocal<Session> stickySession = ThreadLocal.withInitial(this::nextInTurn);
+    @Getter
+    private long provisionMillis;
+    @Getter
+    private long authenticationMillis;
+
+    public UserSessionPool(int size, Assignment assignment, int authConcurrency) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("A session pool needs at least one user");
+        }
+        this.size = size;
+        this.assignment = assignment;
+        this.authConcurrency = Math.max(1, authConcurrency);
+    }
+
+    /**
+     * Creates a pool configured by the sessions.* properties; call open() before use.
+     *
+     * @return The pool.
+     */
+    public static UserSessionPool fromConfig() {
+        String assignment = ConfigLoader.getProperty("sessions.assignment");
+        return new UserSessionPool(
+                ConfigLoader.getIntProperty("sessions.users", 100),
+                assignment != null ? Assignment.fromProperty(assignment) : Assignment.ROUND_ROBIN,
+                ConfigLoader.getIntProperty("sessions.auth-concurrency", 16));
+    }
+
+    /**
+     * Inserts the users and authenticates all of them.
+     *
+     * @return This pool.
+     * @throws IllegalStateException If the users cannot be inserted or any of them cannot log in
+     *                               (the users inserted so far are deleted again), e.g. because
+     *                               sessions.password-hash is not the hash of auth.password.
+     */
+    public synchronized UserSessionPool open() {
+        if (!sessions.isEmpty()) {
+            return this;
+        }
+        long start = System.nanoTime();
+        List<UserDTO> users = SyntheticDataGenerator.fromConfig().users(0, size).collect(Collectors.toList());
+        for (UserDTO user : users) {
+            user.setEmail(TestUtil.uniqueEmail("session.user"));
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> ids = DataBaseInsertUtil.insertUsers(users, now, now);
+        if (ids.size() != size) {
+            throw new IllegalStateException("Could not insert the " + size + " users of the session pool");
+        }
+        for (int i = 0; i < size; i++) {
+            sessions.add(new Session(ids.get(i), users.get(i).getEmail()));
+        }
+        provisionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        // One login first, so a hash that does not match the password fails before the others are tried
+        Session first = sessions.get(0);
+        try {
+            AuthUtil.authenticateUser(first.email, PASSWORD);
+        } catch (RuntimeException e) {
+            close();
+            throw new IllegalStateException("Session user " + first.email + " cannot log in with auth.password;"
+                    + " sessions.password-hash must be the bcrypt hash of auth.password", e);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(authConcurrency, size));
+        try {
+            List<CompletableFuture<Void>> logins = new ArrayList<>();
+            for (Session session : sessions.subList(1, sessions.size())) {
+                logins.add(CompletableFuture.runAsync(() -> AuthUtil.authenticateUser(session.email, PASSWORD), executor));
+            }
+            CompletableFuture.allOf(logins.toArray(new CompletableFuture<?>[0])).join();
+        } catch (RuntimeException e) {
+            close();
+            throw new IllegalStateException("Could not authenticate the users of the session pool", e);
+        } finally {
+            executor.shutdown();
+        }
+        authenticationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return this;
+    }
+
+    /**
+     * Returns the session for the next request, according to the pool's assignment.
+     *
+     * @return The session.
+     */
+    public Session next() {
+        return assignment == Assignment.STICKY ? stickySession.get() : nextInTurn();
+    }
+
+    /**
+     * Returns the session of a numbered worker; the same worker always gets the same user.
+     *
+     * @param worker The worker number (0, 1, ...).
+     * @return The session.
+     */
+    public Session forWorker(int worker) {
+        requireOpen();
+        return sessions.get(Math.floorMod(worker, sessions.size()));
+    }
+
+    /**
+     * @return All sessions, in the order they were created.
+     */
+    public List<Session> getSessions() {
+        return Collections.unmodifiableList(sessions);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+    private Session nextInTurn() {
+        requireOpen();
+        return sessions.get(Math.floorMod(nextIndex.getAndIncrement(), sessions.size()));
+    }
+
+    private void requireOpen() {
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("The session pool is not open; call open() first");
+        }
+    }
+
+    /**
+     * Deletes all users of the pool with one bulk delete and drops their tokens and specs.
+     */
+    @Override
+    public synchronized void close() {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        DataBaseInsertUtil.deleteUsers(sessions.stream().map(session -> session.userId).collect(Collectors.toList()));
+        for (Session session : sessions) {
+            AuthUtil.forgetUser(session.email);
+            RequestSpecs.evict(session.email);
+        }
+        sessions.clear();
+        stickySession = ThreadLocal.withInitial(this::nextInTurn);
+    }
+
+    @Override
+    public String toString() {
+        return size + " users (" + assignment.name().toLowerCase().replace('_', '-') + "), inserted in " + provisionMillis
+                + " ms, authenticated in " + authenticationMillis + " ms";
+    }
+
+    /**
+     * One authenticated user of the pool.
+     */
+    @Getter
+    public static final class Session {
+        private final int userId;
+        private final String email;
+        private final TaskApiClient tasks;
+        private final ProvinceApiClient provinces;
+        private final UserApiClient users;
+
+        Session(int userId, String email) {
+            this.userId = userId;
+            this.email = email;
+            this.tasks = TaskApiClient.asUser(email);
+            this.provinces = ProvinceApiClient.asUser(email);
+            this.users = UserApiClient.asUser(email);
+        }
+
+        /**
+         * Returns the user's cached spec (base URI, JSON Content-Type and current token).
+         *
+         * @return The spec, to merge with given().spec(...).
+         */
+        public RequestSpecification spec() {
+            return RequestSpecs.forUser(email);
+        }
+    }
+}
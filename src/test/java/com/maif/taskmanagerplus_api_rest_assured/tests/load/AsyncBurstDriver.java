@@ -0,0 +1,117 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.maif.taskmanagerplus_api_rest_assured.client.AsyncApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+/**
+ * AsyncBurstDriver sends a burst of GET /tasks/{id} requests through AsyncApiClient, all submitted
+ * at once, to show how many requests a handful of threads can keep in flight.
+ *
+ * It creates a few tasks, starts async.burst.requests reads spread over them and waits for all of
+ * them. Latency is measured from submission, so it includes the time a request waited in the
+ * client's queue for a free slot (async.max-in-flight). The report shows throughput, latency, the
+ * peak number of requests in flight and the number of JVM threads, and is written to target/load/.
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - async.burst.requests: number of reads
+ * - async.burst.tasks: number of tasks created and read
+ * - async.threads, async.max-in-flight, async.request-timeout-ms: see AsyncApiClient
+ *
+ * Usage:
+ * ```
+ * mvn test-compile exec:java -Dexec.mainClass=com.maif.taskmanagerplus_api_rest_assured.tests.load.AsyncBurstDriver \
+ *     -Dasync.burst.requests=50000 -Dasync.max-in-flight=10000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-10
+ */
+public class AsyncBurstDriver {
+
+    private static final String ROUTE = "GET " + AsyncApiClient.TASKS + "/{id}";
+
+    public static void main(String[] args) {
+        int requests = ConfigLoader.getIntProperty("async.burst.requests", 20_000);
+        int taskCount = Math.max(1, ConfigLoader.getIntProperty("async.burst.tasks", 10));
+        AsyncApiClient client = AsyncApiClient.getDefault();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        List<Integer> taskIds = new ArrayList<>();
+        List<CompletableFuture<TaskDTO>> created = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            created.add(client.createTask(TaskDTO.createTask(TestUtil.uniqueName("Async Burst Task"), null, "2024-07-10", false)));
+        }
+        for (CompletableFuture<TaskDTO> task : created) {
+            taskIds.add(task.join().getId());
+        }
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakInFlight.accumulateAndGet(client.getInFlight(), Math::max),
+                10, 10, TimeUnit.MILLISECONDS);
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] reads = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            long submitted = System.nanoTime();
+            reads[i] = client.getTask(taskIds.get(i % taskIds.size())).whenComplete((task, failure) -> {
+                latencies.recordNanos(System.nanoTime() - submitted);
+                if (failure != null) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        long submitNanos = System.nanoTime() - start;
+        CompletableFuture.allOf(reads).handle((ignored, failure) -> null).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        sampler.shutdownNow();
+
+        CompletableFuture<?>[] deletes = new CompletableFuture<?>[taskIds.size()];
+        for (int i = 0; i < deletes.length; i++) {
+            deletes[i] = client.deleteTask(taskIds.get(i));
+        }
+        CompletableFuture.allOf(deletes).handle((ignored, failure) -> null).join();
+
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put(ROUTE, latencies);
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        errorCounts.put(ROUTE, errors.get());
+        String report = "Async burst: " + requests + " requests submitted in "
+                + String.format("%.1f", submitNanos / 1_000_000.0) + " ms, elapsed "
+                + String.format("%.1f", elapsedSeconds) + " s, "
+                + String.format("%.1f", requests / elapsedSeconds) + " req/s\n"
+                + "Client: " + ConfigLoader.getIntProperty("async.threads", 4) + " threads, max in flight "
+                + ConfigLoader.getIntProperty("async.max-in-flight", 5000) + ", peak in flight " + peakInFlight.get()
+                + ", peak JVM threads " + threads.getPeakThreadCount() + "\n\n"
+                + "Latency (from submission):\n"
+                + LatencyReport.formatTable(histograms, errorCounts, elapsedSeconds);
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("load/async-burst-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+        client.close();
+    }
+}
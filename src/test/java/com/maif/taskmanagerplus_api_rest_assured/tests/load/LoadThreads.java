@@ -0,0 +1,54 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoadThreads creates the executors that run load clients.
+ *
+ * The project is compiled with maven.compiler.release 11, so the Java 21 virtual thread API cannot
+ * be referenced directly. When the harness runs on Java 21 or newer, Executors.newVirtualThreadPerTaskExecutor() is looked up
+ * reflectively and every client gets its own virtual thread; on older JVMs each client gets a
+ * daemon platform thread instead.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-27
+ */
+public class LoadThreads {
+
+    /**
+     * Returns an executor that starts a new (virtual, when available) thread per submitted task.
+     *
+     * @param namePrefix The name prefix of the platform threads used when virtual threads are unavailable.
+     * @return The executor.
+     */
+    public static ExecutorService newClientExecutor(String namePrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Tells whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21 or newer.
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
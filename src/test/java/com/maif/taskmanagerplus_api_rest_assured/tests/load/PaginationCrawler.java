@@ -0,0 +1,372 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import static io.restassured.RestAssured.given;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HalStreamValidator;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * PaginationCrawler pages through a whole collection (/v1/tasks or /v1/provinces) and checks that
+ * every row is returned exactly once.
+ *
+ * Pages are fetched by crawl.pages-in-flight worker threads, in order, while the calling thread
+ * merges the previous pages, so page N+1 is already on the wire while page N is being checked.
+ * Each page is read with HalStreamValidator, so only the IDs of the crawl are kept in memory.
+ *
+ * Checks:
+ * - every page except the last has page-size rows, and totalElements does not change during the crawl
+ * - no ID is returned on two pages (pages are disjoint)
+ * - the IDs returned are exactly the IDs in the database (crawl.verify-db=true), or their number
+ *   matches totalElements (crawl.verify-db=false, e.g. against the stand-in API)
+ *
+ * The report shows pages/sec, rows/sec and the per-page latency percentiles for crawl.offset-buckets
+ * ranges of pages, so a latency that grows with the OFFSET of deep pages stands out. It is printed
+ * and written to target/crawl/. The data must not change while the crawl runs.
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - crawl.resource: tasks or provinces
+ * - crawl.page-size: rows per page
+ * - crawl.pages-in-flight: pages requested concurrently
+ * - crawl.verify-db: compare the crawled IDs with the database
+ * - crawl.offset-buckets: number of page ranges in the latency report
+ *
+ * Usage:
+ * ```
+ * mvn -Pcrawl test-compile exec:java -Dcrawl.resource=tasks -Dcrawl.page-size=200 -Dcrawl.pages-in-flight=8
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-04
+ */
+public class PaginationCrawler {
+
+    private static final String BASE_URI = ConfigLoader.getProperty("auth.base.uri");
+
+    // Problems listed in the report; the rest are only counted
+    private static final int MAX_PROBLEMS_SHOWN = 20;
+
+    /**
+     * The collections that can be crawled, with their path, HAL key and table.
+     */
+    enum Resource {
+        TASKS(ApiPaths.TASKS, "tasks", "task"),
+        PROVINCES(ApiPaths.PROVINCES, "provinces", "province");
+
+        private final String path;
+        private final String embeddedKey;
+        private final String tableName;
+
+        Resource(String path, String embeddedKey, String tableName) {
+            this.path = path;
+            this.embeddedKey = embeddedKey;
+            this.tableName = tableName;
+        }
+    }
+
+    private final Resource resource;
+    private final int pageSize;
+    private final int pagesInFlight;
+    private final boolean verifyDb;
+    private final int offsetBuckets;
+
+    private final BitSet seenIds = new BitSet();
+    private final LatencyHistogram allPages = new LatencyHistogram();
+    private final List<String> problems = new ArrayList<>();
+    private long problemCount;
+    private long duplicateRows;
+    private long failedPages;
+
+    public PaginationCrawler(Resource resource, int pageSize, int pagesInFlight, boolean verifyDb, int offsetBuckets) {
+        this.resource = resource;
+        this.pageSize = pageSize;
+        this.pagesInFlight = Math.max(1, pagesInFlight);
+        this.verifyDb = verifyDb;
+        this.offsetBuckets = Math.max(1, offsetBuckets);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        PaginationCrawler crawler = new PaginationCrawler(
+                Resource.valueOf(ConfigLoader.getProperty("crawl.resource").trim().toUpperCase()),
+                ConfigLoader.getIntProperty("crawl.page-size", 100),
+                ConfigLoader.getIntProperty("crawl.pages-in-flight", 4),
+                Boolean.parseBoolean(ConfigLoader.getProperty("crawl.verify-db")),
+                ConfigLoader.getIntProperty("crawl.offset-buckets", 10));
+        crawler.run();
+    }
+
+    /**
+     * Crawls every page, runs the checks and writes the report.
+     *
+     * @return true if all checks passed.
+     */
+    public boolean run() throws InterruptedException {
+        HttpConnectionPool.installShared();
+        // Fetch the token once before the workers start, so they all find it cached
+        AuthUtil.authenticate();
+
+        long start = System.nanoTime();
+        PageResult first = fetchPage(0);
+        if (first.status != 200) {
+            System.out.println("Crawl of " + resource.path + " aborted: page 0 returned HTTP " + first.status);
+            return false;
+        }
+        long totalElements = first.totalElements;
+        int totalPages = (int) first.totalPages;
+        int pagesPerBucket = Math.max(1, (totalPages + offsetBuckets - 1) / offsetBuckets);
+
+        Map<String, LatencyHistogram> byOffset = new LinkedHashMap<>();
+        Map<String, Long> errorsByOffset = new LinkedHashMap<>();
+        String[] bucketNames = new String[(Math.max(totalPages, 1) + pagesPerBucket - 1) / pagesPerBucket];
+        for (int bucket = 0; bucket < bucketNames.length; bucket++) {
+            int firstPage = bucket * pagesPerBucket;
+            int lastPage = Math.min(firstPage + pagesPerBucket, Math.max(totalPages, 1)) - 1;
+            bucketNames[bucket] = String.format("pages %d-%d (offset %d)", firstPage, lastPage, (long) firstPage * pageSize);
+            byOffset.put(bucketNames[bucket], new LatencyHistogram());
+            errorsByOffset.put(bucketNames[bucket], 0L);
+        }
+
+        System.out.println("Crawling " + resource.path + ": " + totalElements + " rows in " + totalPages
+                + " pages of " + pageSize + ", " + pagesInFlight + " page(s) in flight");
+
+        merge(first, totalElements, totalPages, byOffset, errorsByOffset, bucketNames[0]);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(pagesInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "pagination-crawler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<PageResult>> window = new ArrayDeque<>();
+            int nextPage = 1;
+            while (nextPage < totalPages && window.size() < pagesInFlight) {
+                window.add(submit(executor, nextPage++));
+            }
+            while (!window.isEmpty()) {
+                PageResult page = window.poll().get();
+                // Keep the window full before merging, so the next request overlaps the merge
+                if (nextPage < totalPages) {
+                    window.add(submit(executor, nextPage++));
+                }
+                merge(page, totalElements, totalPages, byOffset, errorsByOffset, bucketNames[page.number / pagesPerBucket]);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to fetch a page of " + resource.path, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        verifyCompleteness(totalElements);
+
+        String report = buildReport(totalElements, totalPages, elapsedSeconds, byOffset, errorsByOffset);
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("crawl/" + resource.embeddedKey + "-crawl-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+        return problemCount == 0;
+    }
+
+    private Future<PageResult> submit(ExecutorService executor, int pageNumber) {
+        return executor.submit(() -> fetchPage(pageNumber));
+    }
+
+    /**
+     * Requests one page and streams its rows, collecting their IDs. Runs on a worker thread.
+     */
+    private PageResult fetchPage(int pageNumber) {
+        long start = System.nanoTime();
+        Response response = given()
+                .spec(AuthUtil.addTokenHeader(RestAssured.given()))
+                .queryParam("page", pageNumber)
+                .queryParam("size", pageSize)
+                .when()
+                .get(BASE_URI + resource.path);
+
+        PageResult page = new PageResult(pageNumber, response.statusCode());
+        if (page.status == 200) {
+            HalStreamValidator.Result result = HalStreamValidator.forItems(resource.embeddedKey, PageRow.class)
+                    .forEachItem(row -> page.addId(row.getId()))
+                    .validate(response);
+            page.totalElements = result.getPageValue("totalElements");
+            page.totalPages = result.getPageValue("totalPages");
+        }
+        page.latencyNanos = System.nanoTime() - start;
+        return page;
+    }
+
+    /**
+     * Adds a page to the crawl state. Runs on the calling thread only.
+     */
+    private void merge(PageResult page, long totalElements, int totalPages, Map<String, LatencyHistogram> byOffset,
+            Map<String, Long> errorsByOffset, String bucketName) {
+        allPages.recordNanos(page.latencyNanos);
+        byOffset.get(bucketName).recordNanos(page.latencyNanos);
+
+        if (page.status != 200) {
+            failedPages++;
+            errorsByOffset.put(bucketName, errorsByOffset.get(bucketName) + 1);
+            problem("page " + page.number + " returned HTTP " + page.status);
+            return;
+        }
+        if (page.totalElements != totalElements) {
+            problem("page " + page.number + " reports totalElements " + page.totalElements + " instead of "
+                    + totalElements + " (the data changed during the crawl)");
+        }
+
+        long expectedRows = totalPages == 0 ? 0
+                : page.number < totalPages - 1 ? pageSize : totalElements - (long) (totalPages - 1) * pageSize;
+        if (page.idCount != expectedRows) {
+            problem("page " + page.number + " has " + page.idCount + " rows, expected " + expectedRows);
+        }
+
+        for (int i = 0; i < page.idCount; i++) {
+            int id = page.ids[i];
+            if (id < 0) {
+                problem("page " + page.number + " has a row without an id");
+            } else if (seenIds.get(id)) {
+                duplicateRows++;
+                problem("id " + id + " on page " + page.number + " was already returned by an earlier page");
+            } else {
+                seenIds.set(id);
+            }
+        }
+    }
+
+    private void verifyCompleteness(long totalElements) {
+        if (!verifyDb) {
+            if (seenIds.cardinality() != totalElements) {
+                problem("crawled " + seenIds.cardinality() + " distinct rows but totalElements is " + totalElements);
+            }
+            return;
+        }
+
+        BitSet dbIds = DataBaseInsertUtil.selectIds(resource.tableName);
+        if (dbIds == null) {
+            problem("could not read the IDs of table " + resource.tableName);
+            return;
+        }
+        BitSet missing = (BitSet) dbIds.clone();
+        missing.andNot(seenIds);
+        BitSet extra = (BitSet) seenIds.clone();
+        extra.andNot(dbIds);
+
+        if (!missing.isEmpty()) {
+            problem(missing.cardinality() + " row(s) of table " + resource.tableName + " were never returned, e.g. id "
+                    + firstIds(missing));
+        }
+        if (!extra.isEmpty()) {
+            problem(extra.cardinality() + " returned row(s) are not in table " + resource.tableName + ", e.g. id "
+                    + firstIds(extra));
+        }
+    }
+
+    private String buildReport(long totalElements, int totalPages, double elapsedSeconds,
+            Map<String, LatencyHistogram> byOffset, Map<String, Long> errorsByOffset) {
+        byOffset.put("ALL", allPages);
+        errorsByOffset.put("ALL", failedPages);
+
+        StringBuilder report = new StringBuilder()
+                .append("Pagination crawl of ").append(resource.path).append(": ").append(totalPages).append(" pages of ")
+                .append(pageSize).append(", ").append(pagesInFlight).append(" page(s) in flight, elapsed ")
+                .append(String.format("%.1f", elapsedSeconds)).append(" s\n")
+                .append(String.format("Throughput: %.1f pages/s, %.0f rows/s%n%n",
+                        allPages.getCount() / elapsedSeconds, seenIds.cardinality() / elapsedSeconds))
+                .append("Per-page latency by offset:\n")
+                .append(LatencyReport.formatTable(byOffset, errorsByOffset, elapsedSeconds)).append('\n')
+                .append("Rows: ").append(seenIds.cardinality()).append(" distinct, totalElements ").append(totalElements)
+                .append(", duplicates across pages ").append(duplicateRows)
+                .append(verifyDb ? ", compared with table " + resource.tableName : ", not compared with the database")
+                .append('\n');
+
+        if (problemCount == 0) {
+            report.append("Result: PASS (pages are disjoint and complete)\n");
+        } else {
+            report.append("Result: FAIL (").append(problemCount).append(" problem(s))\n");
+            for (String problem : problems) {
+                report.append("  ").append(problem).append('\n');
+            }
+            if (problemCount > problems.size()) {
+                report.append("  ...\n");
+            }
+        }
+        return report.toString();
+    }
+
+    private void problem(String message) {
+        problemCount++;
+        if (problems.size() < MAX_PROBLEMS_SHOWN) {
+            problems.add(message);
+        }
+    }
+
+    private static String firstIds(BitSet ids) {
+        StringBuilder first = new StringBuilder();
+        for (int id = ids.nextSetBit(0), shown = 0; id >= 0 && shown < 5; id = ids.nextSetBit(id + 1), shown++) {
+            first.append(shown > 0 ? ", " : "").append(id);
+        }
+        return first.toString();
+    }
+
+    /**
+     * A row of a page; only the ID is read, all other properties are skipped.
+     */
+    @Getter
+    @Setter
+    public static class PageRow {
+        private Integer id;
+    }
+
+    /**
+     * The outcome of one page request.
+     */
+    static final class PageResult {
+        private final int number;
+        private final int status;
+        private int[] ids = new int[16];
+        private int idCount;
+        private long totalElements = -1;
+        private long totalPages = -1;
+        private long latencyNanos;
+
+        PageResult(int number, int status) {
+            this.number = number;
+            this.status = status;
+        }
+
+        void addId(Integer id) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount++] = id != null ? id : -1;
+        }
+    }
+}
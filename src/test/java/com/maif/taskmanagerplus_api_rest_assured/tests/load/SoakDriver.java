@@ -0,0 +1,639 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.ProvinceApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.ResourceApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.TaskApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.UserApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.DriftDetector;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.SyntheticDataGenerator;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.response.Response;
+
+/**
+ * SoakDriver runs a steady mixed CRUD workload against tasks, provinces and users for hours and
+ * reports whether the API got slower or the client leaked resources along the way.
+ *
+ * The run is cut into windows of soak.window-seconds. For every window it records the latency of
+ * each operation (from the scheduled send time, as in TaskLoadDriver) and, at the end of the
+ * window, samples:
+ * - the client heap after a full GC (soak.gc-before-sample), so garbage does not hide a leak
+ * - open sockets (/proc/self/fd, Linux only) and open file descriptors
+ * - live threads
+ * - open HTTP connections of the shared HttpConnectionPool (leased + idle)
+ * - open JDBC connections of the fixtures' ConnectionPool
+ * - the row count of the task table (soak.db-stats), as creates outnumber deletes in the default mix
+ *
+ * Each window is printed as it ends and the report in target/soak/ is rewritten, so a run that is
+ * stopped early still leaves its data. The drift section compares the first and the last window of
+ * every operation with a Mann-Whitney U test and flags DRIFT when the last window is slower at
+ * p < soak.drift.alpha and its p50 or p99 grew by at least soak.drift.min-increase-percent. The
+ * resource samples of all windows get a Mann-Kendall trend test and are flagged LEAK? when they
+ * rise at p < soak.drift.alpha by at least soak.leak.min-heap-mb (heap) or soak.leak.min-count
+ * (the counts). See DriftDetector. The first soak.warmup-seconds are not recorded.
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - soak.clients, soak.target-rps, soak.duration-minutes, soak.window-seconds, soak.warmup-seconds
+ * - soak.mix: weights of resource.operation pairs, e.g. task.create:12,task.get:25,province.filter:4
+ * - soak.gc-before-sample, soak.db-stats
+ * - soak.drift.alpha, soak.drift.min-increase-percent, soak.leak.min-heap-mb, soak.leak.min-count
+ *
+ * Bodies come from SyntheticDataGenerator; every row created by the run carries a run marker in its
+ * title or name, which the filter operations search for. Rows left at the end are deleted in bulk.
+ *
+ * Usage:
+ * ```
+ * mvn -Psoak test-compile exec:java -Dsoak.duration-minutes=480 -Dsoak.target-rps=100
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-14
+ */
+public class SoakDriver {
+
+    private static final String FILTER_ROUTE_SUFFIX = "?marker&page&size";
+
+    /**
+     * The resources of the workload.
+     */
+    enum Resource {
+        TASK(ApiPaths.TASKS, TaskApiClient.asDefaultUser()),
+        PROVINCE(ApiPaths.PROVINCES, ProvinceApiClient.asDefaultUser()),
+        USER(ApiPaths.USERS, UserApiClient.asDefaultUser());
+
+        private final String path;
+        private final ResourceApiClient client;
+
+        Resource(String path, ResourceApiClient client) {
+            this.path = path;
+            this.client = client;
+        }
+    }
+
+    /**
+     * The operations on one resource, with their expected status code.
+     */
+    enum Verb {
+        CREATE(201), GET(200), UPDATE(200), FILTER(200), DELETE(204);
+
+        private final int expectedStatus;
+
+        Verb(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    /**
+     * One entry of the mix: a verb on a resource, with its route name in the report.
+     */
+    static final class Operation {
+        private final Resource resource;
+        private final Verb verb;
+        private final String route;
+
+        Operation(Resource resource, Verb verb) {
+            this.resource = resource;
+            this.verb = verb;
+            switch (verb) {
+                case CREATE: route = "POST " + resource.path; break;
+                case GET: route = "GET " + resource.path + "/{id}"; break;
+                case UPDATE: route = "PUT " + resource.path + "/{id}"; break;
+                case FILTER: route = "GET " + resource.path + FILTER_ROUTE_SUFFIX; break;
+                default: route = "DELETE " + resource.path + "/{id}"; break;
+            }
+        }
+    }
+
+    private final int clients;
+    private final double targetRps;
+    private final long durationNanos;
+    private final long windowNanos;
+    private final long warmupNanos;
+    private final List<Operation> operations;
+    private final Operation[] mixTable;
+    private final boolean gcBeforeSample;
+    private final boolean dbStats;
+    private final double alpha;
+    private final double minIncreasePercent;
+    private final double minHeapMb;
+    private final double minCount;
+
+    private final SyntheticDataGenerator generator = SyntheticDataGenerator.fromConfig();
+    // Marker in the title or name of every row of this run; the filter operations search for it
+    private final String marker = TestUtil.uniqueName("Soak");
+    private final AtomicLong recordIndex = new AtomicLong();
+    private final Map<Resource, TaskLoadDriver.IdPool> ids = new LinkedHashMap<>();
+    private final AtomicReference<Window> currentWindow = new AtomicReference<>();
+    private final List<WindowSample> samples = new ArrayList<>();
+    private final String startedAt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+    public SoakDriver(int clients, double targetRps, long durationMinutes, long windowSeconds, long warmupSeconds,
+            String mix, boolean gcBeforeSample, boolean dbStats, double alpha, double minIncreasePercent,
+            double minHeapMb, double minCount) {
+        this.clients = clients;
+        this.targetRps = targetRps;
+        this.durationNanos = TimeUnit.MINUTES.toNanos(durationMinutes);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.operations = new ArrayList<>();
+        this.mixTable = parseMix(mix, operations);
+        this.gcBeforeSample = gcBeforeSample;
+        this.dbStats = dbStats;
+        this.alpha = alpha;
+        this.minIncreasePercent = minIncreasePercent;
+        this.minHeapMb = minHeapMb;
+        this.minCount = minCount;
+        for (Resource resource : Resource.values()) {
+            ids.put(resource, new TaskLoadDriver.IdPool());
+        }
+        if (windowNanos <= 0 || durationNanos < windowNanos) {
+            throw new IllegalArgumentException("soak.duration-minutes must cover at least one soak.window-seconds window");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SoakDriver driver = new SoakDriver(
+                ConfigLoader.getIntProperty("soak.clients", 20),
+                ConfigLoader.getDoubleProperty("soak.target-rps", 50),
+                ConfigLoader.getLongProperty("soak.duration-minutes", 240),
+                ConfigLoader.getLongProperty("soak.window-seconds", 300),
+                ConfigLoader.getLongProperty("soak.warmup-seconds", 60),
+                ConfigLoader.getProperty("soak.mix"),
+                !"false".equalsIgnoreCase(ConfigLoader.getProperty("soak.gc-before-sample")),
+                !"false".equalsIgnoreCase(ConfigLoader.getProperty("soak.db-stats")),
+                ConfigLoader.getDoubleProperty("soak.drift.alpha", 0.01),
+                ConfigLoader.getDoubleProperty("soak.drift.min-increase-percent", 10),
+                ConfigLoader.getIntProperty("soak.leak.min-heap-mb", 32),
+                ConfigLoader.getIntProperty("soak.leak.min-count", 3));
+        driver.run();
+    }
+
+    /**
+     * Runs the workload for the configured duration, sampling every window, then cleans up the
+     * created rows and writes the final report.
+     */
+    public void run() throws InterruptedException {
+        HttpConnectionPool.installShared();
+        AuthUtil.authenticate();
+
+        long windows = durationNanos / windowNanos;
+        System.out.println("Soak run: " + clients + " clients, target " + (targetRps > 0 ? targetRps + " req/s" : "unthrottled")
+                + ", " + windows + " windows of " + TimeUnit.NANOSECONDS.toSeconds(windowNanos) + " s after "
+                + TimeUnit.NANOSECONDS.toSeconds(warmupNanos) + " s warm-up, marker '" + marker + "'");
+        System.out.print(formatWindowHeader());
+
+        long start = System.nanoTime();
+        long end = start + warmupNanos + windows * windowNanos;
+        currentWindow.set(new Window(operations));
+        TaskLoadDriver.Pacer pacer = new TaskLoadDriver.Pacer(start, targetRps);
+        ExecutorService executor = LoadThreads.newClientExecutor("soak-client");
+        for (int i = 0; i < clients; i++) {
+            executor.execute(() -> runClient(pacer, end));
+        }
+
+        // The warm-up window is dropped
+        sleepUntil(start + warmupNanos);
+        currentWindow.getAndSet(new Window(operations)).close();
+        for (int window = 1; window <= windows; window++) {
+            long windowEnd = start + warmupNanos + window * windowNanos;
+            sleepUntil(windowEnd);
+            Window finished = currentWindow.getAndSet(new Window(operations));
+            // Waits for clients still recording into it, so the sample reads complete histograms
+            finished.close();
+            WindowSample sample = sample(window, (windowEnd - start - warmupNanos) / 60_000_000_000.0, finished);
+            samples.add(sample);
+            System.out.print(formatWindow(sample));
+            LatencyReport.write("soak/soak-" + startedAt + ".txt", buildReport(false));
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+
+        int cleanedUp = cleanUp();
+        String report = buildReport(true) + "Rows deleted after the run: " + cleanedUp + "\n";
+        System.out.println();
+        System.out.println(report.substring(report.indexOf("Drift")));
+        Path path = LatencyReport.write("soak/soak-" + startedAt + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private void runClient(TaskLoadDriver.Pacer pacer, long end) {
+        Random random = ThreadLocalRandom.current();
+        while (true) {
+            long scheduled = pacer.nextSlot();
+            if (scheduled >= end) {
+                return;
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Operation operation = mixTable[random.nextInt(mixTable.length)];
+            long sent = System.nanoTime();
+            boolean success;
+            try {
+                success = execute(operation, random);
+            } catch (Exception e) {
+                // RestAssured rethrows IOExceptions (e.g. a reset connection) unchecked; count them and go on
+                success = false;
+            }
+            long latencyNanos = System.nanoTime() - Math.min(scheduled, sent);
+            while (!currentWindow.get().record(operation, latencyNanos, success)) {
+                // The window was closed after this client read it; record into the new one
+            }
+        }
+    }
+
+    /**
+     * Runs one operation. Operations that need an existing row create one when none is available.
+     *
+     * @return true if the API answered with the expected status code.
+     */
+    private boolean execute(Operation operation, Random random) {
+        Resource resource = operation.resource;
+        TaskLoadDriver.IdPool pool = ids.get(resource);
+        Integer id = null;
+        if (operation.verb == Verb.GET || operation.verb == Verb.UPDATE) {
+            id = pool.random(random);
+        } else if (operation.verb == Verb.DELETE) {
+            id = pool.removeRandom(random);
+        }
+        if (operation.verb != Verb.CREATE && operation.verb != Verb.FILTER && id == null) {
+            return create(resource);
+        }
+
+        Response response;
+        switch (operation.verb) {
+            case GET:
+                response = resource.client.get(id);
+                break;
+            case UPDATE:
+                response = resource.client.update(id, resource == Resource.USER ? userUpdate() : body(resource));
+                break;
+            case FILTER:
+                response = resource.client.filter(filterParams(resource));
+                break;
+            case DELETE: {
+                boolean deleted = false;
+                try {
+                    deleted = resource.client.delete(id).statusCode() == operation.verb.expectedStatus;
+                } finally {
+                    if (!deleted) {
+                        // The row may still exist; put it back so it is used again or deleted by cleanUp
+                        pool.add(id);
+                    }
+                }
+                return deleted;
+            }
+            case CREATE:
+            default:
+                return create(resource);
+        }
+        return response.statusCode() == operation.verb.expectedStatus;
+    }
+
+    private boolean create(Resource resource) {
+        Response response = resource.client.create(body(resource));
+        if (response.statusCode() != Verb.CREATE.expectedStatus) {
+            return false;
+        }
+        ids.get(resource).add(response.path("id"));
+        return true;
+    }
+
+    /**
+     * A new generated row of the resource, marked as belonging to this run.
+     */
+    private Object body(Resource resource) {
+        long index = recordIndex.getAndIncrement();
+        switch (resource) {
+            case TASK: {
+                TaskDTO task = generator.task(index);
+                task.setTitle(marked(task.getTitle(), 150));
+                return task;
+            }
+            case PROVINCE: {
+                ProvinceDTO province = generator.province(index);
+                province.setName(marked(province.getName(), 80));
+                return province;
+            }
+            case USER:
+            default: {
+                UserDTO user = generator.user(index);
+                user.setName(marked(user.getName(), 80));
+                user.setEmail(TestUtil.uniqueEmail("soak.user"));
+                return user;
+            }
+        }
+    }
+
+    private Map<String, Object> userUpdate() {
+        UserDTO user = (UserDTO) body(Resource.USER);
+        Map<String, Object> update = new LinkedHashMap<>();
+        update.put("name", user.getName());
+        update.put("email", user.getEmail());
+        return update;
+    }
+
+    private Map<String, Object> filterParams(Resource resource) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(resource == Resource.TASK ? "title" : "name", marker);
+        params.put("page", 0);
+        params.put("size", 10);
+        return params;
+    }
+
+    private String marked(String text, int maxLength) {
+        String marked = marker + " " + text;
+        return marked.length() > maxLength ? marked.substring(0, maxLength) : marked;
+    }
+
+    private WindowSample sample(int number, double endMinutes, Window window) {
+        if (gcBeforeSample) {
+            System.gc();
+        }
+        HttpConnectionPool.Stats http = HttpConnectionPool.shared().getStats();
+        return new WindowSample(number, endMinutes, window,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                countOpenSockets(),
+                countOpenFileDescriptors(),
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                http.getLeased() + http.getAvailable(),
+                DataBaseInsertUtil.getPoolStats().getTotal(),
+                dbStats ? DataBaseInsertUtil.countRows("task") : -1);
+    }
+
+    /**
+     * Counts the entries of /proc/self/fd that are sockets, or returns -1 where /proc is not available.
+     */
+    private static long countOpenSockets() {
+        Path fds = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(fds)) {
+            return -1;
+        }
+        try (Stream<Path> entries = Files.list(fds)) {
+            return entries.filter(entry -> {
+                try {
+                    return Files.readSymbolicLink(entry).toString().startsWith("socket:");
+                } catch (IOException e) {
+                    // Closed between listing and reading
+                    return false;
+                }
+            }).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long countOpenFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.UnixOperatingSystemMXBean
+                ? ((com.sun.management.UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount()
+                : -1;
+    }
+
+    private int cleanUp() {
+        int deleted = 0;
+        deleted += Math.max(0, DataBaseInsertUtil.deleteTasks(ids.get(Resource.TASK).drain()));
+        deleted += Math.max(0, DataBaseInsertUtil.deleteProvinces(ids.get(Resource.PROVINCE).drain()));
+        deleted += Math.max(0, DataBaseInsertUtil.deleteUsers(ids.get(Resource.USER).drain()));
+        return deleted;
+    }
+
+    private String buildReport(boolean finished) {
+        StringBuilder report = new StringBuilder();
+        report.append("Soak run started ").append(startedAt).append(": ").append(clients).append(" clients, target ")
+                .append(targetRps > 0 ? targetRps + " req/s" : "unthrottled").append(", window ")
+                .append(TimeUnit.NANOSECONDS.toSeconds(windowNanos)).append(" s")
+                .append(finished ? "" : " (in progress)").append("\n\n");
+        report.append(formatWindowHeader());
+        for (WindowSample sample : samples) {
+            report.append(formatWindow(sample));
+        }
+        if (samples.isEmpty()) {
+            return report.toString();
+        }
+        WindowSample first = samples.get(0);
+        WindowSample last = samples.get(samples.size() - 1);
+
+        report.append("\nDrift: window 1 vs window ").append(last.number)
+                .append(String.format(" (Mann-Whitney U, one-sided, alpha %.3f, min increase %.0f%%)%n", alpha, minIncreasePercent));
+        report.append(String.format("%-40s %10s %10s %10s %10s %8s %8s %10s  %s%n", "route", "p50 first", "p50 last",
+                "p99 first", "p99 last", "P(slower)", "z", "p-value", ""));
+        List<String> findings = new ArrayList<>();
+        for (String route : first.latencies.keySet()) {
+            DriftDetector.LatencyComparison comparison = DriftDetector.compareLatency(first.latencies.get(route), last.latencies.get(route));
+            boolean drift = comparison.isDrift(alpha, minIncreasePercent);
+            if (drift) {
+                findings.add("latency of " + route);
+            }
+            report.append(String.format("%-40s %10.2f %10.2f %10.2f %10.2f %8.3f %8.2f %10.2g  %s%n", route,
+                    comparison.getFirstP50Nanos() / 1e6, comparison.getLastP50Nanos() / 1e6,
+                    comparison.getFirstP99Nanos() / 1e6, comparison.getLastP99Nanos() / 1e6,
+                    comparison.getProbabilitySlower(), comparison.getZ(), comparison.getPValue(), drift ? "DRIFT" : ""));
+        }
+
+        report.append(String.format("%nResource trend over %d windows (Mann-Kendall, one-sided, alpha %.3f)%n", samples.size(), alpha));
+        report.append(String.format("%-24s %12s %12s %8s %10s  %s%n", "resource", "first", "last", "z", "p-value", ""));
+        appendTrend(report, findings, "heap after GC (MB)", sample -> sample.heapUsedBytes / 1_048_576.0, minHeapMb);
+        appendTrend(report, findings, "open sockets", sample -> sample.openSockets, minCount);
+        appendTrend(report, findings, "open file descriptors", sample -> sample.openFileDescriptors, minCount);
+        appendTrend(report, findings, "threads", sample -> sample.threads, minCount);
+        appendTrend(report, findings, "HTTP connections", sample -> sample.httpConnections, minCount);
+        appendTrend(report, findings, "JDBC connections", sample -> sample.jdbcConnections, minCount);
+        if (dbStats) {
+            report.append(String.format("%-24s %12d %12d%n", "task rows", first.taskRows, last.taskRows));
+        }
+
+        report.append("\n").append(findings.isEmpty()
+                ? "No significant drift or leak" + (samples.size() < 6 ? " (fewer than 6 windows: trends cannot be significant yet)" : "")
+                : "Flagged: " + String.join(", ", findings)).append("\n");
+        return report.toString();
+    }
+
+    private void appendTrend(StringBuilder report, List<String> findings, String name, ToDoubleFunction<WindowSample> value,
+            double minIncrease) {
+        double[] values = samples.stream().mapToDouble(value).toArray();
+        DriftDetector.Trend trend = DriftDetector.trend(values);
+        boolean rising = trend.isRising(alpha, minIncrease);
+        if (rising) {
+            findings.add(name);
+        }
+        report.append(String.format("%-24s %12.1f %12.1f %8.2f %10.2g  %s%n", name, trend.getFirst(), trend.getLast(),
+                trend.getZ(), trend.getPValue(), rising ? "LEAK?" : ""));
+    }
+
+    private static String formatWindowHeader() {
+        return String.format("%6s %8s %9s %7s %8s %9s %9s %9s %8s %8s %6s %8s %6s %6s %10s%n", "window", "minute",
+                "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "heap MB", "sockets", "fds", "threads",
+                "http", "jdbc", "task rows");
+    }
+
+    private String formatWindow(WindowSample sample) {
+        LatencyHistogram all = sample.all;
+        return String.format("%6d %8.1f %9d %7d %8.1f %9.2f %9.2f %9.2f %8.1f %8d %6d %8d %6d %6d %10d%n", sample.number,
+                sample.endMinutes, all.getCount(), sample.errors, all.getCount() / (windowNanos / 1e9),
+                all.getPercentileNanos(50) / 1e6, all.getPercentileNanos(99) / 1e6, all.getPercentileNanos(99.9) / 1e6,
+                sample.heapUsedBytes / 1_048_576.0, sample.openSockets, sample.openFileDescriptors, sample.threads,
+                sample.httpConnections, sample.jdbcConnections, sample.taskRows);
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * Expands "task.create:12,province.get:8,..." into a lookup table with one entry per weight unit,
+     * and collects the distinct operations in order of appearance.
+     */
+    static Operation[] parseMix(String mix, List<Operation> operations) {
+        List<Operation> table = new ArrayList<>();
+        Map<String, Operation> byName = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String[] names = parts[0].trim().split("\\.");
+            if (parts.length != 2 || names.length != 2) {
+                throw new IllegalArgumentException("Invalid soak.mix entry '" + entry + "', expected resource.operation:weight");
+            }
+            Operation operation = byName.computeIfAbsent(parts[0].trim().toLowerCase(), name -> new Operation(
+                    Resource.valueOf(names[0].trim().toUpperCase()), Verb.valueOf(names[1].trim().toUpperCase())));
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("soak.mix has no operation with a positive weight: " + mix);
+        }
+        operations.addAll(byName.values());
+        return table.toArray(new Operation[0]);
+    }
+
+    /**
+     * The latencies and errors recorded during one window.
+     */
+    static final class Window {
+        private final Map<Operation, LatencyHistogram> latencies = new LinkedHashMap<>();
+        private final Map<Operation, AtomicLong> errors = new LinkedHashMap<>();
+        // Held shared while clients record, and exclusively by close()
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+
+        Window(List<Operation> operations) {
+            for (Operation operation : operations) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, new AtomicLong());
+            }
+        }
+
+        /**
+         * Records one request.
+         *
+         * @return false if the window is closed and nothing was recorded.
+         */
+        boolean record(Operation operation, long latencyNanos, boolean success) {
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                latencies.get(operation).recordNanos(latencyNanos);
+                if (!success) {
+                    errors.get(operation).incrementAndGet();
+                }
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Stops recording, after waiting for the clients that are recording right now.
+         */
+        void close() {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * What was measured in one window: latencies by route and the resources sampled at its end.
+     */
+    static final class WindowSample {
+        private final int number;
+        private final double endMinutes;
+        private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+        private final LatencyHistogram all = new LatencyHistogram();
+        private final long errors;
+        private final long heapUsedBytes;
+        private final long openSockets;
+        private final long openFileDescriptors;
+        private final int threads;
+        private final int httpConnections;
+        private final int jdbcConnections;
+        private final long taskRows;
+
+        WindowSample(int number, double endMinutes, Window window, long heapUsedBytes, long openSockets,
+                long openFileDescriptors, int threads, int httpConnections, int jdbcConnections, long taskRows) {
+            this.number = number;
+            this.endMinutes = endMinutes;
+            long errorCount = 0;
+            for (Map.Entry<Operation, LatencyHistogram> entry : window.latencies.entrySet()) {
+                latencies.put(entry.getKey().route, entry.getValue());
+                all.merge(entry.getValue());
+                errorCount += window.errors.get(entry.getKey()).get();
+            }
+            latencies.put("ALL", all);
+            this.errors = errorCount;
+            this.heapUsedBytes = heapUsedBytes;
+            this.openSockets = openSockets;
+            this.openFileDescriptors = openFileDescriptors;
+            this.threads = threads;
+            this.httpConnections = httpConnections;
+            this.jdbcConnections = jdbcConnections;
+            this.taskRows = taskRows;
+        }
+    }
+}
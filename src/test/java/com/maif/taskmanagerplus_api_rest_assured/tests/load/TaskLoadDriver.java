@@ -0,0 +1,407 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import static io.restassured.RestAssured.given;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.UserSessionPool;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * TaskLoadDriver runs sustained load against /v1/tasks with many concurrent clients
+ * (one virtual thread per client on Java 21+, see LoadThreads).
+ *
+ * Each client repeatedly takes the next send slot from a shared pacer, which spaces requests to the
+ * target rate, and runs one operation picked from the configured mix: create, get, update, filter
+ * or delete. Latency is measured from the scheduled send time, so a slow server also shows the time
+ * requests spent waiting for a free client (no coordinated omission); the pure service time is
+ * reported separately. With load.target-rps=0 clients send as fast as they can.
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - load.clients: number of concurrent clients
+ * - load.target-rps: target requests per second across all clients (0 = unthrottled)
+ * - load.duration-seconds: how long to run
+ * - load.mix: operation weights, e.g. create:20,get:40,update:20,filter:15,delete:5
+ * - load.users: number of users to send the requests as (UserSessionPool, assigned as in
+ *   sessions.assignment); 0 sends everything as auth.username
+ *
+ * Requests reuse keep-alive connections of the shared HttpConnectionPool (http.pool.*); the report
+ * shows the peak leased and pending connections. Run with -Dhttp.pool.enabled=false to compare
+ * with a new connection per request.
+ *
+ * Tasks created by the run are deleted in bulk at the end. The p50/p90/p99/p99.9 report is printed
+ * and written to target/load/.
+ *
+ * Usage:
+ * ```
+ * mvn -Pload test-compile exec:java -Dload.clients=2000 -Dload.target-rps=500 -Dload.duration-seconds=120
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-27
+ */
+public class TaskLoadDriver {
+
+    private static final String BASE_URI = ConfigLoader.getProperty("auth.base.uri");
+
+    /**
+     * The operations a client can run, with the route name used in the report.
+     */
+    enum Operation {
+        CREATE("POST " + ApiPaths.TASKS),
+        GET("GET " + ApiPaths.TASKS + "/{id}"),
+        UPDATE("PUT " + ApiPaths.TASKS + "/{id}"),
+        FILTER("GET " + ApiPaths.TASKS + "?title&page&size"),
+        DELETE("DELETE " + ApiPaths.TASKS + "/{id}");
+
+        private final String route;
+
+        Operation(String route) {
+            this.route = route;
+        }
+    }
+
+    private final int clients;
+    private final double targetRps;
+    private final long durationNanos;
+    private final Operation[] mixTable;
+
+    // Title prefix shared by every task of this run; the filter operation searches for it
+    private final String titlePrefix = TestUtil.uniqueName("Load Task");
+
+    private final IdPool taskIds = new IdPool();
+    private final Map<Operation, LatencyHistogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyHistogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final boolean httpPoolEnabled = Boolean.parseBoolean(ConfigLoader.getProperty("http.pool.enabled"));
+    // null when all requests are sent as the default user
+    private final UserSessionPool sessions;
+    private final AtomicInteger peakLeased = new AtomicInteger();
+    private final AtomicInteger peakPending = new AtomicInteger();
+
+    public TaskLoadDriver(int clients, double targetRps, long durationSeconds, String mix, UserSessionPool sessions) {
+        this.clients = clients;
+        this.sessions = sessions;
+        this.targetRps = targetRps;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.mixTable = parseMix(mix);
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new LatencyHistogram());
+            serviceTimes.put(operation, new LatencyHistogram());
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int users = ConfigLoader.getIntProperty("load.users", 0);
+        String assignment = ConfigLoader.getProperty("sessions.assignment");
+        TaskLoadDriver driver = new TaskLoadDriver(
+                ConfigLoader.getIntProperty("load.clients", 1000),
+                ConfigLoader.getIntProperty("load.target-rps", 200),
+                ConfigLoader.getLongProperty("load.duration-seconds", 60),
+                ConfigLoader.getProperty("load.mix") != null ? ConfigLoader.getProperty("load.mix")
+                        : "create:20,get:40,update:20,filter:15,delete:5",
+                users > 0 ? new UserSessionPool(users, assignment != null ? UserSessionPool.Assignment.fromProperty(assignment)
+                        : UserSessionPool.Assignment.ROUND_ROBIN, ConfigLoader.getIntProperty("sessions.auth-concurrency", 16)) : null);
+        driver.run();
+    }
+
+    /**
+     * Runs the load for the configured duration, cleans up the created tasks and writes the report.
+     */
+    public void run() throws InterruptedException {
+        HttpConnectionPool.installShared();
+        // Fetch the token once before the clients start, so they all find it cached
+        AuthUtil.authenticate();
+        if (sessions != null) {
+            sessions.open();
+            System.out.println("Session pool: " + sessions);
+        }
+
+        System.out.println("Starting " + clients + " clients on "
+                + (LoadThreads.virtualThreadsAvailable() ? "virtual" : "platform") + " threads, target "
+                + (targetRps > 0 ? targetRps + " req/s" : "unthrottled") + ", duration "
+                + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s");
+
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        Pacer pacer = new Pacer(start, targetRps);
+
+        ScheduledExecutorService poolSampler = Executors.newSingleThreadScheduledExecutor();
+        if (httpPoolEnabled) {
+            poolSampler.scheduleAtFixedRate(this::samplePool, 100, 100, TimeUnit.MILLISECONDS);
+        }
+
+        ExecutorService executor = LoadThreads.newClientExecutor("task-load-client");
+        for (int i = 0; i < clients; i++) {
+            executor.execute(() -> runClient(pacer, end));
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(5), TimeUnit.NANOSECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        poolSampler.shutdownNow();
+
+        List<Integer> leftovers = taskIds.drain();
+        DataBaseInsertUtil.deleteTasks(leftovers);
+        if (sessions != null) {
+            sessions.close();
+        }
+
+        String report = buildReport(elapsedSeconds, leftovers.size());
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("load/task-load-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private void runClient(Pacer pacer, long end) {
+        Random random = ThreadLocalRandom.current();
+        while (true) {
+            long scheduled = pacer.nextSlot();
+            if (scheduled >= end) {
+                return;
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Operation operation = mixTable[random.nextInt(mixTable.length)];
+            Integer id = null;
+            if (operation == Operation.GET || operation == Operation.UPDATE || operation == Operation.DELETE) {
+                id = operation == Operation.DELETE ? taskIds.removeRandom(random) : taskIds.random(random);
+                if (id == null) {
+                    // No task to work on yet: create one, and record it as the create it is
+                    operation = Operation.CREATE;
+                }
+            }
+            long sent = System.nanoTime();
+            boolean success;
+            try {
+                success = execute(operation, id, random);
+            } catch (RuntimeException e) {
+                success = false;
+            }
+            long received = System.nanoTime();
+            if (!success && operation == Operation.DELETE) {
+                // The task may still exist; put it back so it is used again or deleted with the leftovers
+                taskIds.add(id);
+            }
+
+            responseTimes.get(operation).recordNanos(received - Math.min(scheduled, sent));
+            serviceTimes.get(operation).recordNanos(received - sent);
+            if (!success) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Runs one operation.
+     *
+     * @param id The task to get, update or delete; unused by create and filter.
+     * @return true if the API answered with the expected status code.
+     */
+    private boolean execute(Operation operation, Integer id, Random random) {
+        switch (operation) {
+            case GET: {
+                Response response = given()
+                        .spec(requestSpec())
+                        .when()
+                        .get(BASE_URI + ApiPaths.TASKS + "/" + id);
+                return response.statusCode() == 200;
+            }
+            case UPDATE: {
+                TaskDTO taskDTO = TaskDTO.createTask(id, titlePrefix + " updated", "Updated by the load driver",
+                        "2024-07-01", random.nextBoolean());
+                Response response = given()
+                        .spec(requestSpec())
+                        .body(TestUtil.convertObjectToJson(taskDTO))
+                        .when()
+                        .put(BASE_URI + ApiPaths.TASKS + "/" + id);
+                return response.statusCode() == 200;
+            }
+            case FILTER: {
+                Response response = given()
+                        .spec(requestSpec())
+                        .queryParam("title", titlePrefix)
+                        .queryParam("page", 0)
+                        .queryParam("size", 10)
+                        .when()
+                        .get(BASE_URI + ApiPaths.TASKS);
+                return response.statusCode() == 200;
+            }
+            case DELETE: {
+                Response response = given()
+                        .spec(requestSpec())
+                        .when()
+                        .delete(BASE_URI + ApiPaths.TASKS + "/" + id);
+                return response.statusCode() == 204;
+            }
+            case CREATE:
+            default:
+                return create(random);
+        }
+    }
+
+    private boolean create(Random random) {
+        TaskDTO taskDTO = TaskDTO.createTask(titlePrefix, "Created by the load driver", "2024-06-30", random.nextBoolean());
+        Response response = given()
+                .spec(requestSpec())
+                .body(TestUtil.convertObjectToJson(taskDTO))
+                .when()
+                .post(BASE_URI + ApiPaths.TASKS);
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        taskIds.add(response.path("id"));
+        return true;
+    }
+
+    /**
+     * Returns the auth spec of the next request: the default user's, or a pool user's when load.users is set.
+     */
+    private RequestSpecification requestSpec() {
+        return sessions == null ? AuthUtil.addTokenHeader(RestAssured.given()) : sessions.next().spec();
+    }
+
+    /**
+     * Keeps the highest leased and pending connection counts of the shared HTTP pool.
+     */
+    private void samplePool() {
+        HttpConnectionPool.Stats stats = HttpConnectionPool.shared().getStats();
+        peakLeased.accumulateAndGet(stats.getLeased(), Math::max);
+        peakPending.accumulateAndGet(stats.getPending(), Math::max);
+    }
+
+    private String buildReport(double elapsedSeconds, int cleanedUp) {
+        Map<String, LatencyHistogram> response = new LinkedHashMap<>();
+        Map<String, LatencyHistogram> service = new LinkedHashMap<>();
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        LatencyHistogram allResponses = new LatencyHistogram();
+        long allErrors = 0;
+
+        for (Operation operation : Operation.values()) {
+            response.put(operation.route, responseTimes.get(operation));
+            service.put(operation.route, serviceTimes.get(operation));
+            errorCounts.put(operation.route, errors.get(operation).get());
+            allResponses.merge(responseTimes.get(operation));
+            allErrors += errors.get(operation).get();
+        }
+        response.put("ALL", allResponses);
+        errorCounts.put("ALL", allErrors);
+
+        return "Task API load run: " + clients + " clients, target "
+                + (targetRps > 0 ? targetRps + " req/s" : "unthrottled")
+                + ", elapsed " + String.format("%.1f", elapsedSeconds) + " s, achieved "
+                + String.format("%.1f", allResponses.getCount() / elapsedSeconds) + " req/s\n\n"
+                + "Response time (from scheduled send time):\n"
+                + LatencyReport.formatTable(response, errorCounts, elapsedSeconds) + "\n"
+                + "Service time (from actual send time):\n"
+                + LatencyReport.formatTable(service, errorCounts, elapsedSeconds) + "\n"
+                + "HTTP connections: " + (httpPoolEnabled
+                        ? "pooled (" + HttpConnectionPool.shared().getStats() + ", peak leased=" + peakLeased.get()
+                                + ", peak pending=" + peakPending.get() + ")"
+                        : "new connection per request (http.pool.enabled=false)") + "\n"
+                + "Users: " + (sessions != null ? sessions.toString() : "all requests as auth.username") + "\n"
+                + "Tasks deleted after the run: " + cleanedUp + "\n";
+    }
+
+    /**
+     * Expands "create:20,get:40,..." into a lookup table with one entry per weight unit.
+     */
+    static Operation[] parseMix(String mix) {
+        List<Operation> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "', expected operation:weight");
+            }
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight: " + mix);
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    /**
+     * Hands out evenly spaced send times for the target rate. Slots keep advancing even when
+     * clients fall behind, so queueing delay shows up in the response times.
+     */
+    static final class Pacer {
+        private final AtomicLong nextSlot;
+        private final long intervalNanos;
+
+        Pacer(long startNanos, double targetRps) {
+            this.nextSlot = new AtomicLong(startNanos);
+            this.intervalNanos = targetRps > 0 ? (long) (1_000_000_000L / targetRps) : 0;
+        }
+
+        long nextSlot() {
+            return intervalNanos == 0 ? System.nanoTime() : nextSlot.getAndAdd(intervalNanos);
+        }
+    }
+
+    /**
+     * The IDs of the tasks created by this run and not deleted yet.
+     */
+    static final class IdPool {
+        private final List<Integer> ids = new ArrayList<>();
+
+        synchronized void add(Integer id) {
+            ids.add(id);
+        }
+
+        synchronized Integer random(Random random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized Integer removeRandom(Random random) {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(ids.size());
+            Integer last = ids.remove(ids.size() - 1);
+            return index == ids.size() ? last : ids.set(index, last);
+        }
+
+        synchronized List<Integer> drain() {
+            List<Integer> drained = new ArrayList<>(ids);
+            ids.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.load;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.TaskApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyHistogram;
+import com.maif.taskmanagerplus_api_rest_assured.tests.perf.LatencyReport;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HttpConnectionPool;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
+
+import io.restassured.response.Response;
+
+/**
+ * UpdateContentionDriver measures PUT /v1/tasks/{id} when many clients update the same few tasks,
+ * and checks that no acknowledged update was lost.
+ *
+ * The run has one level per entry of contention.clients (e.g. 1,2,4,...,64). Each level creates
+ * contention.hot-tasks new tasks, then lets its clients send PUTs back to back for
+ * contention.level-seconds, each to a random one of those tasks. Throughput and latency per level
+ * show how the API copes as the number of writers per row rises.
+ *
+ * Every PUT writes a title and description unique to it ("c3 #17": client 3, its 17th update)
+ * and a completed flag derived from the same number. When the level ends, the rows are read back
+ * from the database (contention.verify=db) or with GET (contention.verify=api) and checked against
+ * the PUTs that were sent:
+ * - The final row must be one of the PUTs. Otherwise it is counted as an unknown state.
+ * - Its description and completed flag must come from the same PUT as its title. Otherwise the row
+ *   mixes two updates and is counted as a torn write.
+ * - No acknowledged PUT (200) may have been sent after the surviving PUT was acknowledged. Each one
+ *   that was is a lost update: it was confirmed, started later, and still did not stick. PUTs that
+ *   overlapped the surviving one in time may legitimately lose the race and are not counted.
+ * - A surviving PUT whose response was an error or timeout is reported separately (applied
+ *   although the client was told it failed).
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - contention.clients: comma-separated client counts, one level each
+ * - contention.hot-tasks: number of tasks the clients of a level share
+ * - contention.level-seconds: duration of each level
+ * - contention.verify: db or api
+ *
+ * Clients run closed-loop (the next PUT leaves when the previous one returned), so latency is
+ * service time. A level whose clients are still running 5 minutes after it ends is stopped and
+ * reported as not verified. The tasks of each level are deleted when it ends. The report is
+ * printed and written to target/load/.
+ *
+ * Usage:
+ * ```
+ * mvn -Pcontention test-compile exec:java -Dcontention.clients=1,8,64,256 -Dcontention.hot-tasks=1
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-15
+ */
+public class UpdateContentionDriver {
+
+    private static final String DUE_DATE = "2024-07-01";
+    private static final Pattern WRITE_TOKEN = Pattern.compile(" c(\\d+) #(\\d+)$");
+
+    private final int[] clientLevels;
+    private final int hotTasks;
+    private final long levelNanos;
+    private final boolean verifyInDatabase;
+
+    private final TaskApiClient tasks = TaskApiClient.asDefaultUser();
+    // Title prefix of every task of this run
+    private final String marker = TestUtil.uniqueName("Contention");
+
+    public UpdateContentionDriver(int[] clientLevels, int hotTasks, long levelSeconds, String verify) {
+        if (!"db".equals(verify) && !"api".equals(verify)) {
+            throw new IllegalArgumentException("contention.verify must be db or api, not '" + verify + "'");
+        }
+        this.clientLevels = clientLevels;
+        this.hotTasks = hotTasks;
+        this.levelNanos = TimeUnit.SECONDS.toNanos(levelSeconds);
+        this.verifyInDatabase = "db".equals(verify);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String levels = ConfigLoader.getProperty("contention.clients");
+        String verify = ConfigLoader.getProperty("contention.verify");
+        UpdateContentionDriver driver = new UpdateContentionDriver(
+                parseLevels(levels != null ? levels : "1,2,4,8,16,32,64"),
+                ConfigLoader.getIntProperty("contention.hot-tasks", 4),
+                ConfigLoader.getLongProperty("contention.level-seconds", 20),
+                verify != null ? verify.trim() : "db");
+        driver.run();
+    }
+
+    /**
+     * Runs all levels and writes the report.
+     */
+    public void run() throws InterruptedException {
+        HttpConnectionPool.installShared();
+        AuthUtil.authenticate();
+
+        System.out.println("Contention run on " + hotTasks + " tasks, " + TimeUnit.NANOSECONDS.toSeconds(levelNanos)
+                + " s per level, verified through " + (verifyInDatabase ? "the database" : "the API"));
+        List<LevelResult> results = new ArrayList<>();
+        for (int clients : clientLevels) {
+            LevelResult result = runLevel(clients);
+            results.add(result);
+            if (!result.verified) {
+                System.out.println(String.format("%5d clients: NOT VERIFIED, clients were still writing after the level",
+                        clients));
+                continue;
+            }
+            System.out.println(String.format("%5d clients: %8.1f req/s, p99 %8.2f ms, %d lost updates, %d torn writes",
+                    clients, result.histogram.getCount() / result.elapsedSeconds,
+                    result.histogram.getPercentileNanos(99) / 1e6, result.lostUpdates, result.tornWrites));
+        }
+
+        String report = buildReport(results);
+        System.out.println();
+        System.out.println(report);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("load/update-contention-" + timestamp + ".txt", report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private LevelResult runLevel(int clients) throws InterruptedException {
+        List<Integer> ids = createHotTasks();
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<List<Write>> writesByClient = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            writesByClient.add(new ArrayList<>());
+        }
+
+        long start = System.nanoTime();
+        long end = start + levelNanos;
+        ExecutorService executor = LoadThreads.newClientExecutor("contention-client");
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            executor.execute(() -> runClient(client, ids, end, histogram, writesByClient.get(client)));
+        }
+        executor.shutdown();
+        boolean stopped = executor.awaitTermination(levelNanos + TimeUnit.MINUTES.toNanos(5), TimeUnit.NANOSECONDS);
+        if (!stopped) {
+            // A client still writing would change the rows while they are read back
+            executor.shutdownNow();
+            stopped = executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        LevelResult result = new LevelResult(clients, histogram, elapsedSeconds, stopped);
+        if (stopped) {
+            verify(ids, writesByClient, result);
+        }
+        for (Integer id : ids) {
+            tasks.delete(id);
+        }
+        return result;
+    }
+
+    private List<Integer> createHotTasks() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < hotTasks; i++) {
+            Response response = tasks.create(TaskDTO.createTask(marker + " hot " + i, "Not updated yet", DUE_DATE, false));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Could not create a hot task: " + response.statusCode() + " " + response.asString());
+            }
+            ids.add(response.path("id"));
+        }
+        return ids;
+    }
+
+    private void runClient(int client, List<Integer> ids, long end, LatencyHistogram histogram, List<Write> writes) {
+        Random random = ThreadLocalRandom.current();
+        int sequence = 0;
+        while (System.nanoTime() < end) {
+            int taskId = ids.get(random.nextInt(ids.size()));
+            sequence++;
+            TaskDTO body = TaskDTO.createTask(taskId, title(client, sequence), description(client, sequence), DUE_DATE,
+                    sequence % 2 == 1);
+            long sent = System.nanoTime();
+            int status;
+            try {
+                status = tasks.update(taskId, body).statusCode();
+            } catch (Exception e) {
+                // RestAssured rethrows IOExceptions unchecked; the PUT may still have been applied
+                status = -1;
+            }
+            long received = System.nanoTime();
+            histogram.recordNanos(received - sent);
+            writes.add(new Write(client, sequence, taskId, sent, received, status));
+        }
+    }
+
+    private String title(int client, int sequence) {
+        return marker + " c" + client + " #" + sequence;
+    }
+
+    private static String description(int client, int sequence) {
+        return "Written by contention client " + client + ", update " + sequence;
+    }
+
+    /**
+     * Compares the final rows with the PUTs sent to them and fills in the consistency counts.
+     */
+    private void verify(List<Integer> ids, List<List<Write>> writesByClient, LevelResult result) {
+        Map<Long, Write> writesByKey = new HashMap<>();
+        Map<Integer, List<Write>> acknowledgedByTask = new HashMap<>();
+        for (List<Write> writes : writesByClient) {
+            for (Write write : writes) {
+                writesByKey.put(key(write.client, write.sequence), write);
+                result.statusCounts.merge(write.status, 1L, Long::sum);
+                if (write.status == 200) {
+                    result.acknowledged++;
+                    acknowledgedByTask.computeIfAbsent(write.taskId, id -> new ArrayList<>()).add(write);
+                }
+            }
+        }
+
+        Map<Integer, TaskDTO> finalRows = readFinalRows(ids);
+        for (Integer id : ids) {
+            List<Write> acknowledged = acknowledgedByTask.getOrDefault(id, new ArrayList<>());
+            TaskDTO row = finalRows.get(id);
+            if (row == null) {
+                result.unknownStates++;
+                result.lostUpdates += acknowledged.size();
+                continue;
+            }
+            Matcher matcher = WRITE_TOKEN.matcher(row.getTitle());
+            Write survivor = matcher.find()
+                    ? writesByKey.get(key(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                    : null;
+            if (survivor == null || survivor.taskId != id) {
+                // Still the seeded row is fine only if no PUT was acknowledged
+                if (!acknowledged.isEmpty()) {
+                    result.unknownStates++;
+                    result.lostUpdates += acknowledged.size();
+                }
+                continue;
+            }
+            if (!description(survivor.client, survivor.sequence).equals(row.getDescription())
+                    || (survivor.sequence % 2 == 1) != Boolean.TRUE.equals(row.getCompleted())) {
+                result.tornWrites++;
+            }
+            if (survivor.status != 200) {
+                result.appliedDespiteError++;
+            }
+            for (Write write : acknowledged) {
+                if (write.sentNanos > survivor.receivedNanos) {
+                    result.lostUpdates++;
+                }
+            }
+        }
+    }
+
+    private Map<Integer, TaskDTO> readFinalRows(List<Integer> ids) {
+        if (verifyInDatabase) {
+            Map<Integer, TaskDTO> rows = DataBaseInsertUtil.selectTasks(ids);
+            if (rows == null) {
+                throw new IllegalStateException("Could not read the tasks back from the database; use -Dcontention.verify=api "
+                        + "when the API does not use the database of application-test.properties");
+            }
+            return rows;
+        }
+        Map<Integer, TaskDTO> rows = new HashMap<>();
+        for (Integer id : ids) {
+            Response response = tasks.get(id);
+            if (response.statusCode() == 200) {
+                rows.put(id, TaskDTO.createTask(id, response.path("title"), response.path("description"),
+                        response.path("dueDate"), response.path("completed")));
+            }
+        }
+        return rows;
+    }
+
+    private static long key(int client, int sequence) {
+        return (long) client << 32 | sequence;
+    }
+
+    private String buildReport(List<LevelResult> results) {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        Map<String, Long> errors = new LinkedHashMap<>();
+        for (LevelResult result : results) {
+            if (!result.verified) {
+                // Its acknowledged PUTs were not counted, so the error column would be wrong
+                continue;
+            }
+            String name = String.format("PUT x%d clients (%.1f per task)", result.clients, (double) result.clients / hotTasks);
+            histograms.put(name, result.histogram);
+            errors.put(name, result.histogram.getCount() - result.acknowledged);
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("PUT /v1/tasks/{id} contention: ").append(hotTasks).append(" hot tasks, ")
+                .append(TimeUnit.NANOSECONDS.toSeconds(levelNanos)).append(" s per level, closed-loop clients\n\n");
+        report.append("Latency (service time); req/s is based on the level duration:\n");
+        report.append(LatencyReport.formatTable(histograms, errors, levelNanos / 1e9)).append("\n");
+
+        report.append("Consistency (final rows read from ").append(verifyInDatabase ? "the database" : "the API").append("):\n");
+        report.append(String.format("%8s %10s %10s %8s %10s %12s  %s%n", "clients", "acked PUTs", "lost", "torn",
+                "unknown", "applied+err", "statuses"));
+        boolean consistent = true;
+        boolean allVerified = true;
+        for (LevelResult result : results) {
+            if (!result.verified) {
+                report.append(String.format("%8d  not verified: clients were still writing after the level%n", result.clients));
+                allVerified = false;
+                continue;
+            }
+            report.append(String.format("%8d %10d %10d %8d %10d %12d  %s%n", result.clients, result.acknowledged,
+                    result.lostUpdates, result.tornWrites, result.unknownStates, result.appliedDespiteError,
+                    result.statusCounts));
+            consistent &= result.lostUpdates == 0 && result.tornWrites == 0 && result.unknownStates == 0;
+        }
+        report.append("\n").append(!consistent
+                ? "LOST UPDATES: acknowledged PUTs were lost or mixed; see the consistency table"
+                : !allVerified
+                ? "INCOMPLETE: some levels were not verified because their clients did not stop"
+                : "No lost updates: every final row is a PUT that no later acknowledged PUT should have replaced").append("\n");
+        return report.toString();
+    }
+
+    static int[] parseLevels(String levels) {
+        String[] parts = levels.split(",");
+        int[] clientLevels = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            clientLevels[i] = Integer.parseInt(parts[i].trim());
+            if (clientLevels[i] <= 0) {
+                throw new IllegalArgumentException("Invalid contention.clients entry '" + parts[i] + "'");
+            }
+        }
+        return clientLevels;
+    }
+
+    /**
+     * One PUT as the client saw it. status is -1 when no response arrived.
+     */
+    static final class Write {
+        private final int client;
+        private final int sequence;
+        private final int taskId;
+        private final long sentNanos;
+        private final long receivedNanos;
+        private final int status;
+
+        Write(int client, int sequence, int taskId, long sentNanos, long receivedNanos, int status) {
+            this.client = client;
+            this.sequence = sequence;
+            this.taskId = taskId;
+            this.sentNanos = sentNanos;
+            this.receivedNanos = receivedNanos;
+            this.status = status;
+        }
+    }
+
+    /**
+     * The measurements and consistency counts of one level.
+     */
+    static final class LevelResult {
+        private final int clients;
+        private final LatencyHistogram histogram;
+        private final double elapsedSeconds;
+        // false if clients were still running after the level, so the rows were not checked
+        private final boolean verified;
+        private final Map<Integer, Long> statusCounts = new TreeMap<>();
+        private long acknowledged;
+        private long lostUpdates;
+        private long tornWrites;
+        private long unknownStates;
+        private long appliedDespiteError;
+
+        LevelResult(int clients, LatencyHistogram histogram, double elapsedSeconds, boolean verified) {
+            this.clients = clients;
+            this.histogram = histogram;
+            this.elapsedSeconds = elapsedSeconds;
+            this.verified = verified;
+        }
+    }
+}
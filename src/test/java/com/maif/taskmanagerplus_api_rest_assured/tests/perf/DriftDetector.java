@@ -0,0 +1,190 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * DriftDetector tells whether a long run got slower or kept growing, with rank-based tests that
+ * make no assumption about the shape of latency distributions.
+ *
+ * - compareLatency: Mann-Whitney U test of the latencies of an early and a late window, computed
+ *   from the histogram buckets (values in the same bucket count as ties). It tests whether a late
+ *   request tends to be slower than an early one.
+ * - trend: Mann-Kendall trend test of one value sampled per window (e.g. heap after GC or open
+ *   sockets). It tests whether the values keep rising, without requiring a straight line.
+ *
+ * Both use the normal approximation and report a one-sided p-value for "got worse". With hundreds
+ * of thousands of requests per window even a 1% change is significant, so callers should also
+ * require a minimum size of the change before they call it drift. A rise over all windows
+ * is significant at 1% from 6 windows on.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-14
+ */
+public class DriftDetector {
+
+    /**
+     * Compares the latencies of two windows.
+     *
+     * @param first The histogram of the early window.
+     * @param last  The histogram of the late window.
+     * @return The test result; p-value 1 when either window is empty.
+     */
+    public static LatencyComparison compareLatency(LatencyHistogram first, LatencyHistogram last) {
+        long[] firstCounts = first.getBucketCounts();
+        long[] lastCounts = last.getBucketCounts();
+        double n1 = 0;
+        double n2 = 0;
+        for (int i = 0; i < firstCounts.length; i++) {
+            n1 += firstCounts[i];
+            n2 += lastCounts[i];
+        }
+        if (n1 == 0 || n2 == 0) {
+            return new LatencyComparison(first, last, 0.5, 0, 1);
+        }
+
+        // Rank sum of the late window, every bucket getting the mid-rank of its values
+        double rankSum = 0;
+        double tieTerm = 0;
+        double valuesBelow = 0;
+        for (int i = 0; i < firstCounts.length; i++) {
+            double ties = firstCounts[i] + lastCounts[i];
+            if (ties == 0) {
+                continue;
+            }
+            double midRank = valuesBelow + (ties + 1) / 2;
+            rankSum += lastCounts[i] * midRank;
+            tieTerm += ties * ties * ties - ties;
+            valuesBelow += ties;
+        }
+        double n = n1 + n2;
+        double u = rankSum - n2 * (n2 + 1) / 2;
+        double mean = n1 * n2 / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        double z = variance > 0 ? (u - mean) / Math.sqrt(variance) : 0;
+        return new LatencyComparison(first, last, u / (n1 * n2), z, upperTailProbability(z));
+    }
+
+    /**
+     * Tests one value per window for a rising trend.
+     *
+     * @param samples The values in window order; negative values (not available) are skipped.
+     * @return The test result; p-value 1 with fewer than 3 values.
+     */
+    public static Trend trend(double[] samples) {
+        double[] values = Arrays.stream(samples).filter(value -> value >= 0).toArray();
+        int n = values.length;
+        if (n < 3) {
+            return new Trend(n == 0 ? -1 : values[0], n == 0 ? -1 : values[n - 1], 0, 0, 1);
+        }
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Long.signum(Double.compare(values[j], values[i]));
+            }
+        }
+        // Variance with the correction for groups of equal values
+        double variance = n * (n - 1.0) * (2 * n + 5);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && sorted[j] == sorted[i]) {
+                j++;
+            }
+            double ties = j - i;
+            variance -= ties * (ties - 1) * (2 * ties + 5);
+            i = j;
+        }
+        variance /= 18;
+        // Continuity correction: S moves in steps of 2
+        double z = variance > 0 ? (s - Math.signum(s)) / Math.sqrt(variance) : 0;
+        return new Trend(values[0], values[n - 1], s, z, upperTailProbability(z));
+    }
+
+    /**
+     * P(Z >= z) of the standard normal distribution (Abramowitz and Stegun 7.1.26, error below 1.5e-7).
+     */
+    static double upperTailProbability(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erfc = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? erfc / 2 : 1 - erfc / 2;
+    }
+
+    /**
+     * Result of compareLatency.
+     */
+    @Getter
+    public static final class LatencyComparison {
+        private final long firstP50Nanos;
+        private final long lastP50Nanos;
+        private final long firstP99Nanos;
+        private final long lastP99Nanos;
+        // Probability that a request of the late window is slower than one of the early window (0.5 = no change)
+        private final double probabilitySlower;
+        private final double z;
+        private final double pValue;
+
+        LatencyComparison(LatencyHistogram first, LatencyHistogram last, double probabilitySlower, double z, double pValue) {
+            this.firstP50Nanos = first.getPercentileNanos(50);
+            this.lastP50Nanos = last.getPercentileNanos(50);
+            this.firstP99Nanos = first.getPercentileNanos(99);
+            this.lastP99Nanos = last.getPercentileNanos(99);
+            this.probabilitySlower = probabilitySlower;
+            this.z = z;
+            this.pValue = pValue;
+        }
+
+        /**
+         * Tells whether the late window is significantly slower and its p50 or p99 grew by at
+         * least minIncreasePercent.
+         *
+         * @param alpha              The significance level, e.g. 0.01.
+         * @param minIncreasePercent The smallest increase that counts, e.g. 10.
+         * @return true if the latency drifted.
+         */
+        public boolean isDrift(double alpha, double minIncreasePercent) {
+            return pValue < alpha && (increasePercent(firstP50Nanos, lastP50Nanos) >= minIncreasePercent
+                    || increasePercent(firstP99Nanos, lastP99Nanos) >= minIncreasePercent);
+        }
+    }
+
+    /**
+     * Result of trend.
+     */
+    @Getter
+    public static final class Trend {
+        private final double first;
+        private final double last;
+        private final long s;
+        private final double z;
+        private final double pValue;
+
+        Trend(double first, double last, long s, double z, double pValue) {
+            this.first = first;
+            this.last = last;
+            this.s = s;
+            this.z = z;
+            this.pValue = pValue;
+        }
+
+        /**
+         * Tells whether the values rise significantly and the last one is at least minIncrease
+         * above the first.
+         *
+         * @param alpha       The significance level, e.g. 0.01.
+         * @param minIncrease The smallest absolute increase that counts (e.g. 1 socket, 5 MB).
+         * @return true if the value keeps growing.
+         */
+        public boolean isRising(double alpha, double minIncrease) {
+            return pValue < alpha && last - first >= minIncrease;
+        }
+    }
+
+    static double increasePercent(long first, long last) {
+        return first == 0 ? (last > 0 ? Double.POSITIVE_INFINITY : 0) : (last - first) * 100.0 / first;
+    }
+}
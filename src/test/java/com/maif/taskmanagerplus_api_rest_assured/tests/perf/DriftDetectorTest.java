@@ -0,0 +1,127 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for DriftDetector, with results worked out by hand from the formulas of the
+ * Mann-Whitney U and Mann-Kendall tests.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-18
+ */
+public class DriftDetectorTest {
+
+    private static final double TOLERANCE = 1e-4;
+
+    @Test
+    public void shouldReportNoChangeForIdenticalWindows() {
+        DriftDetector.LatencyComparison comparison = DriftDetector.compareLatency(
+                histogram(10, 20, 30, 40, 50), histogram(10, 20, 30, 40, 50));
+
+        assertEquals(0.5, comparison.getProbabilitySlower(), TOLERANCE);
+        assertEquals(0, comparison.getZ(), TOLERANCE);
+        assertEquals(0.5, comparison.getPValue(), TOLERANCE);
+        assertFalse(comparison.isDrift(0.01, 10));
+    }
+
+    @Test
+    public void shouldMatchTheMannWhitneyStatisticOfShiftedWindows() {
+        // Ranks of {4, 5, 6} among {1..6}: 4 + 5 + 6 = 15, U = 15 - 3 * 4 / 2 = 9,
+        // z = (9 - 4.5) / sqrt(3 * 3 * 7 / 12) = 1.9640, p = 0.02477
+        DriftDetector.LatencyComparison comparison = DriftDetector.compareLatency(histogram(1, 2, 3), histogram(4, 5, 6));
+
+        assertEquals(1.0, comparison.getProbabilitySlower(), TOLERANCE);
+        assertEquals(1.9640, comparison.getZ(), TOLERANCE);
+        assertEquals(0.02477, comparison.getPValue(), TOLERANCE);
+    }
+
+    @Test
+    public void shouldFlagDriftWhenTheLastWindowIsClearlySlower() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram last = new LatencyHistogram();
+        for (int i = 0; i < 1_000; i++) {
+            first.recordNanos(1_000_000 + i * 1_000);
+            last.recordNanos(2_000_000 + i * 1_000);
+        }
+
+        DriftDetector.LatencyComparison comparison = DriftDetector.compareLatency(first, last);
+
+        assertEquals(1.0, comparison.getProbabilitySlower(), TOLERANCE);
+        assertTrue(comparison.getPValue() < 1e-6);
+        assertTrue(comparison.isDrift(0.01, 10));
+        assertFalse(comparison.isDrift(0.01, 150), "p50 and p99 grew by less than 150%");
+    }
+
+    @Test
+    public void shouldNotFlagAFasterLastWindow() {
+        DriftDetector.LatencyComparison comparison = DriftDetector.compareLatency(histogram(4, 5, 6), histogram(1, 2, 3));
+
+        assertEquals(0.0, comparison.getProbabilitySlower(), TOLERANCE);
+        assertEquals(1 - 0.02477, comparison.getPValue(), TOLERANCE);
+        assertFalse(comparison.isDrift(0.05, 0));
+    }
+
+    @Test
+    public void shouldReturnPValueOneForAnEmptyWindow() {
+        assertEquals(1, DriftDetector.compareLatency(new LatencyHistogram(), histogram(1, 2)).getPValue());
+    }
+
+    @Test
+    public void shouldMatchTheMannKendallStatisticOfAMonotonicTrend() {
+        // All 45 pairs rise: S = 45, var = 10 * 9 * 25 / 18 = 125, z = (45 - 1) / sqrt(125) = 3.9355
+        DriftDetector.Trend trend = DriftDetector.trend(new double[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+
+        assertEquals(45, trend.getS());
+        assertEquals(3.9355, trend.getZ(), TOLERANCE);
+        assertEquals(4.15e-5, trend.getPValue(), 1e-6);
+        assertTrue(trend.isRising(0.01, 5));
+        assertFalse(trend.isRising(0.01, 10), "the last value is only 9 above the first");
+    }
+
+    @Test
+    public void shouldFindNoTrendInAFlatSeries() {
+        DriftDetector.Trend trend = DriftDetector.trend(new double[] { 5, 5, 5, 5, 5, 5, 5, 5 });
+
+        assertEquals(0, trend.getS());
+        assertEquals(0.5, trend.getPValue(), TOLERANCE);
+        assertFalse(trend.isRising(0.01, 0));
+    }
+
+    @Test
+    public void shouldCorrectTheVarianceForTies() {
+        // S = 9 (one tied pair counts 0), var = (5 * 4 * 15 - 2 * 1 * 9) / 18 = 15.667, z = (9 - 1) / 3.958 = 2.0212
+        DriftDetector.Trend trend = DriftDetector.trend(new double[] { 1, 2, 2, 3, 4 });
+
+        assertEquals(9, trend.getS());
+        assertEquals(2.0212, trend.getZ(), TOLERANCE);
+    }
+
+    @Test
+    public void shouldSkipUnavailableSamples() {
+        DriftDetector.Trend trend = DriftDetector.trend(new double[] { -1, 1, 2, -1 });
+
+        assertEquals(1, trend.getPValue(), "fewer than 3 values");
+        assertEquals(1, trend.getFirst());
+        assertEquals(2, trend.getLast());
+    }
+
+    @Test
+    public void shouldApproximateTheNormalUpperTail() {
+        assertEquals(0.5, DriftDetector.upperTailProbability(0), TOLERANCE);
+        assertEquals(0.025, DriftDetector.upperTailProbability(1.959964), TOLERANCE);
+        assertEquals(0.975, DriftDetector.upperTailProbability(-1.959964), TOLERANCE);
+        assertEquals(0.001, DriftDetector.upperTailProbability(3.090232), 1e-6);
+    }
+
+    private static LatencyHistogram histogram(long... nanos) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : nanos) {
+            histogram.recordNanos(value);
+        }
+        return histogram;
+    }
+}
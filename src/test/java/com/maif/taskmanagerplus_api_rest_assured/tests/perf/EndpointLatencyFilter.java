@@ -0,0 +1,175 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * EndpointLatencyFilter is a RestAssured filter that times every request and groups the timings by
+ * HTTP method and normalized route, e.g. "GET /tasks/{id}", "GET /provinces/noPagination" or
+ * "PUT /usserrs/{id}/password". The base path of auth.base.uri ("/v1") and the query string are
+ * removed, and numeric path segments are replaced with {id}.
+ *
+ * Timings go into one LatencyHistogram per route, so recording is lock-free. Requests that fail
+ * with an exception or a 5xx status are counted as errors. When the JVM exits, a percentile report
+ * of all routes is written to target/latency/.
+ *
+ * BaseTest installs the shared instance for every test class; it can be turned off with
+ * perf.latency-report.enabled=false.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-30
+ */
+public class EndpointLatencyFilter implements Filter {
+
+    private static final EndpointLatencyFilter SHARED = new EndpointLatencyFilter(
+            basePathOf(ConfigLoader.getProperty("auth.base.uri")));
+
+    private final String basePath;
+    private final long startNanos = System.nanoTime();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final AtomicBoolean reportHookRegistered = new AtomicBoolean();
+
+    /**
+     * Creates a filter that strips the given base path from recorded routes.
+     *
+     * @param basePath The base path of the API, e.g. "/v1" (may be empty).
+     */
+    public EndpointLatencyFilter(String basePath) {
+        this.basePath = basePath;
+    }
+
+    /**
+     * Returns the shared filter. The first call registers a shutdown hook that writes its report.
+     *
+     * @return The shared EndpointLatencyFilter.
+     */
+    public static EndpointLatencyFilter shared() {
+        if (SHARED.reportHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(SHARED::writeReport, "endpoint-latency-report"));
+        }
+        return SHARED;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String route = requestSpec.getMethod() + " " + normalizeRoute(requestSpec.getURI());
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            // RestAssured rethrows checked exceptions (e.g. ConnectException) undeclared, so no catch here
+            record(route, System.nanoTime() - start, response == null || response.statusCode() >= 500);
+        }
+    }
+
+    private void record(String route, long nanos, boolean error) {
+        LatencyHistogram histogram = histograms.get(route);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(route, key -> new LatencyHistogram());
+        }
+        histogram.recordNanos(nanos);
+        if (error) {
+            errors.computeIfAbsent(route, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Returns the histograms recorded so far, by route.
+     *
+     * @return A read-only view of the histograms.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Writes the percentile report of all routes to target/latency/ and prints its location.
+     * Does nothing if no request was recorded.
+     */
+    public void writeReport() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        Map<String, LatencyHistogram> sorted = new TreeMap<>(histograms);
+        Map<String, Long> errorCounts = new TreeMap<>();
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet()) {
+            LongAdder errorCount = errors.get(entry.getKey());
+            errorCounts.put(entry.getKey(), errorCount != null ? errorCount.sum() : 0L);
+            allErrors += errorCount != null ? errorCount.sum() : 0L;
+            all.merge(entry.getValue());
+        }
+        sorted.put("ALL", all);
+        errorCounts.put("ALL", allErrors);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        String report = "Endpoint latency (client side, including RestAssured filters and parsing)\n\n"
+                + LatencyReport.formatTable(sorted, errorCounts, elapsedSeconds);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path path = LatencyReport.write("latency/endpoint-latency-" + timestamp + ".txt", report);
+        System.out.println("Endpoint latency report written to " + path.toAbsolutePath());
+    }
+
+    /**
+     * Turns "http://localhost:8080/v1/usserrs/12/password?x=1" into "/usserrs/{id}/password".
+     */
+    String normalizeRoute(String uri) {
+        String path = uri;
+        int schemeEnd = path.indexOf("://");
+        if (schemeEnd >= 0) {
+            int pathStart = path.indexOf('/', schemeEnd + 3);
+            path = pathStart >= 0 ? path.substring(pathStart) : "/";
+        }
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        if (!basePath.isEmpty() && path.startsWith(basePath + "/")) {
+            path = path.substring(basePath.length());
+        }
+
+        StringBuilder route = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            route.append('/').append(isNumeric(segment) ? "{id}" : segment);
+        }
+        return route.length() == 0 ? "/" : route.toString();
+    }
+
+    private static boolean isNumeric(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String basePathOf(String baseUri) {
+        String path = new EndpointLatencyFilter("").normalizeRoute(baseUri);
+        return "/".equals(path) ? "" : path;
+    }
+}
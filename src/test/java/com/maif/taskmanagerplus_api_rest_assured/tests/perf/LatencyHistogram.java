@@ -0,0 +1,174 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram records latencies in nanoseconds into log-linear buckets.
+ *
+ * Values below 128 ns get one bucket each; above that, every power of two is split into 64 buckets,
+ * so a reported percentile is never more than about 1.6% above the real value. Recording is
+ * lock-free (one atomic increment per value), so a single histogram can be shared by many threads,
+ * and histograms recorded separately can be merged into one.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-27
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;    // 64 buckets per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;       // values below 128 are exact
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (64 - SUB_BUCKET_BITS) + SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void recordNanos(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        updateMin(value);
+        updateMax(value);
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other The histogram to merge into this one.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalNanos.add(other.totalNanos.sum());
+        if (other.getCount() > 0) {
+            updateMin(other.minNanos.get());
+            updateMax(other.maxNanos.get());
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 when nothing was recorded.
+     *
+     * @return The minimum in nanoseconds.
+     */
+    public long getMinNanos() {
+        return getCount() == 0 ? 0 : minNanos.get();
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 when nothing was recorded.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values, or 0 when nothing was recorded.
+     *
+     * @return The mean in nanoseconds.
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns the value at the given percentile: the upper bound of the bucket that contains it,
+     * capped at the maximum recorded value.
+     *
+     * @param percentile The percentile, between 0 and 100 (e.g. 99.9).
+     * @return The value in nanoseconds, or 0 when nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(bucketUpperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Returns a copy of the bucket counts, in ascending order of latency (for DriftDetector).
+     */
+    long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    private void updateMin(long value) {
+        long current;
+        while (value < (current = minNanos.get())) {
+            if (minNanos.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    private void updateMax(long value) {
+        long current;
+        while (value > (current = maxNanos.get())) {
+            if (maxNanos.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Maps a value to its bucket: index = 64 * shift + (value >>> shift), where shift keeps
+     * (value >>> shift) in [64, 128).
+     */
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,97 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the percentile math of LatencyHistogram.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-18
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReportExactPercentilesBelow128Nanos() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.recordNanos(value);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMinNanos());
+        assertEquals(100, histogram.getMaxNanos());
+        assertEquals(50.5, histogram.getMeanNanos(), 1e-9);
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(50, histogram.getPercentileNanos(50));
+        assertEquals(99, histogram.getPercentileNanos(99));
+        assertEquals(100, histogram.getPercentileNanos(99.9));
+        assertEquals(100, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void shouldStayWithinTheBucketErrorForLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = { 1_000, 12_345, 1_000_000, 123_456_789, 10_000_000_000L };
+        for (long value : values) {
+            histogram.recordNanos(value);
+        }
+
+        for (int i = 0; i < values.length - 1; i++) {
+            long reported = histogram.getPercentileNanos((i + 1) * 100.0 / values.length);
+            assertTrue(reported >= values[i], reported + " is below " + values[i]);
+            assertTrue(reported <= values[i] * 1.016, reported + " is more than 1.6% above " + values[i]);
+        }
+        assertEquals(10_000_000_000L, histogram.getPercentileNanos(100), "capped at the maximum");
+    }
+
+    @Test
+    public void shouldPickTheBucketOfTheNearestRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.recordNanos(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordNanos(100);
+        }
+
+        assertEquals(10, histogram.getPercentileNanos(90));
+        assertEquals(100, histogram.getPercentileNanos(90.1));
+    }
+
+    @Test
+    public void shouldMergeHistograms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordNanos(10);
+        first.recordNanos(20);
+        second.recordNanos(5);
+        second.recordNanos(40);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.merge(first);
+        merged.merge(second);
+        merged.merge(new LatencyHistogram());
+
+        assertEquals(4, merged.getCount());
+        assertEquals(5, merged.getMinNanos());
+        assertEquals(40, merged.getMaxNanos());
+        assertEquals(18.75, merged.getMeanNanos(), 1e-9);
+        assertEquals(10, merged.getPercentileNanos(50));
+    }
+
+    @Test
+    public void shouldReportZeroWhenEmptyAndRecordNegativeValuesAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0, histogram.getMinNanos());
+        assertEquals(0, histogram.getMeanNanos());
+
+        histogram.recordNanos(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+}
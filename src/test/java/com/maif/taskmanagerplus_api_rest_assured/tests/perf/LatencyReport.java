@@ -0,0 +1,76 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.perf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * LatencyReport formats LatencyHistograms as percentile tables and writes reports to target/.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-27
+ */
+public class LatencyReport {
+
+    // Percentiles shown in every table
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private static final String HEADER_FORMAT = "%-40s %10s %8s %10s %10s %10s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-40s %10d %8d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n";
+
+    /**
+     * Formats one row per histogram with count, errors, throughput and p50/p90/p99/p99.9/max/mean in milliseconds.
+     *
+     * @param histograms     The histograms to format, by name (e.g. "GET /tasks/{id}").
+     * @param errors         The number of failed requests, by the same names (missing names count as 0).
+     * @param elapsedSeconds The duration of the measurement, used for the throughput column.
+     * @return The formatted table.
+     */
+    public static String formatTable(Map<String, LatencyHistogram> histograms, Map<String, Long> errors, double elapsedSeconds) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(HEADER_FORMAT, "name", "count", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms"));
+
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            Long errorCount = errors.get(entry.getKey());
+            table.append(String.format(ROW_FORMAT, entry.getKey(),
+                    histogram.getCount(),
+                    errorCount != null ? errorCount : 0L,
+                    elapsedSeconds > 0 ? histogram.getCount() / elapsedSeconds : 0.0,
+                    toMillis(histogram.getPercentileNanos(PERCENTILES[0])),
+                    toMillis(histogram.getPercentileNanos(PERCENTILES[1])),
+                    toMillis(histogram.getPercentileNanos(PERCENTILES[2])),
+                    toMillis(histogram.getPercentileNanos(PERCENTILES[3])),
+                    toMillis(histogram.getMaxNanos()),
+                    histogram.getMeanNanos() / 1_000_000.0));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Writes a report to target/&lt;fileName&gt;, creating parent directories as needed.
+     *
+     * @param fileName The file name, relative to target/ (e.g. "load/task-load.txt").
+     * @param content  The report content.
+     * @return The path of the written file.
+     */
+    public static Path write(String fileName, String content) {
+        Path path = Paths.get("target", fileName);
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report " + path, e);
+        }
+        return path;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
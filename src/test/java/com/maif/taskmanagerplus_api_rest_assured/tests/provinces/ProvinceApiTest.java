@@ -1,34 +1,38 @@
 
 package com.maif.taskmanagerplus_api_rest_assured.tests.provinces;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.notNullValue;
-import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
-import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
 import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
 import com.maif.taskmanagerplus_api_rest_assured.tests.base.BaseTest;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.RestoreTables;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.ProvinceApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.CleanupRegistry;
 import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HalStreamValidator;
 import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
 
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 
 /**
  * Tests for the Provinces API endpoints using RestAssured.
  * These tests cover CRUD operations and various filters.
+ * Rows the tests create are deleted after the class by CleanupRegistry; existing rows they change
+ * are put back once after the class (see RestoreTables).
  * 
  * Author: Maicon Fang
  * Date: 2024-06-21
  */
+@RestoreTables("province")
 public class ProvinceApiTest extends BaseTest {
     
-    private static final String PROVINCES_PATH = "/provinces"; // Static variable for the path "/provinces"
-    private static final String PROVINCES_PATH_NOPAGINATION = "/noPagination";
+    private final ProvinceApiClient provinces = ProvinceApiClient.asDefaultUser();
     
     /**
      * Test case to create a new province via API.
@@ -36,48 +40,33 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldCreateProvinceSuccessfully() {
-        int id = -1; // Variable to store the ID of the created province
-
-        try {
-        	// This is just an example of how we can send the data directly in JSON format to the API. Instead of using a DTO, 
-        	// we manually create the JSON string with the province's name and abbreviation.
-        	String requestBodyTest = "{ \"name\": \"Provinces Test mf\", \"abbreviation\": \"MF\"}";
-        	System.out.println(requestBodyTest);
-        	
-        	// I created a ProvinceDTO object. This DTO is used to hold the data we want to send to the API, like the province's 
-        	//	name and abbreviation.
-            ProvinceDTO provinceDTO = ProvinceDTO.createProvince("Provinces Test mf", "MF");
-            
-            // I converted the ProvinceDTO into a JSON string using a helper method, TestUtil.convertObjectToJson(). 
-            // This is important because the API expects the data in JSON format.
-            String requestBody = TestUtil.convertObjectToJson(provinceDTO);
-        	
-            
-            // The .post() is an HTTP method used to send data to the server to create a new resource. 
-            // It sends a request to the specified URL with the provided data in the body. 
-            // Here, you could also have other variations like .get() to retrieve data, .put() to update a resource, or 
-            // .delete() to remove a resource.
-            
-            Response response = given()
-            	.spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .body(requestBody)
-                .when()
-                .post(RestAssured.baseURI + PROVINCES_PATH) // Builds the complete URL using RestAssured.baseURI and PROVINCES_PATH
-                .then()
-                .statusCode(201)
-                .body("name", equalTo("Provinces Test mf"))
-                .body("abbreviation", equalTo("MF"))
-                .extract().response(); // Extracts the HTTP response
-            
-            // Extract the ID of the created province from the JSON response
-            id = response.path("id");
-            
-        } finally {
-            // Ensure the province is deleted even if the test fails
-            if (id != -1) {
-                DataBaseInsertUtil.deleteProvince(id);
-            }
-        }
+        String name = TestUtil.uniqueName("Provinces Test mf");
+
+    	// This is just an example of how we can send the data directly in JSON format to the API. Instead of using a DTO, 
+    	// we manually create the JSON string with the province's name and abbreviation.
+    	String requestBodyTest = "{ \"name\": \"Provinces Test mf\", \"abbreviation\": \"MF\"}";
+    	System.out.println(requestBodyTest);
+    	
+    	// I created a ProvinceDTO object. This DTO is used to hold the data we want to send to the API, like the province's 
+    	//	name and abbreviation.
+        ProvinceDTO provinceDTO = ProvinceDTO.createProvince(name, "MF");
+        
+        // I converted the ProvinceDTO into a JSON string using a helper method, TestUtil.convertObjectToJson(). 
+        // This is important because the API expects the data in JSON format.
+        String requestBody = TestUtil.convertObjectToJson(provinceDTO);
+    	
+        
+        // The .post() is an HTTP method used to send data to the server to create a new resource. 
+        // It sends a request to the specified URL with the provided data in the body. 
+        // Here, you could also have other variations like .get() to retrieve data, .put() to update a resource, or 
+        // .delete() to remove a resource.
+        
+        provinces.create(requestBody)
+            .then()
+            .statusCode(201)
+            .body("name", equalTo(name))
+            .body("abbreviation", equalTo("MF"))
+            .body("id", notNullValue());
     }
 
     /**
@@ -86,29 +75,22 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldUpdateProvinceDetailsSuccessfully() {
-        int id = DataBaseInsertUtil.insertProvince("Provinces Test Maif", "MF");
+        String name = TestUtil.uniqueName("Provinces Test Maif");
+        String updatedName = TestUtil.uniqueName("Provinces Test Maif Updated");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "MF"));
 
-        try {
-        	
-        	// Create a ProvinceDTO with default or custom values
-            ProvinceDTO provinceDTO = ProvinceDTO.createProvince(id, "Provinces Test Maif Updated", "UP");
-            
-            // Convert the ProvinceDTO object to JSON using the generic method
-            String requestBody = TestUtil.convertObjectToJson(provinceDTO);
-        	
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .body(requestBody)
-                .when()
-                .put(RestAssured.baseURI + PROVINCES_PATH + "/" + id) // Builds the complete URL using RestAssured.baseURI and PROVINCES_PATH
-                .then()
-                .statusCode(200)
-                .body("name", equalTo("Provinces Test Maif Updated"))
-                .body("abbreviation", equalTo("UP"));
-        } finally {
-            // Ensure the province is deleted even if the test fails
-            DataBaseInsertUtil.deleteProvince(id);
-        }
+    	
+    	// Create a ProvinceDTO with default or custom values
+        ProvinceDTO provinceDTO = ProvinceDTO.createProvince(id, updatedName, "UP");
+        
+        // Convert the ProvinceDTO object to JSON using the generic method
+        String requestBody = TestUtil.convertObjectToJson(provinceDTO);
+    	
+        provinces.update(id, requestBody)
+            .then()
+            .statusCode(200)
+            .body("name", equalTo(updatedName))
+            .body("abbreviation", equalTo("UP"));
     }
 
     /**
@@ -117,21 +99,14 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldDeleteProvinceSuccessfully() {
+        String name = TestUtil.uniqueName("Provinces to Delete");
         // Insert a province into the database and get the ID
-        int id = DataBaseInsertUtil.insertProvince("Provinces to Delete", "DE");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "DE"));
 
-        try {
-            // Send the deletion request and log the details
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-                .when()
-                .delete(RestAssured.baseURI + PROVINCES_PATH + "/" + id)
-                .then()
-                .statusCode(204);
-        } finally {
-            // Ensure the province is deleted even if the test fails
-            DataBaseInsertUtil.deleteProvince(id);
-        }
+        // Send the deletion request and log the details
+        provinces.delete(id)
+            .then()
+            .statusCode(204);
     }
 
     /**
@@ -140,24 +115,15 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldFilterProvincesByNameWithPagination() {
-        int id = DataBaseInsertUtil.insertProvince("Province Filter Name with Pagination", "PG");
+        String name = TestUtil.uniqueName("Province Filter Name with Pagination");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "PG"));
 
-        try {
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("name", "Province Filter Name with Pagination")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + PROVINCES_PATH)
-                .then()
-                .statusCode(200)
-                .body("_embedded.provinces[0].id", equalTo(id))
-                .body("_embedded.provinces[0].name", equalTo("Province Filter Name with Pagination"))
-                .body("_embedded.provinces[0].abbreviation", equalTo("PG"));
-        } finally {
-            DataBaseInsertUtil.deleteProvince(id);
-        }
+        provinces.filter(Map.of("name", name, "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.provinces[0].id", equalTo(id))
+            .body("_embedded.provinces[0].name", equalTo(name))
+            .body("_embedded.provinces[0].abbreviation", equalTo("PG"));
     }
     
     /**
@@ -166,24 +132,15 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldFilterProvincesByAbbreviationWithPagination() {
-        int id = DataBaseInsertUtil.insertProvince("Province Filter Abbreviation with Pagination", "AA");
+        String name = TestUtil.uniqueName("Province Filter Abbreviation with Pagination");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "AA"));
 
-        try {
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("abbreviation", "AA")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + PROVINCES_PATH)
-                .then()
-                .statusCode(200)
-                .body("_embedded.provinces[0].id", equalTo(id))
-                .body("_embedded.provinces[0].name", equalTo("Province Filter Abbreviation with Pagination"))
-                .body("_embedded.provinces[0].abbreviation", equalTo("AA"));
-        } finally {
-            DataBaseInsertUtil.deleteProvince(id);
-        }
+        provinces.filter(Map.of("abbreviation", "AA", "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.provinces[0].id", equalTo(id))
+            .body("_embedded.provinces[0].name", equalTo(name))
+            .body("_embedded.provinces[0].abbreviation", equalTo("AA"));
     }
     
     /**
@@ -192,25 +149,15 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldFilterProvincesByNameAndAbbreviationWithPagination() {
-        int id = DataBaseInsertUtil.insertProvince("Province Filter Name And Abbreviation with Pagination", "NA");
+        String name = TestUtil.uniqueName("Province Filter Name And Abbreviation with Pagination");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "NA"));
 
-        try {
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("name", "Province Filter Name And Abbreviation with Pagination")
-                .queryParam("abbreviation", "NA")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + PROVINCES_PATH)
-                .then()
-                .statusCode(200)
-                .body("_embedded.provinces[0].id", equalTo(id))
-                .body("_embedded.provinces[0].name", equalTo("Province Filter Name And Abbreviation with Pagination"))
-                .body("_embedded.provinces[0].abbreviation", equalTo("NA"));
-        } finally {
-            DataBaseInsertUtil.deleteProvince(id);
-        }
+        provinces.filter(Map.of("name", name, "abbreviation", "NA", "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.provinces[0].id", equalTo(id))
+            .body("_embedded.provinces[0].name", equalTo(name))
+            .body("_embedded.provinces[0].abbreviation", equalTo("NA"));
     }
     
     /**
@@ -219,23 +166,24 @@ public class ProvinceApiTest extends BaseTest {
      */
     @Test
     public void shouldFilterProvincesByNameWithoutPagination() {
-        int id = DataBaseInsertUtil.insertProvince("Province Filter Name And no Pagination", "NO");
+        String name = TestUtil.uniqueName("Province Filter Name And no Pagination");
+        int id = CleanupRegistry.registerProvince(DataBaseInsertUtil.insertProvince(name, "NO"));
 
-        try {
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("name", "Province Filter Name And no Pagination")
-                .when()
-                .get(RestAssured.baseURI + PROVINCES_PATH + PROVINCES_PATH_NOPAGINATION)
-                .then()
-                .statusCode(200)
-                .body("_embedded.provinces[0].name", equalTo("Province Filter Name And no Pagination"))
-                .body("_embedded.provinces[0].abbreviation", equalTo("NO")) // Checks the description
-                .body("page", nullValue()); // Checks if the "page" key is not present in the JSON response
-            
-		} finally {
-			DataBaseInsertUtil.deleteProvince(id);
-		}
+        Response response = provinces.listAll(Map.of("name", name))
+            .then()
+            .statusCode(200)
+            .extract().response();
+
+        // The list is unbounded, so it is checked item by item while streaming instead of through JsonPath
+        HalStreamValidator.forItems("provinces", ProvinceDTO.class)
+            .expectMinCount(1)
+            .expectEvery("name is the inserted name", province -> name.equals(province.getName()))
+            .expectEvery("abbreviation is NO", province -> "NO".equals(province.getAbbreviation()))
+            .expectUnique("id", ProvinceDTO::getId)
+            .expectNoField("page") // The "page" key must not be present in the JSON response
+            .validate(response)
+            .assertValid();
+        
     }
     
     /**
@@ -252,11 +200,7 @@ public class ProvinceApiTest extends BaseTest {
         // Convert the ProvinceDTO object to JSON
         String requestBody = TestUtil.convertObjectToJson(provinceDTO);
 
-        given()
-            .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-            .body(requestBody)
-            .when()
-            .post(RestAssured.baseURI + PROVINCES_PATH)
+        provinces.create(requestBody)
             .then()
             .statusCode(400)
             .body("status", equalTo(400))
@@ -277,11 +221,7 @@ public class ProvinceApiTest extends BaseTest {
     	String textName = "The project's goal  ";
     	String requestBody = "{ \"name\": \"" + textName + "\", \"abbreviation\": \"ALMLUPI\"}";
 
-    	 given()
-         .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-         .body(requestBody)
-         .when()
-         .post(RestAssured.baseURI + PROVINCES_PATH)
+    	 provinces.create(requestBody)
          .then()
          .statusCode(400)
          .body("status", equalTo(400))
@@ -0,0 +1,721 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.tests.load.LoadThreads;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.JsonUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * StubApiServer is an in-process stand-in for the TaskManagerPlus API, so the client side of the
+ * harness (RestAssured, JSON, token handling, load drivers) can be measured without the Spring API
+ * and MySQL.
+ *
+ * Routes:
+ * - POST /oauth/token (password grant; any user with a non-empty password gets a token; expired
+ *   tokens are swept when new ones are issued)
+ * - GET/POST /v1/tasks, GET /v1/tasks/noPagination, GET/PUT/DELETE /v1/tasks/{id}, GET /v1/tasks/hello
+ * - the same for /v1/provinces and /v1/usserrs, plus PUT /v1/usserrs/{id}/password
+ *
+ * Responses use the API's shapes: HAL pages with _embedded, _links and page (page/size, default
+ * 0/20), noPagination lists without page, and the API's problem bodies for 400, 403 and 404.
+ * The filter parameters of the real API are honored: taskId, title, description, dueDate and
+ * completed for tasks, name and abbreviation for provinces, name and email for users.
+ *
+ * Data lives in memory only; DataBaseInsertUtil fixtures are not visible to it. Every request is
+ * delayed by stub.latency-ms plus a random 0..stub.latency-jitter-ms, so client throughput can be
+ * measured against a server with a known, fixed service time.
+ *
+ * Usage (then point the harness at it, e.g. -Dauth.base.uri=http://localhost:8089/v1):
+ * ```
+ * mvn -Pstub test-compile exec:java -Dstub.port=8089 -Dstub.latency-ms=5 -Dstub.seed.tasks=10000
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-01
+ */
+public class StubApiServer {
+
+    // Error types are reported with the real API's host, as the tests expect
+    private static final String PROBLEM_TYPE_BASE = "http://localhost:8080/";
+    private static final String GENERIC_USER_MESSAGE = "An unexpected internal system error has occurred. "
+            + "Please try again and if the problem persists, contact your system administrator";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    // Expired tokens are swept out of the sessions map at most this often, when a token is issued
+    private static final long SESSION_SWEEP_INTERVAL_MS = 1_000;
+
+    private final int requestedPort;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final int tokenTtlSeconds;
+
+    private final StubResource tasks = newTaskResource();
+    private final StubResource provinces = newProvinceResource();
+    private final StubResource users = newUserResource();
+    private final Map<String, StubResource> resources = new HashMap<>();
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionSweepAt = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a stand-in server. Nothing is bound until start() is called.
+     *
+     * @param port            The port to listen on (0 picks a free port).
+     * @param latencyMs       The fixed delay added to every request, in milliseconds.
+     * @param latencyJitterMs The maximum random delay added on top, in milliseconds.
+     * @param tokenTtlSeconds The expires_in of issued tokens.
+     */
+    public StubApiServer(int port, long latencyMs, long latencyJitterMs, int tokenTtlSeconds) {
+        this.requestedPort = port;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.tokenTtlSeconds = tokenTtlSeconds;
+        for (StubResource resource : Arrays.asList(tasks, provinces, users)) {
+            resources.put(resource.getPath(), resource);
+        }
+
+        // The user of auth.username, so the default credentials work out of the box
+        Map<String, Object> defaultUser = new HashMap<>();
+        defaultUser.put("name", "Default User");
+        defaultUser.put("email", ConfigLoader.getProperty("auth.username"));
+        defaultUser.put("password", ConfigLoader.getProperty("auth.password"));
+        users.insert(defaultUser);
+    }
+
+    /**
+     * Creates a stand-in server from the stub.* settings and seeds stub.seed.tasks tasks and
+     * stub.seed.provinces provinces.
+     *
+     * @return A server that is not started yet.
+     */
+    public static StubApiServer fromConfig() {
+        StubApiServer stub = new StubApiServer(
+                ConfigLoader.getIntProperty("stub.port", 8089),
+                ConfigLoader.getLongProperty("stub.latency-ms", 0),
+                ConfigLoader.getLongProperty("stub.latency-jitter-ms", 0),
+                ConfigLoader.getIntProperty("stub.token-ttl-seconds", 3600));
+        stub.seedTasks(ConfigLoader.getIntProperty("stub.seed.tasks", 0));
+        stub.seedProvinces(ConfigLoader.getIntProperty("stub.seed.provinces", 0));
+        return stub;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StubApiServer stub = fromConfig().start();
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stub.stop();
+            stopped.countDown();
+        }, "stub-api-shutdown"));
+
+        System.out.println("Stand-in API listening on " + stub.getBaseUri() + " (token URL " + stub.getTokenUrl()
+                + ", latency " + stub.latencyMs + " ms + 0.." + stub.latencyJitterMs + " ms, "
+                + stub.tasks.size() + " tasks, " + stub.provinces.size() + " provinces). Press Ctrl+C to stop.");
+        stopped.await();
+    }
+
+    /**
+     * Binds the port and starts serving. Requests are handled on one thread each (virtual threads
+     * where available), so the artificial latency does not limit the number of requests in flight.
+     *
+     * @return This server.
+     */
+    public synchronized StubApiServer start() {
+        if (server != null) {
+            return this;
+        }
+        // Like Tomcat, send small responses on kept-alive connections without waiting for the client's
+        // delayed ACK (Nagle); read once by the JDK when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", requestedPort), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start the stand-in API on port " + requestedPort, e);
+        }
+        executor = LoadThreads.newClientExecutor("stub-api");
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Stops the server, letting requests in progress finish for up to one second.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The value to use for auth.base.uri, e.g. "http://localhost:8089/v1".
+     */
+    public String getBaseUri() {
+        return "http://localhost:" + getPort() + "/v1";
+    }
+
+    /**
+     * @return The value to use for auth.token.url.
+     */
+    public String getTokenUrl() {
+        return "http://localhost:" + getPort() + "/oauth/token";
+    }
+
+    /**
+     * Adds generated tasks, with due dates spread over 2024 and every other task completed.
+     *
+     * @param count The number of tasks to add.
+     */
+    public void seedTasks(int count) {
+        LocalDate firstDueDate = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("title", "Seed Task " + i);
+            task.put("description", "Seed Task Description " + i);
+            task.put("dueDate", firstDueDate.plusDays(i % 366).toString());
+            task.put("completed", i % 2 == 0);
+            tasks.insert(task);
+        }
+    }
+
+    /**
+     * Adds generated provinces with two-letter abbreviations.
+     *
+     * @param count The number of provinces to add.
+     */
+    public void seedProvinces(int count) {
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> province = new HashMap<>();
+            province.put("name", "Seed Province " + i);
+            province.put("abbreviation", "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26));
+            provinces.insert(province);
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            delay();
+            route(exchange);
+        } catch (Exception e) {
+            sendProblem(exchange, 500, "system-error", "System error", String.valueOf(e), GENERIC_USER_MESSAGE);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long delayMs = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delayMs > 0) {
+            Thread.sleep(delayMs);
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        if ("/oauth/token".equals(path) && "POST".equals(method)) {
+            issueToken(exchange);
+            return;
+        }
+        if (!path.startsWith("/v1/")) {
+            sendNotFound(exchange, path);
+            return;
+        }
+
+        String[] segments = path.substring("/v1/".length()).split("/");
+        if (segments.length == 2 && "tasks".equals(segments[0]) && "hello".equals(segments[1]) && "GET".equals(method)) {
+            send(exchange, 200, "text/plain;charset=UTF-8", "Hello World!".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        Session session = authenticate(exchange);
+        if (session == null) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "unauthorized");
+            error.put("error_description", "Full authentication is required to access this resource");
+            sendJson(exchange, 401, "application/json", error);
+            return;
+        }
+
+        StubResource resource = resources.get(segments[0]);
+        if (resource == null) {
+            sendNotFound(exchange, path);
+            return;
+        }
+
+        if (segments.length == 1 && "GET".equals(method)) {
+            sendPage(exchange, resource);
+        } else if (segments.length == 1 && "POST".equals(method)) {
+            save(exchange, resource, null);
+        } else if (segments.length == 2 && "noPagination".equals(segments[1]) && "GET".equals(method)) {
+            sendList(exchange, resource);
+        } else if (segments.length >= 2 && isId(segments[1])) {
+            int id = Integer.parseInt(segments[1]);
+            if (segments.length == 3 && resource == users && "password".equals(segments[2]) && "PUT".equals(method)) {
+                changePassword(exchange, session, id);
+            } else if (segments.length != 2) {
+                sendNotFound(exchange, path);
+            } else if ("GET".equals(method)) {
+                Map<String, Object> row = resource.get(id);
+                if (row == null) {
+                    sendResourceNotFound(exchange, resource, id);
+                } else {
+                    sendJson(exchange, 200, "application/hal+json", resource.toRepresentation(row, getBaseUri()));
+                }
+            } else if ("PUT".equals(method)) {
+                save(exchange, resource, id);
+            } else if ("DELETE".equals(method)) {
+                if (resource.delete(id)) {
+                    send(exchange, 204, null, null);
+                } else {
+                    sendResourceNotFound(exchange, resource, id);
+                }
+            } else {
+                sendMethodNotAllowed(exchange, method);
+            }
+        } else if (segments.length == 1 || segments.length == 2 && "noPagination".equals(segments[1])) {
+            sendMethodNotAllowed(exchange, method);
+        } else {
+            sendNotFound(exchange, path);
+        }
+    }
+
+    private void issueToken(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseQuery(new String(readBody(exchange), StandardCharsets.UTF_8));
+        String expectedClient = ConfigLoader.getProperty("auth.client.id") + ":" + ConfigLoader.getProperty("auth.client.secret");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String client = authorization != null && authorization.startsWith("Basic ")
+                ? new String(Base64.getDecoder().decode(authorization.substring("Basic ".length()).trim()), StandardCharsets.UTF_8)
+                : null;
+
+        if (!expectedClient.equals(client)) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "unauthorized");
+            error.put("error_description", "Bad client credentials");
+            sendJson(exchange, 401, "application/json", error);
+            return;
+        }
+        String username = form.get("username");
+        String password = form.get("password");
+        if (!"password".equals(form.get("grant_type")) || username == null || username.isEmpty()
+                || password == null || password.isEmpty()) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "invalid_grant");
+            error.put("error_description", "Bad credentials");
+            sendJson(exchange, 400, "application/json", error);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        sweepExpiredSessions(now);
+        String accessToken = UUID.randomUUID().toString();
+        sessions.put(accessToken, new Session(username, now + TimeUnit.SECONDS.toMillis(tokenTtlSeconds)));
+
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("access_token", accessToken);
+        token.put("token_type", "bearer");
+        token.put("expires_in", tokenTtlSeconds);
+        token.put("scope", "READ WRITE");
+        sendJson(exchange, 200, "application/json", token);
+    }
+
+    /**
+     * Removes expired tokens, so a login storm does not grow the sessions map without bound.
+     * Only one thread sweeps per interval; the others skip it.
+     */
+    private void sweepExpiredSessions(long now) {
+        long sweepAt = nextSessionSweepAt.get();
+        if (now < sweepAt || !nextSessionSweepAt.compareAndSet(sweepAt, now + SESSION_SWEEP_INTERVAL_MS)) {
+            return;
+        }
+        sessions.values().removeIf(session -> session.expiresAt < now);
+    }
+
+    private Session authenticate(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, "Bearer ".length())) {
+            return null;
+        }
+        String accessToken = authorization.substring("Bearer ".length()).trim();
+        Session session = sessions.get(accessToken);
+        if (session == null) {
+            return null;
+        }
+        if (session.expiresAt < System.currentTimeMillis()) {
+            sessions.remove(accessToken, session);
+            return null;
+        }
+        return session;
+    }
+
+    private void sendPage(HttpExchange exchange, StubResource resource) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int page = Math.max(parseInt(query.get("page"), 0), 0);
+        int size = Math.max(parseInt(query.get("size"), DEFAULT_PAGE_SIZE), 1);
+
+        List<Map<String, Object>> matches = resource.find(query);
+        int totalElements = matches.size();
+        int totalPages = (totalElements + size - 1) / size;
+        int from = (int) Math.min((long) page * size, totalElements);
+        int to = Math.min(from + size, totalElements);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (from < to) {
+            body.put("_embedded", Collections.singletonMap(resource.getEmbeddedKey(),
+                    toRepresentations(resource, matches.subList(from, to))));
+        }
+
+        String collectionUri = getBaseUri() + "/" + resource.getPath();
+        Map<String, Object> links = new LinkedHashMap<>();
+        if (totalPages > 0) {
+            links.put("first", pageLink(collectionUri, query, 0, size));
+        }
+        if (page > 0 && totalPages > 0) {
+            links.put("prev", pageLink(collectionUri, query, Math.min(page - 1, totalPages - 1), size));
+        }
+        links.put("self", pageLink(collectionUri, query, page, size));
+        if (page + 1 < totalPages) {
+            links.put("next", pageLink(collectionUri, query, page + 1, size));
+        }
+        if (totalPages > 0) {
+            links.put("last", pageLink(collectionUri, query, totalPages - 1, size));
+        }
+        body.put("_links", links);
+
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("size", size);
+        pageInfo.put("totalElements", totalElements);
+        pageInfo.put("totalPages", totalPages);
+        pageInfo.put("number", page);
+        body.put("page", pageInfo);
+
+        sendJson(exchange, 200, "application/hal+json", body);
+    }
+
+    private void sendList(HttpExchange exchange, StubResource resource) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        List<Map<String, Object>> matches = resource.find(query);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (!matches.isEmpty()) {
+            body.put("_embedded", Collections.singletonMap(resource.getEmbeddedKey(), toRepresentations(resource, matches)));
+        }
+        body.put("_links", Collections.singletonMap("self",
+                Collections.singletonMap("href", getBaseUri() + "/" + resource.getPath() + "/noPagination")));
+        sendJson(exchange, 200, "application/hal+json", body);
+    }
+
+    /**
+     * Creates (id == null) or updates a row from the JSON request body.
+     */
+    @SuppressWarnings("unchecked")
+    private void save(HttpExchange exchange, StubResource resource, Integer id) throws IOException {
+        Map<String, Object> values;
+        try {
+            values = JsonUtil.fromJson(readBody(exchange), Map.class);
+        } catch (RuntimeException e) {
+            sendProblem(exchange, 400, "invalid-request-body", "Invalid request body. Check the format of all fields and try again.",
+                    "The request body is invalid. Check syntax error.", GENERIC_USER_MESSAGE);
+            return;
+        }
+        if (values == null) {
+            values = new HashMap<>();
+        }
+
+        if (resource == tasks && values.get("dueDate") != null) {
+            String dueDate = String.valueOf(values.get("dueDate"));
+            try {
+                values.put("dueDate", toLocalDate(dueDate));
+            } catch (DateTimeParseException e) {
+                sendProblem(exchange, 400, "invalid-request-body", "Invalid request body. Check the format of all fields and try again.",
+                        "Failed to parse date value in request body. Check date format and try again.",
+                        "Failed to parse date value '" + dueDate + "'. Please use ISO-8601 format (e.g., 'yyyy-MM-dd'T'HH:mm:ss'Z').");
+                return;
+            }
+        }
+
+        String tooLong = resource.findTooLongField(values);
+        if (tooLong != null) {
+            sendProblem(exchange, 400, "max-length", "Maximum length exceeded",
+                    "could not execute statement; Data truncation: Data too long for column '" + tooLong + "' at row 1",
+                    GENERIC_USER_MESSAGE);
+            return;
+        }
+
+        if (id == null) {
+            sendJson(exchange, 201, "application/hal+json", resource.toRepresentation(resource.insert(values), getBaseUri()));
+            return;
+        }
+        Map<String, Object> row = resource.update(id, values);
+        if (row == null) {
+            sendResourceNotFound(exchange, resource, id);
+        } else {
+            sendJson(exchange, 200, "application/hal+json", resource.toRepresentation(row, getBaseUri()));
+        }
+    }
+
+    /**
+     * Changes a user's password. Like the API, users may only change their own password.
+     */
+    @SuppressWarnings("unchecked")
+    private void changePassword(HttpExchange exchange, Session session, int id) throws IOException {
+        Map<String, Object> user = users.get(id);
+        if (user == null) {
+            sendResourceNotFound(exchange, users, id);
+            return;
+        }
+        if (!session.username.equalsIgnoreCase(String.valueOf(user.get("email")))) {
+            sendProblem(exchange, 403, "access-denied", "Access denied", "Access is denied",
+                    "You do not have permission to perform this operation.");
+            return;
+        }
+
+        Map<String, Object> body;
+        try {
+            body = JsonUtil.fromJson(readBody(exchange), Map.class);
+        } catch (RuntimeException e) {
+            body = null;
+        }
+        if (body == null || body.get("newPassword") == null
+                || !String.valueOf(user.get("password")).equals(String.valueOf(body.get("currentPassword")))) {
+            sendProblem(exchange, 400, "business-error", "Business rule violation",
+                    "Current password entered does not match user password.",
+                    "Current password entered does not match user password.");
+            return;
+        }
+
+        users.update(id, Collections.singletonMap("password", body.get("newPassword")));
+        send(exchange, 204, null, null);
+    }
+
+    private List<Map<String, Object>> toRepresentations(StubResource resource, List<Map<String, Object>> rows) {
+        List<Map<String, Object>> representations = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            representations.add(resource.toRepresentation(row, getBaseUri()));
+        }
+        return representations;
+    }
+
+    private void sendResourceNotFound(HttpExchange exchange, StubResource resource, int id) {
+        String message = "There is no register of the " + resource.getEntityName() + " with a code " + id;
+        sendProblem(exchange, 404, "resource-not-found", "Resource not found", message, message);
+    }
+
+    private void sendNotFound(HttpExchange exchange, String path) {
+        String message = "The resource " + path + " you tried to access does not exist.";
+        sendProblem(exchange, 404, "resource-not-found", "Resource not found", message, message);
+    }
+
+    private void sendMethodNotAllowed(HttpExchange exchange, String method) {
+        String message = "Request method '" + method + "' is not supported";
+        sendProblem(exchange, 405, "method-not-allowed", "Method not allowed", message, GENERIC_USER_MESSAGE);
+    }
+
+    private void sendProblem(HttpExchange exchange, int status, String type, String title, String detail, String userMessage) {
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("status", status);
+        problem.put("timestamp", OffsetDateTime.now().toString());
+        problem.put("type", PROBLEM_TYPE_BASE + type);
+        problem.put("title", title);
+        problem.put("detail", detail);
+        problem.put("userMessage", userMessage);
+        try {
+            sendJson(exchange, status, "application/json", problem);
+        } catch (IOException e) {
+            // The client went away; nothing left to report to
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, String contentType, Object body) throws IOException {
+        send(exchange, status, contentType, JsonUtil.toJsonBytes(body));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        if (body == null) {
+            // Unless the (empty) request body was read, the JDK server drops the kept-alive connection
+            // after a body-less response without sending "Connection: close"; pooled clients then
+            // fail on their next request, and POSTs are not retried
+            readBody(exchange);
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, Object> pageLink(String collectionUri, Map<String, String> query, int page, int size) {
+        StringBuilder href = new StringBuilder(collectionUri).append('?');
+        for (Map.Entry<String, String> entry : query.entrySet()) {
+            if (!"page".equals(entry.getKey()) && !"size".equals(entry.getKey())) {
+                href.append(encode(entry.getKey())).append('=').append(encode(entry.getValue())).append('&');
+            }
+        }
+        href.append("page=").append(page).append("&size=").append(size);
+        return Collections.singletonMap("href", href.toString());
+    }
+
+    /**
+     * Accepts "yyyy-MM-dd" and ISO-8601 timestamps (e.g. "2024-06-30T00:00:00Z") and returns the
+     * date, as the API stores due dates without a time.
+     */
+    private static String toLocalDate(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).toString();
+        }
+        return OffsetDateTime.parse(value).toLocalDate().toString();
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+            return body.toByteArray();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = decode(separator >= 0 ? pair.substring(0, separator) : pair);
+            String value = separator >= 0 ? decode(pair.substring(separator + 1)) : "";
+            values.put(key, value);
+        }
+        return values;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.length() < 10 && segment.chars().allMatch(Character::isDigit);
+    }
+
+    private static StubResource newTaskResource() {
+        Map<String, BiPredicate<Map<String, Object>, String>> filters = new HashMap<>();
+        filters.put("taskId", StubResource.equalTo("id"));
+        filters.put("title", StubResource.contains("title"));
+        filters.put("description", StubResource.contains("description"));
+        filters.put("dueDate", StubResource.equalTo("dueDate"));
+        filters.put("completed", StubResource.equalTo("completed"));
+        return new StubResource("tasks", "tasks", "task",
+                Arrays.asList("title", "description", "dueDate", "completed"),
+                lengths("title", 150, "description", 255), Collections.<String>emptySet(), filters);
+    }
+
+    private static StubResource newProvinceResource() {
+        Map<String, BiPredicate<Map<String, Object>, String>> filters = new HashMap<>();
+        filters.put("name", StubResource.contains("name"));
+        filters.put("abbreviation", StubResource.equalTo("abbreviation"));
+        return new StubResource("provinces", "provinces", "province",
+                Arrays.asList("name", "abbreviation"),
+                lengths("name", 80, "abbreviation", 6), Collections.<String>emptySet(), filters);
+    }
+
+    private static StubResource newUserResource() {
+        Map<String, BiPredicate<Map<String, Object>, String>> filters = new HashMap<>();
+        filters.put("name", StubResource.contains("name"));
+        filters.put("email", StubResource.contains("email"));
+        return new StubResource("usserrs", "usserrs", "user",
+                Arrays.asList("name", "email", "password"),
+                lengths("name", 80, "email", 255), new HashSet<>(Collections.singletonList("password")), filters);
+    }
+
+    private static Map<String, Integer> lengths(String firstColumn, int firstLength, String secondColumn, int secondLength) {
+        Map<String, Integer> lengths = new LinkedHashMap<>();
+        lengths.put(firstColumn, firstLength);
+        lengths.put(secondColumn, secondLength);
+        return lengths;
+    }
+
+    /**
+     * The user an access token was issued to and when it expires.
+     */
+    private static final class Session {
+        private final String username;
+        private final long expiresAt;
+
+        private Session(String username, long expiresAt) {
+            this.username = username;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.stub;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * StubResource is one in-memory collection of the stand-in API (tasks, provinces or usserrs).
+ *
+ * Rows are kept by ID in a sorted concurrent map, so listings come back in ID order like the real
+ * API. A row is never changed in place: updates replace it with a new map, so a listing that is
+ * being serialized never sees a half-written row.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-01
+ */
+class StubResource {
+
+    private final String path;
+    private final String embeddedKey;
+    private final String entityName;
+    private final List<String> fields;
+    private final Map<String, Integer> maxLengths;
+    private final Set<String> hiddenFields;
+    private final Map<String, BiPredicate<Map<String, Object>, String>> filters;
+
+    private final ConcurrentSkipListMap<Integer, Map<String, Object>> rows = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * @param path         The path below /v1, e.g. "tasks".
+     * @param embeddedKey  The key of the rows inside _embedded, e.g. "tasks".
+     * @param entityName   The name used in "There is no register of the ... with a code" messages.
+     * @param fields       The writable fields, in response order (the ID is always first).
+     * @param maxLengths   The column lengths; longer values are rejected like MySQL does.
+     * @param hiddenFields Fields that are stored but never returned (e.g. password).
+     * @param filters      The supported query parameters, each with its row predicate.
+     */
+    StubResource(String path, String embeddedKey, String entityName, List<String> fields, Map<String, Integer> maxLengths,
+            Set<String> hiddenFields, Map<String, BiPredicate<Map<String, Object>, String>> filters) {
+        this.path = path;
+        this.embeddedKey = embeddedKey;
+        this.entityName = entityName;
+        this.fields = fields;
+        this.maxLengths = maxLengths;
+        this.hiddenFields = hiddenFields;
+        this.filters = filters;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    String getEmbeddedKey() {
+        return embeddedKey;
+    }
+
+    String getEntityName() {
+        return entityName;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Returns the first field whose value is longer than its column, or null if all values fit.
+     */
+    String findTooLongField(Map<String, Object> values) {
+        for (Map.Entry<String, Integer> entry : maxLengths.entrySet()) {
+            Object value = values.get(entry.getKey());
+            if (value instanceof String && ((String) value).length() > entry.getValue()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a new row and returns it with its generated ID.
+     */
+    Map<String, Object> insert(Map<String, Object> values) {
+        int id = nextId.getAndIncrement();
+        Map<String, Object> row = toRow(id, values);
+        rows.put(id, row);
+        return row;
+    }
+
+    /**
+     * Replaces the writable fields of a row. Fields missing from the values keep their current value.
+     *
+     * @return The updated row, or null if there is no row with the ID.
+     */
+    Map<String, Object> update(int id, Map<String, Object> values) {
+        Map<String, Object> current = rows.get(id);
+        if (current == null) {
+            return null;
+        }
+        Map<String, Object> merged = new LinkedHashMap<>(current);
+        for (String field : fields) {
+            if (values.containsKey(field)) {
+                merged.put(field, values.get(field));
+            }
+        }
+        Map<String, Object> row = toRow(id, merged);
+        return rows.replace(id, row) != null ? row : null;
+    }
+
+    Map<String, Object> get(int id) {
+        return rows.get(id);
+    }
+
+    boolean delete(int id) {
+        return rows.remove(id) != null;
+    }
+
+    /**
+     * Returns all rows matching the supported query parameters, in ID order. Unknown parameters
+     * (including page and size) are ignored.
+     */
+    List<Map<String, Object>> find(Map<String, String> query) {
+        List<BiPredicate<Map<String, Object>, String>> predicates = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (Map.Entry<String, String> entry : query.entrySet()) {
+            BiPredicate<Map<String, Object>, String> predicate = filters.get(entry.getKey());
+            if (predicate != null && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                predicates.add(predicate);
+                arguments.add(entry.getValue());
+            }
+        }
+
+        List<Map<String, Object>> matches = new ArrayList<>();
+        for (Map<String, Object> row : rows.values()) {
+            boolean match = true;
+            for (int i = 0; i < predicates.size() && match; i++) {
+                match = predicates.get(i).test(row, arguments.get(i));
+            }
+            if (match) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns a row as it is sent to clients: without hidden fields and with its HAL self link.
+     */
+    Map<String, Object> toRepresentation(Map<String, Object> row, String baseUri) {
+        Map<String, Object> representation = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (!hiddenFields.contains(entry.getKey())) {
+                representation.put(entry.getKey(), entry.getValue());
+            }
+        }
+        representation.put("_links", Collections.singletonMap("self",
+                Collections.singletonMap("href", baseUri + "/" + path + "/" + row.get("id"))));
+        return representation;
+    }
+
+    private Map<String, Object> toRow(int id, Map<String, Object> values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        for (String field : fields) {
+            row.put(field, values.get(field));
+        }
+        return Collections.unmodifiableMap(row);
+    }
+
+    /**
+     * Matches when the row's field contains the argument, ignoring case (like a LIKE '%...%' filter).
+     */
+    static BiPredicate<Map<String, Object>, String> contains(String field) {
+        return (row, argument) -> {
+            Object value = row.get(field);
+            return value != null && value.toString().toLowerCase().contains(argument.toLowerCase());
+        };
+    }
+
+    /**
+     * Matches when the row's field, as text, equals the argument.
+     */
+    static BiPredicate<Map<String, Object>, String> equalTo(String field) {
+        return (row, argument) -> {
+            Object value = row.get(field);
+            return value != null && value.toString().equalsIgnoreCase(argument);
+        };
+    }
+}
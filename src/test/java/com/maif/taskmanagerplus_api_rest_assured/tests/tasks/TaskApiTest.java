@@ -3,41 +3,46 @@ package com.maif.taskmanagerplus_api_rest_assured.tests.tasks;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.notNullValue;
-import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
-import com.maif.taskmanagerplus_api_rest_assured.auth.AuthUtil;
 import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
 import com.maif.taskmanagerplus_api_rest_assured.tests.base.BaseTest;
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.RestoreTables;
+import com.maif.taskmanagerplus_api_rest_assured.tests.client.TaskApiClient;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.CleanupRegistry;
 import com.maif.taskmanagerplus_api_rest_assured.tests.util.DataBaseInsertUtil;
+import com.maif.taskmanagerplus_api_rest_assured.tests.util.HalStreamValidator;
 import com.maif.taskmanagerplus_api_rest_assured.tests.util.TestUtil;
 
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 
-
 /**
  * Tests for the Task API endpoints using RestAssured.
  * These tests cover CRUD operations and various filters.
+ * Rows the tests create are deleted after the class by CleanupRegistry; existing rows they change
+ * are put back once after the class (see RestoreTables).
  * 
  * Author: Maicon Fang
  * Date: 2024-06-19
  * 
  */
+@RestoreTables("task")
 public class TaskApiTest extends BaseTest {
     
-    private static final String TASKS_PATH = "/tasks"; // Static variable for the path "/tasks"
-    private static final String TASKS_PATH_NOPAGINATION = "/noPagination";
+    private final TaskApiClient tasks = TaskApiClient.asDefaultUser();
     
 
     @Test
     public void shouldCreateNewTaskSuccessfully() {
+        String title = TestUtil.uniqueName("New Task");
     	
     	// Create a TaskDTO object and set its fields
         TaskDTO taskDTO = new TaskDTO();
-        taskDTO.setTitle("New Task");
+        taskDTO.setTitle(title);
         taskDTO.setDescription("New Task Description");
         taskDTO.setDueDate("2024-06-30T00:00:00Z");
         taskDTO.setCompleted(false);
@@ -45,337 +50,221 @@ public class TaskApiTest extends BaseTest {
      // Convert the TaskDTO object to JSON using the generic method
         String requestBody = TestUtil.convertObjectToJson(taskDTO);
         
-        int taskId = 0; // Inicialize taskId
-        
-        try {
-            // Perform POST request to create a task
-            Response response = given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .body(requestBody)
-                .when()
-                .post(RestAssured.baseURI + TASKS_PATH) // Builds the complete URL using RestAssured.baseURI and TASKS_PATH
-                .then()
-                .statusCode(201)
-                .body("title", equalTo("New Task"))
-                .extract().response(); // Extracts the HTTP response
-
-            // Extract the ID of the created task from the JSON response
-            taskId = response.path("id");
-        } finally {
-            // Ensure that the created task is deleted from the database even if the test fails
-            if (taskId != 0) {
-                DataBaseInsertUtil.deleteTask(taskId);
-            }
-        }
+        // Perform POST request to create a task
+        tasks.create(requestBody)
+            .then()
+            .statusCode(201)
+            .body("title", equalTo(title))
+            .body("id", notNullValue());
     }
 
     
     @Test
     public void shouldDeleteExistingTaskSuccessfully() {
+        String title = TestUtil.uniqueName("Task to Delete");
     	
     	// Insert a task into the database and get the ID
-        int taskIdNew = DataBaseInsertUtil.insertTask("Task to Delete", "Task Description", TestUtil.convertToLocalDate("2024-06-30"), false);
+        int taskIdNew = CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description", TestUtil.convertToLocalDate("2024-06-30"), false));
 
         // Send the deletion request and log the details
-        given()
-            .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-            .when()
-            .delete(RestAssured.baseURI + TASKS_PATH + "/" + taskIdNew)
+        tasks.delete(taskIdNew)
             .then()
             .statusCode(204);
     }
     
     @Test
     public void shouldRetrieveTaskById() {
-        int taskIdGet = 0; // Inicialize taskIdGet
-
-        try {
-            // Insert a task into the database
-            taskIdGet = DataBaseInsertUtil.insertTask("Task to Get", "Task Description Get", TestUtil.convertToLocalDate("2024-06-30"), false);
-
-            // Perform GET request to retrieve the task
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH + "/" + taskIdGet) // Builds the complete URL using RestAssured.baseURI and TASKS_PATH
-                .then()
-                .statusCode(200)
-                .body("id", equalTo(taskIdGet));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdGet != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdGet);
-            }
-        }
+        String title = TestUtil.uniqueName("Task to Get");
+
+        // Insert a task into the database
+        int taskIdGet = CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description Get", TestUtil.convertToLocalDate("2024-06-30"), false));
+
+        // Perform GET request to retrieve the task
+        tasks.get(taskIdGet)
+            .then()
+            .statusCode(200)
+            .body("id", equalTo(taskIdGet));
     }
 
     
     @Test
     public void shouldUpdateTaskDetailsSuccessfully() {
-        int taskIdUpdate = 0; // Inicialize taskIdUpdate
+        String title = TestUtil.uniqueName("Task will be updated");
+        
+        // Insert a task into the database
+        int taskIdUpdate = CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description will be updated", TestUtil.convertToLocalDate("2024-06-20"), false));
+        
+        
+        // Create a TaskDTO with default or custom values
+        TaskDTO taskDTO = TaskDTO.createTask(taskIdUpdate, "Updated Task", "New Task Description", "2024-07-01", true);
         
-        try {
-            // Insert a task into the database
-            taskIdUpdate = DataBaseInsertUtil.insertTask("Task will be updated", "Task Description will be updated", TestUtil.convertToLocalDate("2024-06-20"), false);
-            
-            
-            // Create a TaskDTO with default or custom values
-            TaskDTO taskDTO = TaskDTO.createTask(taskIdUpdate, "Updated Task", "New Task Description", "2024-07-01", true);
-            
-            // Convert the TaskDTO object to JSON using the generic method
-            String requestBody = TestUtil.convertObjectToJson(taskDTO);
-            
-            // Prepare the request body for updating the task
-            // String requestBody = "{ \"id\": " + taskIdUpdate + ", \"title\": \"Updated Task\", \"description\": \"Updated Description\", \"dueDate\": \"2024-07-01\", \"completed\": true }";
-
-            // Perform PUT request to update the task
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .body(requestBody)
-                .when()
-                .put(RestAssured.baseURI + TASKS_PATH + "/" + taskIdUpdate) // Builds the complete URL using RestAssured.baseURI and TASKS_PATH
-                .then()
-                .statusCode(200)
-                .body("title", equalTo("Updated Task"));
-        } finally {
-            // Ensure that the updated task is deleted from the database even if the test fails
-            if (taskIdUpdate != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdUpdate);
-            }
-        }
+        // Convert the TaskDTO object to JSON using the generic method
+        String requestBody = TestUtil.convertObjectToJson(taskDTO);
+        
+        // Prepare the request body for updating the task
+        // String requestBody = "{ \"id\": " + taskIdUpdate + ", \"title\": \"Updated Task\", \"description\": \"Updated Description\", \"dueDate\": \"2024-07-01\", \"completed\": true }";
+
+        // Perform PUT request to update the task
+        tasks.update(taskIdUpdate, requestBody)
+            .then()
+            .statusCode(200)
+            .body("title", equalTo("Updated Task"));
     }
 
     
     
     @Test
     public void shouldFilterTasksByIdWithPagination() {
-        int taskIdFilterIdWithPag = 0; // Inicialize taskIdFilterIdWithPag
+        String title = TestUtil.uniqueName("Task to FilterIdWithPagination");
         
-        try {
-            // Insert a task into the database
-            taskIdFilterIdWithPag = DataBaseInsertUtil.insertTask("Task to FilterIdWithPagination", "Task Description FilterIdWithPagination", 
-            		TestUtil.convertToLocalDate("2024-06-20"), false);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("taskId", taskIdFilterIdWithPag)
-                .queryParam("completed", "false")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].id", equalTo(taskIdFilterIdWithPag))
-                .body("_embedded.tasks[0].title", equalTo("Task to FilterIdWithPagination"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description FilterIdWithPagination"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(false));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdFilterIdWithPag != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdFilterIdWithPag);
-            }
-        }
+        // Insert a task into the database
+        int taskIdFilterIdWithPag = CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description FilterIdWithPagination", 
+        		TestUtil.convertToLocalDate("2024-06-20"), false));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of("taskId", taskIdFilterIdWithPag, "completed", "false", "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].id", equalTo(taskIdFilterIdWithPag))
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo("Task Description FilterIdWithPagination"))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
+            .body("_embedded.tasks[0].completed", equalTo(false));
     }
 
     
     @Test
     public void shouldFilterTasksByTitleWithPagination() {
-        int taskIdFilterTitleWithPag = 0; // Inicialize taskIdFilterTitleWithPag
+        String title = TestUtil.uniqueName("Task to TitleWithPagination");
         
-        try {
-            // Insert a task into the database
-            taskIdFilterTitleWithPag = DataBaseInsertUtil.insertTask("Task to TitleWithPagination", "Task Description TitleWithPagination", 
-            		TestUtil.convertToLocalDate("2024-06-20"), false);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("title", "Task to TitleWithPagination")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].title", equalTo("Task to TitleWithPagination"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description TitleWithPagination"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(false));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdFilterTitleWithPag != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdFilterTitleWithPag);
-            }
-        }
+        // Insert a task into the database
+        CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description TitleWithPagination", 
+        		TestUtil.convertToLocalDate("2024-06-20"), false));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of("title", title, "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo("Task Description TitleWithPagination"))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
+            .body("_embedded.tasks[0].completed", equalTo(false));
     }
 
     
     @Test
     public void shouldFilterTasksByDescriptionWithPagination() {
-        int taskIdFilterDescriptionWithPag = 0; // Inicialize taskIdFilterDescriptionWithPag
+        String title = TestUtil.uniqueName("Task to FilterDescriptionWithPagination");
+        String description = TestUtil.uniqueName("Task Description FilterDescriptionWithPagination");
         
-        try {
-            // Insert a task into the database
-            taskIdFilterDescriptionWithPag = DataBaseInsertUtil.insertTask("Task to FilterDescriptionWithPagination", 
-            		"Task Description FilterDescriptionWithPagination", TestUtil.convertToLocalDate("2024-06-20"), true);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("description", "Task Description FilterDescriptionWithPagination")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].title", equalTo("Task to FilterDescriptionWithPagination"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description FilterDescriptionWithPagination"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(true));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdFilterDescriptionWithPag != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdFilterDescriptionWithPag);
-            }
-        }
+        // Insert a task into the database
+        CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, 
+        		description, TestUtil.convertToLocalDate("2024-06-20"), true));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of("description", description, "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo(description))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
+            .body("_embedded.tasks[0].completed", equalTo(true));
     }
 
     
     @Test
     public void shouldFilterTasksByDueDateWithPagination() {
-        int taskIdFilterDueDateWithPag = 0; // Inicialize taskIdFilterDueDateWithPag
+        String title = TestUtil.uniqueName("Task to FilterDueDateWithPagination");
         
-        try {
-            // Insert a task into the database
-            taskIdFilterDueDateWithPag = DataBaseInsertUtil.insertTask("Task to FilterDueDateWithPagination", "Task Description FilterDueDateWithPagination", 
-            		TestUtil.convertToLocalDate("2024-06-20"), true);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("dueDate", "2024-06-20")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].title", equalTo("Task to FilterDueDateWithPagination"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description FilterDueDateWithPagination"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(true));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdFilterDueDateWithPag != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdFilterDueDateWithPag);
-            }
-        }
+        // Insert a task into the database. No other test uses this due date, so the filter only matches this task
+        // even when the tests run in parallel
+        CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description FilterDueDateWithPagination", 
+        		TestUtil.convertToLocalDate("2024-06-17"), true));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of("dueDate", "2024-06-17", "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo("Task Description FilterDueDateWithPagination"))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-17"))
+            .body("_embedded.tasks[0].completed", equalTo(true));
     }
 
     
     
     @Test
     public void shouldFilterTasksByCompletedStatusAndTitleWithPagination() {
-        int taskIdFilterCompletedAndTitleWithPag = 0; // Inicialize taskIdFilterCompletedAndTitleWithPag
+        String title = TestUtil.uniqueName("Task to FilterCompletedAndTitle");
         
-        try {
-            // Insert a task into the database
-            taskIdFilterCompletedAndTitleWithPag = DataBaseInsertUtil.insertTask("Task to FilterCompletedAndTitle", "Task Description FilterCompletedAndTitle", 
-            		TestUtil.convertToLocalDate("2024-06-20"), false);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("completed", "false")
-                .queryParam("title", "Task to FilterCompletedAndTitle")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].title", equalTo("Task to FilterCompletedAndTitle"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description FilterCompletedAndTitle"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(false));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskIdFilterCompletedAndTitleWithPag != 0) {
-                DataBaseInsertUtil.deleteTask(taskIdFilterCompletedAndTitleWithPag);
-            }
-        }
+        // Insert a task into the database
+        CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description FilterCompletedAndTitle", 
+        		TestUtil.convertToLocalDate("2024-06-20"), false));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of("completed", "false", "title", title, "page", 0, "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo("Task Description FilterCompletedAndTitle"))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
+            .body("_embedded.tasks[0].completed", equalTo(false));
     }
 
     
     @Test
     public void shouldFilterTasksByMultipleCriteriaWithPagination() {
-        int taskId = 0; // Inicialize taskId
+        String title = TestUtil.uniqueName("Task to TitleDescriptionDueDate");
+        String description = TestUtil.uniqueName("Task Description TitleDescriptionDueDate");
         
-        try {
-            // Insert a task into the database
-            taskId = DataBaseInsertUtil.insertTask("Task to TitleDescriptionDueDate", "Task Description TitleDescriptionDueDate", 
-            		TestUtil.convertToLocalDate("2024-06-20"), false);
-
-            // Perform GET request with query parameters
-            given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Uses the helper method to add the authorization header
-                .queryParam("taskId", taskId)
-                .queryParam("title", "Task to TitleDescriptionDueDate")
-                .queryParam("description", "Task Description TitleDescriptionDueDate")
-                .queryParam("dueDate", "2024-06-20")
-                .queryParam("completed", "false")
-                .queryParam("page", 0)
-                .queryParam("size", 10)
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH) // Uses the static variable for the path "/tasks"
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].id", equalTo(taskId))
-                .body("_embedded.tasks[0].title", equalTo("Task to TitleDescriptionDueDate"))
-                .body("_embedded.tasks[0].description", equalTo("Task Description TitleDescriptionDueDate"))
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
-                .body("_embedded.tasks[0].completed", equalTo(false));
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskId != 0) {
-                DataBaseInsertUtil.deleteTask(taskId);
-            }
-        }
+        // Insert a task into the database
+        int taskId = CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, description, 
+        		TestUtil.convertToLocalDate("2024-06-20"), false));
+
+        // Perform GET request with query parameters
+        tasks.filter(Map.of(
+                "taskId", taskId,
+                "title", title,
+                "description", description,
+                "dueDate", "2024-06-20",
+                "completed", "false",
+                "page", 0,
+                "size", 10))
+            .then()
+            .statusCode(200)
+            .body("_embedded.tasks[0].id", equalTo(taskId))
+            .body("_embedded.tasks[0].title", equalTo(title))
+            .body("_embedded.tasks[0].description", equalTo(description))
+            .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20"))
+            .body("_embedded.tasks[0].completed", equalTo(false));
     }
 
     
     @Test
     public void shouldFilterTasksByTitleWithoutPagination() {
-        int taskId = 0; // Inicialize taskId
+        String title = TestUtil.uniqueName("Task to FilterTasksByTitleNoPagination");
         
-        try {
-            // Insert a task into the database
-            taskId = DataBaseInsertUtil.insertTask("Task to FilterTasksByTitleNoPagination", "Task Description FilterTasksByTitleNoPagination", 
-            		TestUtil.convertToLocalDate("2024-06-20"), false);
-
-            // Makes the GET request to fetch tasks filtered by title
-            RestAssured.given()
-                .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Adds the authorization header
-                .queryParam("title", "Task to FilterTasksByTitleNoPagination")
-                .when()
-                .get(RestAssured.baseURI + TASKS_PATH + TASKS_PATH_NOPAGINATION)
-                .then()
-                .statusCode(200)
-                .body("_embedded.tasks[0].title", equalTo("Task to FilterTasksByTitleNoPagination")) // Checks if the title of the first task in the result is "Task to FilterTasksByTitleNoPagination"
-                .body("_embedded.tasks[0].description", equalTo("Task Description FilterTasksByTitleNoPagination")) // Checks the description
-                .body("_embedded.tasks[0].dueDate", equalTo("2024-06-20")) // Checks the due date
-                .body("_embedded.tasks[0].completed", equalTo(false)) // Checks if it is not completed
-                .body("page", nullValue()); // Checks if the "page" key is not present in the JSON response
-        } finally {
-            // Ensure that the inserted task is deleted from the database even if the test fails
-            if (taskId != 0) {
-                DataBaseInsertUtil.deleteTask(taskId);
-            }
-        }
+        // Insert a task into the database
+        CleanupRegistry.registerTask(DataBaseInsertUtil.insertTask(title, "Task Description FilterTasksByTitleNoPagination", 
+        		TestUtil.convertToLocalDate("2024-06-20"), false));
+
+        // Makes the GET request to fetch tasks filtered by title
+        Response response = tasks.listAll(Map.of("title", title))
+            .then()
+            .statusCode(200)
+            .extract().response();
+
+        // The list is unbounded, so it is checked item by item while streaming instead of through JsonPath
+        HalStreamValidator.forItems("tasks", TaskDTO.class)
+            .expectMinCount(1)
+            .expectEvery("title is the inserted title", task -> title.equals(task.getTitle()))
+            .expectEvery("description", task -> "Task Description FilterTasksByTitleNoPagination".equals(task.getDescription()))
+            .expectEvery("due date is 2024-06-20", task -> "2024-06-20".equals(task.getDueDate()))
+            .expectEvery("not completed", task -> Boolean.FALSE.equals(task.getCompleted()))
+            .expectUnique("id", TaskDTO::getId)
+            .expectNoField("page") // The "page" key must not be present in the JSON response
+            .validate(response)
+            .assertValid();
     }
 
     
@@ -386,11 +275,7 @@ public class TaskApiTest extends BaseTest {
     	
     	String requestBody = "{ \"title\": \"" + textTitle + "\", \"description\": \"New Task Description\", \"dueDate\": \"2024-06-30T00:00:00Z\", \"completed\": false }";
 
-    	 given()
-         .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-         .body(requestBody)
-         .when()
-         .post(RestAssured.baseURI + TASKS_PATH)
+    	 tasks.create(requestBody)
          .then()
          .statusCode(400)
          .body("status", equalTo(400))
@@ -406,11 +291,7 @@ public class TaskApiTest extends BaseTest {
     public void shouldReturnErrorForInvalidDueDateFormat() {
     	  String requestBody = "{ \"title\": \"New Task\", \"description\": \"New Task Description\", \"dueDate\": \"hii2024-06-30T00:00:00Z\", \"completed\": false }";
 
-    	  given()
-          .spec(AuthUtil.addTokenHeader(RestAssured.given()))
-          .body(requestBody)
-          .when()
-          .post(RestAssured.baseURI + TASKS_PATH)
+    	  tasks.create(requestBody)
           .then()
           .statusCode(400)
           .body("status", equalTo(400))
@@ -438,7 +319,7 @@ public class TaskApiTest extends BaseTest {
     public void shouldReturnHelloWorldMessage() {
         given()
             .when()
-            .get(RestAssured.baseURI + "/tasks/hello")
+            .get(BASE_URI + "/tasks/hello")
             .then()
             .statusCode(200) // Verifies if the response status code is 200 OK
             .body(equalTo("Hello World!")); // Verifies if the response body is exactly "Hello World!"
@@ -454,7 +335,7 @@ public class TaskApiTest extends BaseTest {
     public void shouldLogErrorIfValidationFailsForHelloWorld() {
         given()
             .when()
-            .get(RestAssured.baseURI + "/tasks/hello")
+            .get(BASE_URI + "/tasks/hello")
             .then()
             .log().ifValidationFails()
             .statusCode(200) // Verifies if the response status code is 200 OK
@@ -475,10 +356,7 @@ public class TaskApiTest extends BaseTest {
         Long nonExistentTaskId = 55L;
 
         // Perform GET request to retrieve the non-existent task
-        given()
-            .spec(AuthUtil.addTokenHeader(RestAssured.given())) // Adds the authorization header using a helper method
-            .when()
-            .get(RestAssured.baseURI + TASKS_PATH + "/" + nonExistentTaskId) // Builds the complete URL using RestAssured.baseURI and TASKS_PATH
+        tasks.get(nonExistentTaskId)
             .then()
             .statusCode(404) // Verifies the response status code is 404 Not Found
             .body("status", equalTo(404)) // Verifies the "status" field in the response body is 404
@@ -0,0 +1,222 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+/**
+ * CleanupRegistry collects the IDs of tasks, provinces and users created by tests and deletes them
+ * later in bulk, instead of one DELETE per row on the test thread.
+ *
+ * IDs are registered by:
+ * - CreatedEntityFilter, for entities created through the API (POST returning 201)
+ * - tests wrapping their fixture inserts, e.g. registerTask(DataBaseInsertUtil.insertTask(...));
+ *   DataBaseInsertUtil itself registers nothing, so tools and benchmarks clean up on their own
+ *
+ * IDs are kept per Scope. CleanupExtension opens one scope per test class, makes it the current
+ * scope of the thread around every test method, and flushes it with flushAsync(scope) after the
+ * class. Only that class's rows are deleted, so classes running in parallel never lose rows they
+ * still use. IDs registered outside a scope go to a global scope, deleted by flush().
+ *
+ * Rows that existed before a class are not registered here; @RestoreTables puts those back.
+ *
+ * The deletes use the chunked "DELETE ... WHERE id IN (...)" statements of DataBaseInsertUtil. IDs
+ * of rows that are already gone (e.g. deleted by the test) cost nothing. IDs whose delete failed are
+ * kept and retried by the next flush. When the JVM exits, the shared ConnectionPool runs a last
+ * synchronous flush of all scopes before it closes, so nothing leaks on a normal exit or on Ctrl+C
+ * (a killed JVM runs no hooks at all).
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-07
+ */
+public class CleanupRegistry {
+
+    // IDs registered outside any scope
+    private static final Scope global = new Scope();
+
+    // Scopes opened and not yet fully deleted, for the exit flush
+    private static final Set<Scope> openScopes = ConcurrentHashMap.newKeySet();
+
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+    // One thread, so flushes never run concurrently with each other
+    private static final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cleanup-registry-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        ConnectionPool.shared().beforeClose(CleanupRegistry::flushOnShutdown);
+    }
+
+    /**
+     * Registers a task for deletion with the current scope. IDs below 1 (failed inserts) are ignored.
+     *
+     * @param taskId The ID of the task.
+     * @return The given ID, so the call can wrap an insert.
+     */
+    public static int registerTask(int taskId) {
+        return register(scope().taskIds, taskId);
+    }
+
+    /**
+     * Registers a province for deletion with the current scope. IDs below 1 (failed inserts) are ignored.
+     *
+     * @param provinceId The ID of the province.
+     * @return The given ID, so the call can wrap an insert.
+     */
+    public static int registerProvince(int provinceId) {
+        return register(scope().provinceIds, provinceId);
+    }
+
+    /**
+     * Registers a user for deletion with the current scope. IDs below 1 (failed inserts) are ignored.
+     *
+     * @param userId The ID of the user.
+     * @return The given ID, so the call can wrap an insert.
+     */
+    public static int registerUser(int userId) {
+        return register(scope().userIds, userId);
+    }
+
+    /**
+     * Opens a new scope. It is deleted by flushAsync(scope), or by the exit flush.
+     *
+     * @return The scope.
+     */
+    public static Scope openScope() {
+        Scope scope = new Scope();
+        openScopes.add(scope);
+        return scope;
+    }
+
+    /**
+     * Makes the scope the one the calling thread registers IDs with.
+     *
+     * @param scope The scope, or null to register with the global scope again.
+     */
+    public static void setCurrentScope(Scope scope) {
+        if (scope == null) {
+            currentScope.remove();
+        } else {
+            currentScope.set(scope);
+        }
+    }
+
+    /**
+     * Returns the number of registered IDs that have not been deleted yet, in all scopes.
+     */
+    public static int pendingCount() {
+        int pending = global.pendingCount();
+        for (Scope scope : openScopes) {
+            pending += scope.pendingCount();
+        }
+        return pending;
+    }
+
+    /**
+     * Deletes the rows of the scope on the background thread and returns immediately.
+     *
+     * @param scope The scope, e.g. the one of a finished test class.
+     * @return Completes with the number of deleted rows when the flush is done.
+     */
+    public static CompletableFuture<Integer> flushAsync(Scope scope) {
+        return CompletableFuture.supplyAsync(() -> {
+            int deleted = scope.flush();
+            if (scope.pendingCount() == 0) {
+                openScopes.remove(scope);
+            }
+            return deleted;
+        }, flusher);
+    }
+
+    /**
+     * Deletes the rows registered outside any scope, on the calling thread.
+     *
+     * @return The number of deleted rows.
+     */
+    public static int flush() {
+        return global.flush();
+    }
+
+    /**
+     * Waits for a running background flush, then deletes what is left in every scope. Runs once,
+     * when the shared ConnectionPool is closed by its shutdown hook.
+     */
+    private static void flushOnShutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(ConfigLoader.getLongProperty("cleanup.shutdown-timeout-seconds", 30), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Scope scope : openScopes) {
+            scope.flush();
+        }
+        global.flush();
+    }
+
+    private static Scope scope() {
+        Scope scope = currentScope.get();
+        return scope != null ? scope : global;
+    }
+
+    private static int register(Queue<Integer> ids, int id) {
+        if (id > 0) {
+            ids.add(id);
+        }
+        return id;
+    }
+
+    /**
+     * The IDs registered by one owner, e.g. one test class.
+     */
+    public static final class Scope {
+        private final Queue<Integer> taskIds = new ConcurrentLinkedQueue<>();
+        private final Queue<Integer> provinceIds = new ConcurrentLinkedQueue<>();
+        private final Queue<Integer> userIds = new ConcurrentLinkedQueue<>();
+
+        private Scope() {
+        }
+
+        private int pendingCount() {
+            return taskIds.size() + provinceIds.size() + userIds.size();
+        }
+
+        private int flush() {
+            return drainAndDelete(taskIds, DataBaseInsertUtil::deleteTasks)
+                    + drainAndDelete(provinceIds, DataBaseInsertUtil::deleteProvinces)
+                    + drainAndDelete(userIds, DataBaseInsertUtil::deleteUsers);
+        }
+
+        private static int drainAndDelete(Queue<Integer> ids, Function<List<Integer>, Integer> delete) {
+            List<Integer> drained = new ArrayList<>();
+            Integer id;
+            while ((id = ids.poll()) != null) {
+                drained.add(id);
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            int deleted = delete.apply(drained);
+            if (deleted < 0) {
+                // The delete failed and was rolled back; try again with the next flush
+                ids.addAll(drained);
+                return 0;
+            }
+            return deleted;
+        }
+    }
+}
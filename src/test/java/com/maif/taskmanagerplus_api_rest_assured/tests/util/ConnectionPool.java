@@ -0,0 +1,649 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.PreparedStatement;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+import lombok.Getter;
+
+/**
+ * ConnectionPool is a small, bounded JDBC connection pool used by the fixture utilities.
+ *
+ * Opening a MySQL connection costs a TCP and authentication handshake, which used to happen
+ * for every inserted or deleted fixture row. This pool keeps physical connections open and
+ * hands out proxies whose close() returns the connection to the pool instead of closing it.
+ * Every borrow gets its own proxy, so a borrower that closes its connection twice, or uses it after
+ * closing it, cannot return or use the connection of the next borrower.
+ *
+ * Features:
+ * - At most maxSize connections exist at any time; callers wait up to connectionTimeoutMs for one.
+ * - Connections are validated on borrow (unless they were used very recently).
+ * - Idle connections are evicted after idleTimeoutMs, and every connection is retired after maxLifetimeMs.
+ * - Each connection keeps up to statementCacheSize prepared statements open. prepareStatement(sql)
+ *   and prepareStatement(sql, autoGeneratedKeys) return the cached statement for the same SQL, and
+ *   closing it only clears its parameters, so repeated fixture inserts are prepared once per connection.
+ * - getStats() returns a snapshot of the pool counters.
+ *
+ * The shared instance is configured from application-test.properties through ConfigLoader and
+ * is closed once per JVM by a shutdown hook. With db.mode=embedded it connects to the in-memory
+ * database and creates its schema first (see EmbeddedDatabase).
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-25
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    // Connections used within this window are handed out again without a validation round trip
+    private static final long VALIDATION_BYPASS_MS = 500;
+
+    private final String dbUrl;
+    private final String username;
+    private final String password;
+
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long connectionTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Permits bound the number of connections that exist (idle + leased)
+    private final Semaphore permits;
+
+    // Idle connections, most recently used first
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Run by close() while connections can still be borrowed, e.g. the final CleanupRegistry flush
+    private final List<Runnable> beforeCloseActions = new CopyOnWriteArrayList<>();
+
+    // Statistics
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger leasedConnections = new AtomicInteger();
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementsPrepared = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+
+    /**
+     * Creates a pool for the given database and settings.
+     *
+     * @param driverClassName          The JDBC driver class to register.
+     * @param dbUrl                    The JDBC URL.
+     * @param username                 The database username.
+     * @param password                 The database password.
+     * @param maxSize                  The maximum number of open connections.
+     * @param idleTimeoutMs            How long a connection may stay idle before it is closed.
+     * @param maxLifetimeMs            How long a connection may live before it is retired.
+     * @param connectionTimeoutMs      How long getConnection() waits for a free connection.
+     * @param validationTimeoutSeconds The timeout passed to Connection.isValid() on borrow.
+     * @param statementCacheSize       The number of prepared statements kept open per connection (0 disables the cache).
+     */
+    public ConnectionPool(String driverClassName, String dbUrl, String username, String password,
+                          int maxSize, long idleTimeoutMs, long maxLifetimeMs,
+                          long connectionTimeoutMs, int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool max size must be at least 1, got " + maxSize);
+        }
+        try {
+            // Register the JDBC driver once for the lifetime of the pool
+            Class.forName(driverClassName);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("JDBC driver not found: " + driverClassName, e);
+        }
+
+        this.dbUrl = dbUrl;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs, maxLifetimeMs) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evictIdleAndExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared pool configured from application-test.properties.
+     * The pool is created on first use and closed by a shutdown hook when the JVM exits.
+     *
+     * @return The shared ConnectionPool.
+     */
+    public static ConnectionPool shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        private static final ConnectionPool INSTANCE = createShared();
+
+        private static ConnectionPool createShared() {
+            ConnectionPool pool = new ConnectionPool(
+                    ConfigLoader.getDriverClassName(),
+                    ConfigLoader.getDbUrl(),
+                    ConfigLoader.getUsername(),
+                    ConfigLoader.getPassword(),
+                    ConfigLoader.getPoolMaxSize(),
+                    ConfigLoader.getPoolIdleTimeoutMs(),
+                    ConfigLoader.getPoolMaxLifetimeMs(),
+                    ConfigLoader.getPoolConnectionTimeoutMs(),
+                    ConfigLoader.getPoolValidationTimeoutSeconds(),
+                    ConfigLoader.getPoolStatementCacheSize());
+
+            // Close the pool once, when the JVM shuts down
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "connection-pool-shutdown"));
+
+            // The in-memory database starts empty
+            if (ConfigLoader.isEmbeddedDatabase()) {
+                EmbeddedDatabase.createSchema(pool);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool is not full.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return A pooled connection.
+     * @throws SQLException If no connection becomes available within the connection timeout,
+     *                      or a new connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        pendingRequests.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + connectionTimeoutMs
+                        + " ms waiting for a connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            pendingRequests.decrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleConnection();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            Lease lease = new Lease(pooled);
+            pooled.lease = lease;
+            leasedConnections.incrementAndGet();
+            borrowCount.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Polls idle connections until a usable one is found, discarding expired or broken ones.
+     */
+    private PooledConnection takeIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (now - pooled.createdAt >= maxLifetimeMs) {
+                destroy(pooled);
+                continue;
+            }
+            if (now - pooled.lastUsedAt > VALIDATION_BYPASS_MS && !isValid(pooled)) {
+                validationFailureCount.incrementAndGet();
+                destroy(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(dbUrl, username, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Returns a leased connection to the pool. Called once per lease, by the proxy's close() method.
+     */
+    private void release(PooledConnection pooled) {
+        pooled.lease = null;
+        pooled.lastUsedAt = System.currentTimeMillis();
+        leasedConnections.decrementAndGet();
+
+        try {
+            if (closed || pooled.physical.isClosed()
+                    || pooled.lastUsedAt - pooled.createdAt >= maxLifetimeMs) {
+                destroy(pooled);
+            } else {
+                pooled.closeLeakedStatements();
+                // Undo any transaction state left behind by the borrower
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                pooled.physical.clearWarnings();
+                idleConnections.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        destroyedCount.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // The connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Closes idle connections that exceeded the idle timeout or the max lifetime.
+     * Runs periodically on the housekeeper thread.
+     */
+    private void evictIdleAndExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.lastUsedAt >= idleTimeoutMs || now - pooled.createdAt >= maxLifetimeMs) {
+                // remove() fails if a borrower took the connection in the meantime
+                if (idleConnections.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return The current pool statistics.
+     */
+    public Stats getStats() {
+        return new Stats(maxSize, totalConnections.get(), leasedConnections.get(), idleConnections.size(),
+                pendingRequests.get(), createdCount.get(), destroyedCount.get(), borrowCount.get(),
+                validationFailureCount.get(), timeoutCount.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                statementsPrepared.get(), statementCacheHits.get());
+    }
+
+    /**
+     * Registers an action that close() runs before the pool stops handing out connections.
+     * This orders work of other shutdown hooks that still needs the database before the pool's
+     * own hook, since the JVM runs shutdown hooks concurrently.
+     *
+     * @param action The action to run; exceptions it throws are printed and ignored.
+     */
+    public void beforeClose(Runnable action) {
+        beforeCloseActions.add(action);
+    }
+
+    /**
+     * Runs the beforeClose actions, then closes all idle connections and stops the housekeeper.
+     * Leased connections are closed as soon as they are returned.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        for (Runnable action : beforeCloseActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+
+        List<PooledConnection> drained = new ArrayList<>();
+        idleConnections.drainTo(drained);
+        for (PooledConnection pooled : drained) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private volatile long lastUsedAt;
+        // The current borrower's handle, null while the connection is idle
+        private volatile Lease lease;
+
+        // Open prepared statements by SQL, least recently used first; only touched by the borrower
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = createdAt;
+        }
+
+        /**
+         * Returns a handle to the cached statement for the SQL, preparing and caching it if needed.
+         * If the cached statement is still open (the same SQL prepared twice before closing),
+         * an uncached statement is returned instead.
+         */
+        private PreparedStatement prepareCached(Lease lease, String sql, int autoGeneratedKeys) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.autoGeneratedKeys == autoGeneratedKeys) {
+                if (cached.handle != null) {
+                    statementsPrepared.incrementAndGet();
+                    return physical.prepareStatement(sql, autoGeneratedKeys);
+                }
+                statementCacheHits.incrementAndGet();
+                return cached.checkOut(lease);
+            }
+
+            statementsPrepared.incrementAndGet();
+            CachedStatement created = new CachedStatement(physical.prepareStatement(sql, autoGeneratedKeys), autoGeneratedKeys);
+            CachedStatement replaced = statements.put(sql, created);
+            if (replaced != null) {
+                discard(replaced);
+            }
+            evictLeastRecentlyUsed();
+            return created.checkOut(lease);
+        }
+
+        private void evictLeastRecentlyUsed() {
+            Iterator<CachedStatement> iterator = statements.values().iterator();
+            while (statements.size() > statementCacheSize && iterator.hasNext()) {
+                CachedStatement eldest = iterator.next();
+                if (eldest.handle == null) {
+                    iterator.remove();
+                    discard(eldest);
+                }
+            }
+        }
+
+        /**
+         * Closes cached statements the borrower did not close, since their state is unknown.
+         * Their handles stay closed, even if the old borrower closes them later.
+         */
+        private void closeLeakedStatements() {
+            Iterator<CachedStatement> iterator = statements.values().iterator();
+            while (iterator.hasNext()) {
+                CachedStatement cached = iterator.next();
+                if (cached.handle != null) {
+                    iterator.remove();
+                    cached.handle = null;
+                    closeQuietly(cached);
+                }
+            }
+        }
+
+        /**
+         * Closes a statement that left the cache; one that is checked out is closed when its handle is.
+         */
+        private void discard(CachedStatement cached) {
+            if (cached.handle != null) {
+                cached.evicted = true;
+            } else {
+                closeQuietly(cached);
+            }
+        }
+
+        private void closeQuietly(CachedStatement cached) {
+            try {
+                cached.physical.close();
+            } catch (SQLException e) {
+                // The statement is discarded anyway
+            }
+        }
+
+        /**
+         * A prepared statement that stays open in the cache. Each prepareStatement() call checks it
+         * out through a new StatementHandle; closing the handle clears the parameters and makes the
+         * statement available again (or closes it, if it was evicted meanwhile). Closing the
+         * connection closes it for real.
+         */
+        private final class CachedStatement {
+            private final PreparedStatement physical;
+            private final int autoGeneratedKeys;
+            // The handle it is checked out through, null while it is available
+            private StatementHandle handle;
+            // Removed from the cache while checked out; closed when the handle is closed
+            private boolean evicted;
+
+            private CachedStatement(PreparedStatement physical, int autoGeneratedKeys) {
+                this.physical = physical;
+                this.autoGeneratedKeys = autoGeneratedKeys;
+            }
+
+            private PreparedStatement checkOut(Lease lease) {
+                handle = new StatementHandle(this, lease);
+                return handle.proxy;
+            }
+
+            private void checkIn(StatementHandle returned) throws SQLException {
+                if (handle != returned) {
+                    return; // Already closed with the connection
+                }
+                handle = null;
+                if (evicted) {
+                    closeQuietly(this);
+                } else {
+                    physical.clearParameters();
+                }
+            }
+        }
+
+        /**
+         * The handle one prepareStatement() call gets for a cached statement. It has its own closed
+         * flag, so a stale handle can neither use nor return the statement once it is checked out again.
+         */
+        private final class StatementHandle implements InvocationHandler {
+            private final CachedStatement cached;
+            private final Lease lease;
+            private final PreparedStatement proxy;
+            private boolean closed;
+
+            private StatementHandle(CachedStatement cached, Lease lease) {
+                this.cached = cached;
+                this.lease = lease;
+                this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                        ConnectionPool.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, this);
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (method.getDeclaringClass() == Object.class) {
+                    if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return "Cached[" + cached.physical + "]";
+                }
+                if ("close".equals(name)) {
+                    if (!closed) {
+                        closed = true;
+                        cached.checkIn(this);
+                    }
+                    return null;
+                }
+                if ("isClosed".equals(name)) {
+                    return closed || cached.handle != this || cached.physical.isClosed();
+                }
+                if (closed || cached.handle != this) {
+                    throw new SQLException("Statement has already been closed");
+                }
+                if ("getConnection".equals(name)) {
+                    return lease.proxy;
+                }
+                try {
+                    return method.invoke(cached.physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+
+    /**
+     * The handle one borrower gets for a pooled connection. It has its own closed flag, so closing
+     * it again, or using it after close(), never touches the connection once it is leased to someone else.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                }
+                if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                return "Pooled[" + pooled.physical + "]";
+            }
+            if ("close".equals(name)) {
+                // Closing twice must not return the connection twice
+                if (closed.compareAndSet(false, true)) {
+                    release(pooled);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return closed.get() || pooled.physical.isClosed();
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (statementCacheSize > 0 && "prepareStatement".equals(name) && (args.length == 1
+                    || (args.length == 2 && method.getParameterTypes()[1] == int.class))) {
+                return pooled.prepareCached(this, (String) args[0], args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of the pool counters.
+     */
+    @Getter
+    public static final class Stats {
+        private final int maxSize;
+        private final int total;
+        private final int leased;
+        private final int idle;
+        private final int pending;
+        private final long created;
+        private final long destroyed;
+        private final long borrowed;
+        private final long validationFailures;
+        private final long timeouts;
+        private final long totalWaitMs;
+        private final long statementsPrepared;
+        private final long statementCacheHits;
+
+        Stats(int maxSize, int total, int leased, int idle, int pending, long created, long destroyed,
+              long borrowed, long validationFailures, long timeouts, long totalWaitMs,
+              long statementsPrepared, long statementCacheHits) {
+            this.maxSize = maxSize;
+            this.total = total;
+            this.leased = leased;
+            this.idle = idle;
+            this.pending = pending;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrowed = borrowed;
+            this.validationFailures = validationFailures;
+            this.timeouts = timeouts;
+            this.totalWaitMs = totalWaitMs;
+            this.statementsPrepared = statementsPrepared;
+            this.statementCacheHits = statementCacheHits;
+        }
+
+        @Override
+        public String toString() {
+            return "max=" + maxSize + ", total=" + total + ", leased=" + leased + ", idle=" + idle
+                    + ", pending=" + pending + ", created=" + created + ", destroyed=" + destroyed
+                    + ", borrowed=" + borrowed + ", validationFailures=" + validationFailures
+                    + ", timeouts=" + timeouts + ", totalWaitMs=" + totalWaitMs
+                    + ", statementsPrepared=" + statementsPrepared + ", statementCacheHits=" + statementCacheHits;
+        }
+    }
+}
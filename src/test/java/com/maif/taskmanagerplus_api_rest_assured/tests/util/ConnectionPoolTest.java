@@ -0,0 +1,205 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ConnectionPool against an in-memory H2 database (the driver of db.mode=embedded).
+ * Every test uses its own pool and database, so they need neither MySQL nor the API.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-18
+ */
+public class ConnectionPoolTest {
+
+    private String dbUrl;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void createDatabase() throws SQLException {
+        dbUrl = "jdbc:h2:mem:pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (ConnectionPool setup = newPool(1, 60_000, 600_000, 1_000, 0);
+             Connection connection = setup.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(50))");
+        }
+    }
+
+    @AfterEach
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool newPool(int maxSize, long idleTimeoutMs, long maxLifetimeMs, long connectionTimeoutMs, int statementCacheSize) {
+        return new ConnectionPool("org.h2.Driver", dbUrl, "sa", "", maxSize, idleTimeoutMs, maxLifetimeMs,
+                connectionTimeoutMs, 1, statementCacheSize);
+    }
+
+    @Test
+    public void shouldReuseTheConnectionAfterRelease() throws SQLException {
+        pool = newPool(2, 60_000, 600_000, 1_000, 0);
+
+        Connection first = pool.getConnection();
+        assertEquals(1, pool.getStats().getLeased());
+        first.close();
+        assertEquals(0, pool.getStats().getLeased());
+        assertEquals(1, pool.getStats().getIdle());
+
+        try (Connection second = pool.getConnection()) {
+            assertEquals(1, pool.getStats().getCreated(), "the idle connection is reused");
+            assertNotSame(first, second, "every lease gets its own handle");
+        }
+        assertEquals(2, pool.getStats().getBorrowed());
+    }
+
+    @Test
+    public void shouldIgnoreAStaleCloseOfAnEarlierLease() throws SQLException {
+        pool = newPool(1, 60_000, 600_000, 1_000, 0);
+
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        first.close();
+
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        assertEquals(1, pool.getStats().getLeased(), "the stale close must not return the current lease");
+        assertThrows(SQLException.class, first::createStatement);
+        second.close();
+    }
+
+    @Test
+    public void shouldRollBackAndResetAutoCommitOnRelease() throws SQLException {
+        pool = newPool(1, 60_000, 600_000, 1_000, 0);
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.executeUpdate("INSERT INTO item (name) VALUES ('uncommitted')");
+        }
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM item")) {
+            assertTrue(connection.getAutoCommit());
+            resultSet.next();
+            assertEquals(0, resultSet.getInt(1), "the open transaction is rolled back on release");
+        }
+    }
+
+    @Test
+    public void shouldTimeOutWhenThePoolIsExhausted() throws SQLException {
+        pool = newPool(1, 60_000, 600_000, 100, 0);
+
+        try (Connection leased = pool.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+            assertEquals(1, pool.getStats().getTimeouts());
+        }
+        pool.getConnection().close();
+    }
+
+    @Test
+    public void shouldEvictIdleConnections() throws Exception {
+        pool = newPool(2, 200, 600_000, 1_000, 0);
+
+        pool.getConnection().close();
+        assertEquals(1, pool.getStats().getTotal());
+
+        // The housekeeper runs at least once per second
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.getStats().getTotal() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, pool.getStats().getTotal());
+        assertEquals(1, pool.getStats().getDestroyed());
+    }
+
+    @Test
+    public void shouldRetireConnectionsPastTheirLifetime() throws Exception {
+        pool = newPool(1, 60_000, 100, 1_000, 0);
+
+        Connection connection = pool.getConnection();
+        Thread.sleep(150);
+        connection.close();
+
+        assertEquals(0, pool.getStats().getIdle(), "an expired connection is closed instead of returned");
+        assertEquals(1, pool.getStats().getDestroyed());
+        pool.getConnection().close();
+        assertEquals(2, pool.getStats().getCreated());
+    }
+
+    @Test
+    public void shouldReuseCachedStatementsThroughNewHandles() throws SQLException {
+        pool = newPool(1, 60_000, 600_000, 1_000, 4);
+
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement first = connection.prepareStatement("SELECT COUNT(*) FROM item");
+            first.close();
+            PreparedStatement second = connection.prepareStatement("SELECT COUNT(*) FROM item");
+
+            assertEquals(1, pool.getStats().getStatementCacheHits());
+            assertTrue(first.isClosed());
+            assertFalse(second.isClosed());
+            first.close();
+            assertThrows(SQLException.class, first::executeQuery, "a stale handle cannot use the statement");
+            try (ResultSet resultSet = second.executeQuery()) {
+                assertTrue(resultSet.next());
+            }
+            second.close();
+        }
+    }
+
+    @Test
+    public void shouldCloseEvictedStatementsWhenTheyAreReleased() throws Exception {
+        pool = newPool(1, 60_000, 600_000, 1_000, 1);
+
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement inUse = connection.prepareStatement("SELECT COUNT(*) FROM item");
+            // Same SQL with other generated-keys flags replaces the entry that is still in use
+            connection.prepareStatement("SELECT COUNT(*) FROM item", Statement.RETURN_GENERATED_KEYS).close();
+
+            PreparedStatement physical = physicalOf(inUse);
+            assertFalse(physical.isClosed());
+            inUse.close();
+            assertTrue(physical.isClosed(), "the evicted statement is closed when its user releases it");
+
+            PreparedStatement lru = connection.prepareStatement("SELECT name FROM item");
+            PreparedStatement lruPhysical = physicalOf(lru);
+            lru.close();
+            connection.prepareStatement("SELECT id FROM item").close();
+            assertTrue(lruPhysical.isClosed(), "the least recently used statement is closed when the cache is full");
+        }
+    }
+
+    /**
+     * Returns the driver's statement behind a cached statement handle.
+     */
+    private static PreparedStatement physicalOf(PreparedStatement handle) throws Exception {
+        Object invocationHandler = Proxy.getInvocationHandler(handle);
+        Field cachedField = invocationHandler.getClass().getDeclaredField("cached");
+        cachedField.setAccessible(true);
+        Object cached = cachedField.get(invocationHandler);
+        Field physicalField = cached.getClass().getDeclaredField("physical");
+        physicalField.setAccessible(true);
+        return (PreparedStatement) physicalField.get(cached);
+    }
+}
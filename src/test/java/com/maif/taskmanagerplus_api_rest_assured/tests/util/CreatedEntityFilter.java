@@ -0,0 +1,55 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.net.URI;
+
+import com.maif.taskmanagerplus_api_rest_assured.tests.base.ApiPaths;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * CreatedEntityFilter is a RestAssured filter that registers every task, province and user created
+ * through the API with CleanupRegistry: a POST to /tasks, /provinces or /usserrs that returns 201
+ * has its "id" registered for deletion. Tests therefore don't need to extract the ID or delete the
+ * entity themselves.
+ *
+ * BaseTest installs it for every test class.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-07
+ */
+public class CreatedEntityFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if ("POST".equals(requestSpec.getMethod()) && response.statusCode() == 201) {
+            String path = URI.create(requestSpec.getURI()).getPath();
+            if (path.endsWith(ApiPaths.TASKS)) {
+                CleanupRegistry.registerTask(idOf(response));
+            } else if (path.endsWith(ApiPaths.PROVINCES)) {
+                CleanupRegistry.registerProvince(idOf(response));
+            } else if (path.endsWith(ApiPaths.USERS)) {
+                CleanupRegistry.registerUser(idOf(response));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Reads the "id" of the created entity. The body stays available to the test afterwards.
+     *
+     * @return The ID, or -1 if the body has none.
+     */
+    private static int idOf(Response response) {
+        try {
+            Object id = response.path("id");
+            return id instanceof Number ? ((Number) id).intValue() : -1;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
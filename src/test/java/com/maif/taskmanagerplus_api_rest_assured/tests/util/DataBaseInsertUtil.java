@@ -2,19 +2,32 @@ package com.maif.taskmanagerplus_api_rest_assured.tests.util;
 
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
 
 /**
  * Utility class for performing database operations related to tasks.
  * This class provides methods to insert and delete tasks from the database.
+ * Connections are borrowed from the shared ConnectionPool instead of being opened per call.
+ * Inserted rows are not deleted automatically: callers delete them, or tests register them with
+ * CleanupRegistry, e.g. CleanupRegistry.registerTask(insertTask(...)).
  * 
  * Author: Maicon Fang
  * Date: 2024-06-19
@@ -22,10 +35,24 @@ import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
 
 public class DataBaseInsertUtil {
 
-    private static final String dbUrl = ConfigLoader.getDbUrl();
-    private static final String username = ConfigLoader.getUsername();
-    private static final String password = ConfigLoader.getPassword();
-    private static final String driverClassName = ConfigLoader.getDriverClassName();
+    private static final ConnectionPool pool = ConnectionPool.shared();
+
+    // Number of rows sent in one multi-row INSERT by the bulk methods
+    private static final int bulkRowsPerStatement = ConfigLoader.getBulkRowsPerStatement();
+
+    // Column sets of the bulk methods, shared with LoadDataSeeder
+    static final String[] TASK_COLUMNS = { "title", "description", "due_date", "completed" };
+    static final String[] PROVINCE_COLUMNS = { "name", "abbreviation" };
+    static final String[] USER_COLUMNS = { "name", "email", "password", "dt_create", "dt_update" };
+
+    /**
+     * Returns a snapshot of the statistics of the connection pool used by this class.
+     *
+     * @return The current pool statistics.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
 
     /**
      * Inserts a new task into the 'task' table and returns the ID of the inserted task.
@@ -33,11 +60,8 @@ public class DataBaseInsertUtil {
     public static int insertTask(String title, String description, LocalDate dueDate, boolean completed) {
         int generatedId = -1;
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
             	
                 // Convert LocalDate to java.sql.Date
                 Date sqlDueDate = Date.valueOf(dueDate);
@@ -51,7 +75,7 @@ public class DataBaseInsertUtil {
 
 //                System.out.println("Inserted new task with ID: " + generatedId);
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
         return generatedId;
@@ -66,11 +90,8 @@ public class DataBaseInsertUtil {
      */
     public static boolean deleteTask(int taskId) {
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
                 // Create the SQL statement for deletion
                 String sql = "DELETE FROM task WHERE id = ?";
 
@@ -86,7 +107,7 @@ public class DataBaseInsertUtil {
                     return rowsDeleted > 0;
                 }
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
 
@@ -101,11 +122,8 @@ public class DataBaseInsertUtil {
     public static int insertProvince(String name, String abbreviation) {
         int generatedId = -1;
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
                 // Call insertEntity with the new fields
                 generatedId = insertEntity(connection, "province",
                         "name", name,
@@ -114,7 +132,7 @@ public class DataBaseInsertUtil {
                 // Print a message if needed
                 // System.out.println("Inserted new province with ID: " + generatedId);
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
         return generatedId;
@@ -129,11 +147,8 @@ public class DataBaseInsertUtil {
      */
     public static boolean deleteProvince(int provinceId) {
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
                 // Create the SQL statement for deletion
                 String sql = "DELETE FROM province WHERE id = ?";
 
@@ -149,7 +164,7 @@ public class DataBaseInsertUtil {
                     return rowsDeleted > 0;
                 }
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
 
@@ -165,11 +180,8 @@ public class DataBaseInsertUtil {
      */
     public static boolean deleteUser(int userId) {
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
                 // Create the SQL statement for deletion
                 String sql = "DELETE FROM usserr WHERE id = ?";
 
@@ -185,7 +197,7 @@ public class DataBaseInsertUtil {
                     return rowsDeleted > 0;
                 }
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
 
@@ -199,11 +211,8 @@ public class DataBaseInsertUtil {
     public static int insertUser(String userName, String userEmail, String userPassword, Timestamp dtCreate, Timestamp dtUpdate) {
         int generatedId = -1;
         try {
-            // Register the JDBC driver
-            Class.forName(driverClassName);
-
-            // Establish the connection to the database
-            try (Connection connection = DriverManager.getConnection(dbUrl, username, password)) {
+            // Borrow a connection from the pool
+            try (Connection connection = pool.getConnection()) {
                 // Call insertEntity with the new fields
                 generatedId = insertEntity(connection, "usserr",
                         "name", userName,
@@ -215,60 +224,350 @@ public class DataBaseInsertUtil {
                 // Print a message if needed
                 // System.out.println("Inserted new usserr with ID: " + generatedId);
             }
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
         return generatedId;
     }
 
     /**
-     * Inserts a new entity into the specified table with the given columns and values.
-     * Returns the generated ID of the inserted entity.
+     * Inserts all given tasks into the 'task' table in one transaction, using multi-row INSERT statements.
+     * The ID and dueDate fields of the DTOs are read as-is; a null completed flag is stored as false.
+     *
+     * @param tasks The tasks to insert.
+     * @return The generated IDs, in the same order as the given tasks, or an empty list if the insert
+     *         failed or a due date could not be parsed.
      */
-    private static int insertEntity(Connection connection, String tableName, Object... columnsAndValues) throws SQLException {
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("INSERT INTO ").append(tableName).append(" (");
+    public static List<Integer> insertTasks(List<TaskDTO> tasks) {
+        List<Object[]> rows = new ArrayList<>(tasks.size());
+        try {
+            for (TaskDTO task : tasks) {
+                rows.add(new Object[] {
+                        task.getTitle(),
+                        task.getDescription(),
+                        toTimestamp(task.getDueDate()),
+                        Boolean.TRUE.equals(task.getCompleted()) });
+            }
+        } catch (DateTimeParseException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+        return insertAll("task", TASK_COLUMNS, rows);
+    }
 
-        for (int i = 0; i < columnsAndValues.length; i += 2) {
-            if (i > 0) {
-                sqlBuilder.append(", ");
+    /**
+     * Inserts all given provinces into the 'province' table in one transaction, using multi-row INSERT statements.
+     *
+     * @param provinces The provinces to insert.
+     * @return The generated IDs, in the same order as the given provinces, or an empty list if the insert failed.
+     */
+    public static List<Integer> insertProvinces(List<ProvinceDTO> provinces) {
+        List<Object[]> rows = new ArrayList<>(provinces.size());
+        for (ProvinceDTO province : provinces) {
+            rows.add(new Object[] { province.getName(), province.getAbbreviation() });
+        }
+        return insertAll("province", PROVINCE_COLUMNS, rows);
+    }
+
+    /**
+     * Inserts all given users into the 'usserr' table in one transaction, using multi-row INSERT statements.
+     *
+     * @param users    The users to insert. The password must already be a bcrypt hash.
+     * @param dtCreate The creation timestamp stored for every user.
+     * @param dtUpdate The update timestamp stored for every user.
+     * @return The generated IDs, in the same order as the given users, or an empty list if the insert failed.
+     */
+    public static List<Integer> insertUsers(List<UserDTO> users, Timestamp dtCreate, Timestamp dtUpdate) {
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (UserDTO user : users) {
+            rows.add(new Object[] { user.getName(), user.getEmail(), user.getPassword(), dtCreate, dtUpdate });
+        }
+        return insertAll("usserr", USER_COLUMNS, rows);
+    }
+
+    /**
+     * Deletes the tasks with the given IDs from the 'task' table.
+     *
+     * @param taskIds The IDs of the tasks to delete.
+     * @return The number of deleted rows, or -1 if the deletion failed.
+     */
+    public static int deleteTasks(List<Integer> taskIds) {
+        return deleteAll("task", taskIds);
+    }
+
+    /**
+     * Deletes the provinces with the given IDs from the 'province' table.
+     *
+     * @param provinceIds The IDs of the provinces to delete.
+     * @return The number of deleted rows, or -1 if the deletion failed.
+     */
+    public static int deleteProvinces(List<Integer> provinceIds) {
+        return deleteAll("province", provinceIds);
+    }
+
+    /**
+     * Deletes the users with the given IDs from the 'usserr' table.
+     *
+     * @param userIds The IDs of the users to delete.
+     * @return The number of deleted rows, or -1 if the deletion failed.
+     */
+    public static int deleteUsers(List<Integer> userIds) {
+        return deleteAll("usserr", userIds);
+    }
+
+    /**
+     * Reads the IDs of all rows of a table ('task', 'province' or 'usserr').
+     * The IDs are returned as a BitSet, which holds a million IDs in about 125 KB, so a whole
+     * table can be compared with the rows returned by the API.
+     *
+     * @param tableName The table to read.
+     * @return The IDs of all rows, or null if the query failed.
+     */
+    public static BitSet selectIds(String tableName) {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id FROM " + tableName)) {
+            BitSet ids = new BitSet();
+            while (resultSet.next()) {
+                ids.set(resultSet.getInt(1));
             }
-            sqlBuilder.append(columnsAndValues[i]);
+            return ids;
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
+        return null;
+    }
 
-        sqlBuilder.append(") VALUES (");
+    /**
+     * Counts the rows of a table ('task', 'province' or 'usserr').
+     *
+     * @param tableName The table to count.
+     * @return The number of rows, or -1 if the query failed.
+     */
+    public static long countRows(String tableName) {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
 
-        for (int i = 0; i < columnsAndValues.length; i += 2) {
-            if (i > 0) {
-                sqlBuilder.append(", ");
+    /**
+     * Reads the tasks with the given IDs from the 'task' table, e.g. to check what concurrent
+     * updates left behind. The due date is returned as an ISO-8601 local date-time.
+     *
+     * @param taskIds The IDs of the tasks to read.
+     * @return The tasks found, by ID (missing IDs are absent), or null if the query failed.
+     */
+    public static Map<Integer, TaskDTO> selectTasks(List<Integer> taskIds) {
+        Map<Integer, TaskDTO> tasks = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return tasks;
+        }
+        String sql = "SELECT id, title, description, due_date, completed FROM task WHERE id IN ("
+                + placeholders(taskIds.size()) + ")";
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < taskIds.size(); i++) {
+                statement.setInt(i + 1, taskIds.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Timestamp dueDate = resultSet.getTimestamp("due_date");
+                    TaskDTO task = TaskDTO.createTask(resultSet.getInt("id"), resultSet.getString("title"),
+                            resultSet.getString("description"), dueDate == null ? null : dueDate.toLocalDateTime().toString(),
+                            resultSet.getBoolean("completed"));
+                    tasks.put(task.getId(), task);
+                }
+            }
+            return tasks;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Runs insertEntities inside a single transaction on a pooled connection.
+     * The transaction is rolled back if any chunk fails, so either all rows are inserted or none.
+     */
+    private static List<Integer> insertAll(String tableName, String[] columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Integer> generatedIds = insertEntities(connection, tableName, columns, rows);
+                connection.commit();
+                return generatedIds;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Deletes rows by ID with chunked "DELETE ... WHERE id IN (...)" statements in a single transaction.
+     */
+    private static int deleteAll(String tableName, List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int rowsDeleted = 0;
+                for (int from = 0; from < ids.size(); from += bulkRowsPerStatement) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + bulkRowsPerStatement, ids.size()));
+                    String sql = "DELETE FROM " + tableName + " WHERE id IN (" + placeholders(chunk.size()) + ")";
+
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            statement.setInt(i + 1, chunk.get(i));
+                        }
+                        rowsDeleted += statement.executeUpdate();
+                    }
+                }
+                connection.commit();
+                return rowsDeleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            sqlBuilder.append("?");
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
+        return -1;
+    }
 
-        sqlBuilder.append(")");
+    /**
+     * Inserts the given rows into the specified table using multi-row INSERT statements of at most
+     * bulkRowsPerStatement rows each. Returns the generated IDs in the order of the rows.
+     *
+     * MySQL assigns consecutive auto-increment values to the rows of a single multi-row INSERT,
+     * and the driver returns them in insertion order.
+     */
+    private static List<Integer> insertEntities(Connection connection, String tableName, String[] columns, List<Object[]> rows) throws SQLException {
+        List<Integer> generatedIds = new ArrayList<>(rows.size());
+        String fullChunkSql = null;
+
+        for (int from = 0; from < rows.size(); from += bulkRowsPerStatement) {
+            int chunkSize = Math.min(bulkRowsPerStatement, rows.size() - from);
+
+            // Every chunk but the last has the same size, so its SQL is built only once
+            String sql;
+            if (chunkSize == bulkRowsPerStatement) {
+                if (fullChunkSql == null) {
+                    fullChunkSql = buildMultiRowInsert(tableName, columns, chunkSize);
+                }
+                sql = fullChunkSql;
+            } else {
+                sql = buildMultiRowInsert(tableName, columns, chunkSize);
+            }
 
-        try (PreparedStatement statement = connection.prepareStatement(sqlBuilder.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int parameterIndex = 1;
+                for (int row = from; row < from + chunkSize; row++) {
+                    for (Object value : rows.get(row)) {
+                        InsertTemplate.bindAny(statement, parameterIndex++, value);
+                    }
+                }
 
-            for (int i = 0; i < columnsAndValues.length; i += 2) {
-//                String columnName = (String) columnsAndValues[i];
-                Object value = columnsAndValues[i + 1];
+                statement.executeUpdate();
 
-                if (value instanceof String) {
-                    statement.setString(i / 2 + 1, (String) value);
-                } else if (value instanceof Timestamp) {
-                    statement.setTimestamp(i / 2 + 1, (Timestamp) value);
-                } else if (value instanceof Boolean) {
-                    statement.setBoolean(i / 2 + 1, (Boolean) value);
-                } else if (value instanceof Date) {
-                    statement.setTimestamp(i / 2 + 1, new Timestamp(((Date) value).getTime()));
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        generatedIds.add(generatedKeys.getInt(1));
+                    }
                 }
             }
 
+            if (generatedIds.size() != from + chunkSize) {
+                throw new SQLException("Expected " + (from + chunkSize) + " generated keys for table "
+                        + tableName + " but got " + generatedIds.size());
+            }
+        }
+
+        return generatedIds;
+    }
+
+    /**
+     * Builds "INSERT INTO table (c1, c2) VALUES (?, ?), (?, ?), ..." for the given number of rows.
+     */
+    private static String buildMultiRowInsert(String tableName, String[] columns, int rowCount) {
+        String rowPlaceholders = "(" + placeholders(columns.length) + ")";
+        StringBuilder sqlBuilder = new StringBuilder(32 + rowCount * (rowPlaceholders.length() + 2));
+        sqlBuilder.append("INSERT INTO ").append(tableName).append(" (").append(String.join(", ", columns)).append(") VALUES ");
+
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append(rowPlaceholders);
+        }
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * Returns "?, ?, ..." with the given number of placeholders.
+     */
+    private static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Converts a TaskDTO due date to a Timestamp. Accepts "yyyy-MM-dd" and ISO-8601 date-times with
+     * or without an offset, e.g. "2024-06-30T00:00:00" as produced by selectTasks.
+     * The wall-clock date and time are kept, matching how insertTask stores LocalDate values.
+     *
+     * @throws DateTimeParseException If the due date has none of these formats.
+     */
+    static Timestamp toTimestamp(String dueDate) {
+        if (dueDate == null) {
+            return null;
+        }
+        if (dueDate.length() == 10) {
+            return Timestamp.valueOf(LocalDate.parse(dueDate).atStartOfDay());
+        }
+        // ISO_DATE_TIME takes an optional offset; LocalDateTime.from drops it
+        return Timestamp.valueOf(LocalDateTime.from(DateTimeFormatter.ISO_DATE_TIME.parse(dueDate)));
+    }
+
+    /**
+     * Inserts a new entity into the specified table with the given columns and values.
+     * Returns the generated ID of the inserted entity.
+     * The SQL and the parameter binders come from the cached InsertTemplate of the table and
+     * columns, and the shared pool hands out its cached PreparedStatement for the SQL, so repeated
+     * inserts of the same kind neither build SQL nor re-prepare the statement.
+     * Package-private so the JMH benchmarks (src/jmh/java) can measure it with a stub connection.
+     */
+    static int insertEntity(Connection connection, String tableName, Object... columnsAndValues) throws SQLException {
+        InsertTemplate template = InsertTemplate.of(tableName, columnsAndValues);
+
+        try (PreparedStatement statement = connection.prepareStatement(template.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+            template.bind(statement, columnsAndValues);
+
             int rowsInserted = statement.executeUpdate();
             if (rowsInserted > 0) {
-                ResultSet generatedKeys = statement.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        return generatedKeys.getInt(1);
+                    }
                 }
             }
         }
@@ -0,0 +1,75 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+/**
+ * EmbeddedDatabase creates the schema of the embedded in-memory database (db.mode=embedded).
+ *
+ * The database is H2 in MySQL mode, so the fixture SQL of DataBaseInsertUtil (multi-row INSERTs,
+ * generated keys, DELETE ... IN) runs unchanged. It lives as long as the JVM, which makes fixture
+ * and bulk-seeding benchmarks start instantly and repeatable without an external MySQL server.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-02
+ */
+public class EmbeddedDatabase {
+
+    /**
+     * Runs the schema script configured in db.embedded.schema on a connection from the pool.
+     * The script is loaded from the classpath, so it does not depend on the working directory.
+     *
+     * @param pool The pool of the embedded database.
+     * @throws IllegalStateException If the script cannot be read or a statement fails.
+     */
+    public static void createSchema(ConnectionPool pool) {
+        String schemaPath = ConfigLoader.getEmbeddedSchemaPath();
+        List<String> statements;
+        try (InputStream input = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(schemaPath)) {
+            if (input == null) {
+                throw new IllegalStateException("Embedded database schema not found on the classpath: " + schemaPath);
+            }
+            statements = splitStatements(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the embedded database schema " + schemaPath, e);
+        }
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create the embedded database schema from " + schemaPath, e);
+        }
+    }
+
+    /**
+     * Splits a script into statements on ';', dropping "--" comment lines.
+     */
+    static List<String> splitStatements(String script) {
+        StringBuilder withoutComments = new StringBuilder(script.length());
+        for (String line : script.split("\r?\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.toString().split(";")) {
+            if (!statement.trim().isEmpty()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+}
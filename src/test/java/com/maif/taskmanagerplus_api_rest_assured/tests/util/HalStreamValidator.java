@@ -0,0 +1,361 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.restassured.response.Response;
+import lombok.Getter;
+
+/**
+ * HalStreamValidator checks the items of a HAL list response (e.g. _embedded.tasks) while the
+ * body is being read, one item at a time, with Jackson's streaming parser.
+ *
+ * RestAssured's JsonPath builds a tree of the whole document before the first check runs, which
+ * for a noPagination response with 100k rows costs hundreds of MB of heap. Here only the current
+ * item is held in memory (plus the keys of expectUnique, if used).
+ *
+ * Supported checks:
+ * - expectEvery: a predicate every item must satisfy
+ * - expectCount / expectMinCount: the number of items
+ * - expectUnique: no two items share a key (e.g. the ID)
+ * - expectSorted: items are in ascending order of a key
+ * - expectNoField: a top-level field (e.g. "page") is absent
+ *
+ * forEachItem passes every item to a consumer as it is read (e.g. to collect IDs), and the
+ * result carries the page metadata of paged responses.
+ *
+ * Every failure is counted; the first maxFailures are kept with the offending item as JSON.
+ *
+ * Only check the status code with then(): any body(...) matcher makes RestAssured read and parse
+ * the whole document before the validator sees it.
+ *
+ * Example:
+ * ```
+ * HalStreamValidator.forItems("tasks", TaskDTO.class)
+ *     .expectEvery("title is " + title, task -> title.equals(task.getTitle()))
+ *     .expectUnique("id", TaskDTO::getId)
+ *     .expectSorted("id", TaskDTO::getId)
+ *     .validate(response)
+ *     .assertValid();
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-03
+ */
+public class HalStreamValidator<T> {
+
+    private final String embeddedKey;
+    private final ObjectReader reader;
+
+    private final List<String> itemCheckNames = new ArrayList<>();
+    private final List<Predicate<? super T>> itemChecks = new ArrayList<>();
+    private final List<String> uniqueNames = new ArrayList<>();
+    private final List<Function<? super T, ?>> uniqueKeys = new ArrayList<>();
+    private final List<String> sortNames = new ArrayList<>();
+    private final List<Function<? super T, ? extends Comparable<?>>> sortKeys = new ArrayList<>();
+    private final Set<String> absentFields = new LinkedHashSet<>();
+    private final List<Consumer<? super T>> itemConsumers = new ArrayList<>();
+    private Long expectedCount;
+    private long minCount;
+    private int maxFailures = 10;
+
+    private HalStreamValidator(String embeddedKey, Class<T> type) {
+        this.embeddedKey = embeddedKey;
+        this.reader = JsonUtil.readerFor(type);
+    }
+
+    /**
+     * Creates a validator for the items under _embedded.&lt;embeddedKey&gt;, read as the given type
+     * (unknown properties such as _links are ignored).
+     *
+     * @param embeddedKey The key of the list inside _embedded, e.g. "tasks" or "provinces".
+     * @param type        The type each item is read into, e.g. TaskDTO.class.
+     * @return A validator without checks.
+     */
+    public static <T> HalStreamValidator<T> forItems(String embeddedKey, Class<T> type) {
+        return new HalStreamValidator<>(embeddedKey, type);
+    }
+
+    /**
+     * Requires every item to satisfy the predicate.
+     *
+     * @param description Describes the check in failure messages.
+     * @param predicate   The condition each item must meet.
+     * @return This validator.
+     */
+    public HalStreamValidator<T> expectEvery(String description, Predicate<? super T> predicate) {
+        itemCheckNames.add(description);
+        itemChecks.add(predicate);
+        return this;
+    }
+
+    /**
+     * Requires exactly the given number of items.
+     */
+    public HalStreamValidator<T> expectCount(long count) {
+        this.expectedCount = count;
+        return this;
+    }
+
+    /**
+     * Requires at least the given number of items.
+     */
+    public HalStreamValidator<T> expectMinCount(long count) {
+        this.minCount = count;
+        return this;
+    }
+
+    /**
+     * Requires the key to be different for every item. The keys seen so far are kept in memory.
+     *
+     * @param description Names the key in failure messages, e.g. "id".
+     * @param key         Extracts the key from an item.
+     * @return This validator.
+     */
+    public HalStreamValidator<T> expectUnique(String description, Function<? super T, ?> key) {
+        uniqueNames.add(description);
+        uniqueKeys.add(key);
+        return this;
+    }
+
+    /**
+     * Requires the items to be in ascending order of the key (equal keys are allowed).
+     *
+     * @param description Names the key in failure messages, e.g. "id".
+     * @param key         Extracts the key from an item.
+     * @return This validator.
+     */
+    public <K extends Comparable<? super K>> HalStreamValidator<T> expectSorted(String description, Function<? super T, K> key) {
+        sortNames.add(description);
+        sortKeys.add(key);
+        return this;
+    }
+
+    /**
+     * Requires the top-level field to be absent, e.g. "page" for noPagination responses.
+     */
+    public HalStreamValidator<T> expectNoField(String fieldName) {
+        absentFields.add(fieldName);
+        return this;
+    }
+
+    /**
+     * Passes every item to the consumer after the checks ran on it.
+     */
+    public HalStreamValidator<T> forEachItem(Consumer<? super T> consumer) {
+        itemConsumers.add(consumer);
+        return this;
+    }
+
+    /**
+     * Sets how many failure messages are kept (all failures are still counted). Default 10.
+     */
+    public HalStreamValidator<T> maxFailures(int maxFailures) {
+        this.maxFailures = maxFailures;
+        return this;
+    }
+
+    /**
+     * Validates the body of a RestAssured response, reading it as a stream.
+     *
+     * @param response The response to validate.
+     * @return The result of the checks.
+     */
+    public Result validate(Response response) {
+        try (InputStream body = response.asInputStream()) {
+            return validate(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the response body", e);
+        }
+    }
+
+    /**
+     * Validates a HAL document read from the stream. The stream is read to the end of the
+     * document but not closed.
+     *
+     * @param body The JSON document.
+     * @return The result of the checks.
+     * @throws UncheckedIOException If the stream cannot be read or is not valid JSON.
+     */
+    public Result validate(InputStream body) {
+        Run run = new Run();
+        try (JsonParser parser = reader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                run.fail(-1, "the response is not a JSON object", null);
+                return run.toResult();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (absentFields.contains(field)) {
+                    run.fail(-1, "field '" + field + "' should be absent", null);
+                }
+                if ("_embedded".equals(field) && value == JsonToken.START_OBJECT) {
+                    readEmbedded(parser, run);
+                } else if ("page".equals(field) && value == JsonToken.START_OBJECT) {
+                    run.page = JsonUtil.readerFor(Map.class).readValue(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse the HAL response", e);
+        }
+        return run.finish();
+    }
+
+    private void readEmbedded(JsonParser parser, Run run) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (embeddedKey.equals(key) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    T item = reader.readValue(parser);
+                    run.check(item);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * The state of one validation: counters, unique keys and the previous sort keys.
+     */
+    private final class Run {
+        private final List<Set<Object>> seenKeys = new ArrayList<>();
+        private final Object[] previousSortKeys = new Object[sortKeys.size()];
+        private final List<String> failures = new ArrayList<>();
+        private long failureCount;
+        private long count;
+        private Map<String, Object> page;
+
+        private Run() {
+            for (int i = 0; i < uniqueKeys.size(); i++) {
+                seenKeys.add(new HashSet<>());
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private void check(T item) {
+            long index = count++;
+            for (int i = 0; i < itemChecks.size(); i++) {
+                if (!itemChecks.get(i).test(item)) {
+                    fail(index, itemCheckNames.get(i), item);
+                }
+            }
+            for (int i = 0; i < uniqueKeys.size(); i++) {
+                if (!seenKeys.get(i).add(uniqueKeys.get(i).apply(item))) {
+                    fail(index, "duplicate " + uniqueNames.get(i), item);
+                }
+            }
+            for (int i = 0; i < sortKeys.size(); i++) {
+                Comparable current = sortKeys.get(i).apply(item);
+                Object previous = previousSortKeys[i];
+                if (previous != null && current != null && current.compareTo(previous) < 0) {
+                    fail(index, "not sorted by " + sortNames.get(i) + " (previous " + previous + ")", item);
+                }
+                previousSortKeys[i] = current;
+            }
+            for (Consumer<? super T> consumer : itemConsumers) {
+                consumer.accept(item);
+            }
+        }
+
+        private void fail(long index, String message, T item) {
+            failureCount++;
+            if (failures.size() < maxFailures) {
+                failures.add((index >= 0 ? "item " + index + ": " : "") + message
+                        + (item != null ? " -> " + JsonUtil.toJson(item) : ""));
+            }
+        }
+
+        private Result finish() {
+            if (expectedCount != null && count != expectedCount) {
+                fail(-1, "expected " + expectedCount + " items but got " + count, null);
+            }
+            if (count < minCount) {
+                fail(-1, "expected at least " + minCount + " items but got " + count, null);
+            }
+            return toResult();
+        }
+
+        private Result toResult() {
+            return new Result(embeddedKey, count, failureCount, Collections.unmodifiableList(failures), page);
+        }
+    }
+
+    /**
+     * The outcome of a validation: the number of items read, the failures found and, for paged
+     * responses, the page metadata (size, totalElements, totalPages, number).
+     */
+    @Getter
+    public static final class Result {
+        private final String embeddedKey;
+        private final long count;
+        private final long failureCount;
+        private final List<String> failures;
+        // null when the response has no "page" object
+        private final Map<String, Object> page;
+
+        private Result(String embeddedKey, long count, long failureCount, List<String> failures, Map<String, Object> page) {
+            this.embeddedKey = embeddedKey;
+            this.count = count;
+            this.failureCount = failureCount;
+            this.failures = failures;
+            this.page = page;
+        }
+
+        /**
+         * Returns a numeric field of the page metadata, e.g. "totalElements".
+         *
+         * @param name The field name.
+         * @return The value, or -1 if the response has no page metadata or no such field.
+         */
+        public long getPageValue(String name) {
+            Object value = page != null ? page.get(name) : null;
+            return value instanceof Number ? ((Number) value).longValue() : -1;
+        }
+
+        public boolean isValid() {
+            return failureCount == 0;
+        }
+
+        /**
+         * Fails the calling test with the first failures if any check did not pass.
+         *
+         * @return This result, for further assertions.
+         * @throws AssertionError If there was at least one failure.
+         */
+        public Result assertValid() {
+            if (!isValid()) {
+                StringBuilder message = new StringBuilder()
+                        .append(failureCount).append(" failure(s) in ").append(count)
+                        .append(" _embedded.").append(embeddedKey).append(" items:");
+                for (String failure : failures) {
+                    message.append("\n  ").append(failure);
+                }
+                if (failureCount > failures.size()) {
+                    message.append("\n  ...");
+                }
+                throw new AssertionError(message.toString());
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.Getter;
+
+/**
+ * HttpConnectionPool keeps the HTTP connections of all RestAssured requests open and reuses them.
+ *
+ * By default RestAssured creates a new Apache HttpClient with its own single-connection manager for
+ * every request, so every request opens a TCP connection and leaves a socket in TIME_WAIT behind.
+ * Once installed, every request still gets its own lightweight client (RestAssured changes client
+ * parameters per request, so sharing one client between threads is not safe), but all of them lease
+ * connections from one shared pooling connection manager.
+ *
+ * A connection only goes back to the pool once the response body has been read to the end, and many
+ * requests never read it (e.g. .then().statusCode(204)). So install() also adds a filter that reads
+ * every body right after the response arrives. Bodies larger than http.pool.buffer-limit-bytes are
+ * passed on as a stream after the first bytes, so HalStreamValidator can still stream large lists;
+ * their connection is released when the stream is read to the end or closed.
+ *
+ * Settings (application-test.properties, overridable with -Dkey=value):
+ * - http.pool.enabled: install the pool at all (false keeps RestAssured's default behaviour)
+ * - http.pool.max-total: connections open at most, over all routes
+ * - http.pool.max-per-route: connections open at most to one host and port
+ * - http.pool.keep-alive-ms: how long an idle connection is kept if the server sends no Keep-Alive timeout;
+ *   keep it below the server's keep-alive timeout (Tomcat: 20 s), since connections are not checked before reuse
+ * - http.pool.idle-timeout-ms: idle connections are closed after this time by a background thread
+ * - http.pool.buffer-limit-bytes: bodies up to this size are read into memory to release the connection
+ *
+ * getStats() returns the leased, pending and available connections. BaseTest, TaskLoadDriver and
+ * PaginationCrawler install the shared pool; the pool is shut down when the JVM exits.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-09
+ */
+public class HttpConnectionPool {
+
+    // RestAssured 5 still builds on HttpClient 4's deprecated AbstractHttpClient API
+    @SuppressWarnings("deprecation")
+    private final PoolingClientConnectionManager connectionManager;
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private final ScheduledExecutorService evictor;
+    private final AtomicLong clientsCreated = new AtomicLong();
+    private final AtomicBoolean installed = new AtomicBoolean();
+    private final int bufferLimitBytes;
+
+    /**
+     * Creates a pool with the given limits.
+     *
+     * @param maxTotal         The maximum number of open connections.
+     * @param maxPerRoute      The maximum number of open connections to one host and port.
+     * @param keepAliveMs      How long a connection is kept alive when the server does not say.
+     * @param idleTimeoutMs    How long a connection may stay idle before it is closed.
+     * @param bufferLimitBytes The largest response body that is read into memory.
+     */
+    @SuppressWarnings("deprecation")
+    public HttpConnectionPool(int maxTotal, int maxPerRoute, long keepAliveMs, long idleTimeoutMs, int bufferLimitBytes) {
+        this.bufferLimitBytes = bufferLimitBytes;
+        this.connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        this.keepAliveStrategy = (response, context) -> {
+            // Honour a shorter "Keep-Alive: timeout=n" of the server
+            HeaderElementIterator elements = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (elements.hasNext()) {
+                HeaderElement element = elements.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(keepAliveMs, Long.parseLong(element.getValue()) * 1000);
+                    } catch (NumberFormatException e) {
+                        // Use the configured keep-alive
+                    }
+                }
+            }
+            return keepAliveMs;
+        };
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared pool configured from application-test.properties.
+     * The pool is created on first use and shut down by a shutdown hook when the JVM exits.
+     *
+     * @return The shared HttpConnectionPool.
+     */
+    public static HttpConnectionPool shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Makes RestAssured use the shared pool for every request from now on, unless
+     * http.pool.enabled is false. Calling it again has no effect.
+     */
+    public static void installShared() {
+        if (Boolean.parseBoolean(ConfigLoader.getProperty("http.pool.enabled"))) {
+            shared().install();
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final HttpConnectionPool INSTANCE = createShared();
+
+        private static HttpConnectionPool createShared() {
+            HttpConnectionPool pool = new HttpConnectionPool(
+                    ConfigLoader.getIntProperty("http.pool.max-total", 200),
+                    ConfigLoader.getIntProperty("http.pool.max-per-route", 100),
+                    ConfigLoader.getLongProperty("http.pool.keep-alive-ms", 15_000L),
+                    ConfigLoader.getLongProperty("http.pool.idle-timeout-ms", 15_000L),
+                    ConfigLoader.getIntProperty("http.pool.buffer-limit-bytes", 1024 * 1024));
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "http-connection-pool-shutdown"));
+            return pool;
+        }
+    }
+
+    /**
+     * Sets RestAssured's global HttpClientConfig to create clients backed by this pool and adds the
+     * filter that reads response bodies. Other parts of the global configuration are kept.
+     */
+    public void install() {
+        if (installed.compareAndSet(false, true)) {
+            RestAssured.config = RestAssured.config().httpClient(HttpClientConfig.httpClientConfig()
+                    .dontReuseHttpClientInstance()
+                    .httpClientFactory(this::createClient));
+            RestAssured.filters(new ReleaseConnectionFilter(bufferLimitBytes));
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private DefaultHttpClient createClient() {
+        clientsCreated.incrementAndGet();
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        client.setKeepAliveStrategy(keepAliveStrategy);
+        // The stale check blocks every reuse on a 1 ms read; connections are dropped after
+        // keep-alive-ms instead, which is below the server's own keep-alive timeout
+        HttpConnectionParams.setStaleCheckingEnabled(client.getParams(), false);
+        return client;
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return The current pool statistics.
+     */
+    public Stats getStats() {
+        PoolStats total = connectionManager.getTotalStats();
+        return new Stats(total.getMax(), connectionManager.getDefaultMaxPerRoute(), total.getLeased(),
+                total.getPending(), total.getAvailable(), clientsCreated.get());
+    }
+
+    /**
+     * Stops the idle eviction and closes all connections.
+     */
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Reads the response body so its connection goes back to the pool. Runs after all other filters
+     * (closest to the HTTP call), so they all see the buffered body.
+     */
+    private static final class ReleaseConnectionFilter implements OrderedFilter {
+
+        private final int bufferLimitBytes;
+
+        ReleaseConnectionFilter(int bufferLimitBytes) {
+            this.bufferLimitBytes = bufferLimitBytes;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                FilterContext ctx) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            InputStream body = response.asInputStream();
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            try {
+                int read;
+                while (head.size() < bufferLimitBytes && (read = body.read(buffer)) != -1) {
+                    head.write(buffer, 0, read);
+                }
+                if (head.size() < bufferLimitBytes) {
+                    // Read to the end, which released the connection
+                    body.close();
+                    return new ResponseBuilder().clone(response).setBody(head.toByteArray()).build();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the response body", e);
+            }
+            // Too large to buffer: the caller reads the rest, closing the stream releases the connection
+            return new ResponseBuilder().clone(response)
+                    .setBody(new SequenceInputStream(new ByteArrayInputStream(head.toByteArray()), body)).build();
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the pool counters: connections leased by running requests, requests
+     * waiting for a connection and idle connections ready for reuse.
+     */
+    @Getter
+    public static final class Stats {
+        private final int maxTotal;
+        private final int maxPerRoute;
+        private final int leased;
+        private final int pending;
+        private final int available;
+        private final long requests;
+
+        Stats(int maxTotal, int maxPerRoute, int leased, int pending, int available, long requests) {
+            this.maxTotal = maxTotal;
+            this.maxPerRoute = maxPerRoute;
+            this.leased = leased;
+            this.pending = pending;
+            this.available = available;
+            this.requests = requests;
+        }
+
+        @Override
+        public String toString() {
+            return "maxTotal=" + maxTotal + ", maxPerRoute=" + maxPerRoute + ", leased=" + leased
+                    + ", pending=" + pending + ", available=" + available + ", requests=" + requests;
+        }
+    }
+}
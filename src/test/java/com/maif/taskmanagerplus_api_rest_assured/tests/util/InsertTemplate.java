@@ -0,0 +1,176 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InsertTemplate is the compiled form of a single-row INSERT used by DataBaseInsertUtil.insertEntity:
+ * the SQL text and one typed binder per column.
+ *
+ * Templates are cached per table and column signature (the column names in order), so after the
+ * first insert of a kind no SQL is built and no per-parameter type dispatch chain runs. Looking up
+ * a template compares the column names with the cached ones and allocates nothing.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-08
+ */
+final class InsertTemplate {
+
+    // Templates of each table; a table rarely has more than one column signature
+    private static final ConcurrentHashMap<String, InsertTemplate[]> templates = new ConcurrentHashMap<>();
+
+    private final String[] columns;
+    private final Binder[] binders;
+    private final String sql;
+
+    private InsertTemplate(String tableName, Object[] columnsAndValues) {
+        int columnCount = columnsAndValues.length / 2;
+        this.columns = new String[columnCount];
+        this.binders = new Binder[columnCount];
+        StringBuilder names = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = (String) columnsAndValues[2 * i];
+            binders[i] = Binder.forValue(columnsAndValues[2 * i + 1]);
+            names.append(i > 0 ? ", " : "").append(columns[i]);
+            placeholders.append(i > 0 ? ", " : "").append('?');
+        }
+        this.sql = "INSERT INTO " + tableName + " (" + names + ") VALUES (" + placeholders + ")";
+    }
+
+    /**
+     * Returns the cached template for the table and the column names of columnsAndValues,
+     * compiling it on first use. The binders are chosen from the types of these first values.
+     *
+     * @param tableName        The table to insert into.
+     * @param columnsAndValues Alternating column names and values.
+     * @return The template.
+     */
+    static InsertTemplate of(String tableName, Object[] columnsAndValues) {
+        InsertTemplate[] cached = templates.get(tableName);
+        if (cached != null) {
+            for (InsertTemplate template : cached) {
+                if (template.matches(columnsAndValues)) {
+                    return template;
+                }
+            }
+        }
+
+        InsertTemplate compiled = new InsertTemplate(tableName, columnsAndValues);
+        templates.merge(tableName, new InsertTemplate[] { compiled }, (existing, added) -> {
+            InsertTemplate[] merged = new InsertTemplate[existing.length + 1];
+            System.arraycopy(existing, 0, merged, 0, existing.length);
+            merged[existing.length] = added[0];
+            return merged;
+        });
+        return compiled;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Binds the values of columnsAndValues to the statement. A value whose type differs from the
+     * one the template was compiled with (e.g. null) is bound with bindAny.
+     */
+    void bind(PreparedStatement statement, Object[] columnsAndValues) throws SQLException {
+        for (int i = 0; i < binders.length; i++) {
+            Object value = columnsAndValues[2 * i + 1];
+            Binder binder = binders[i];
+            if (value != null && value.getClass() == binder.type) {
+                binder.bind(statement, i + 1, value);
+            } else {
+                bindAny(statement, i + 1, value);
+            }
+        }
+    }
+
+    private boolean matches(Object[] columnsAndValues) {
+        if (columnsAndValues.length != columns.length * 2) {
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].equals(columnsAndValues[2 * i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Binds a single value to the statement, using the setter that matches its type.
+     * java.sql.Date values are stored as timestamps; values of other types are not bound.
+     */
+    static void bindAny(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.NULL);
+        } else if (value instanceof String) {
+            statement.setString(parameterIndex, (String) value);
+        } else if (value instanceof Timestamp) {
+            statement.setTimestamp(parameterIndex, (Timestamp) value);
+        } else if (value instanceof Boolean) {
+            statement.setBoolean(parameterIndex, (Boolean) value);
+        } else if (value instanceof Date) {
+            statement.setTimestamp(parameterIndex, new Timestamp(((Date) value).getTime()));
+        }
+    }
+
+    /**
+     * The setter for one column, chosen once from the type of its value.
+     */
+    private enum Binder {
+        STRING(String.class) {
+            @Override
+            void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+                statement.setString(parameterIndex, (String) value);
+            }
+        },
+        TIMESTAMP(Timestamp.class) {
+            @Override
+            void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+                statement.setTimestamp(parameterIndex, (Timestamp) value);
+            }
+        },
+        BOOLEAN(Boolean.class) {
+            @Override
+            void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+                statement.setBoolean(parameterIndex, (Boolean) value);
+            }
+        },
+        DATE(Date.class) {
+            @Override
+            void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+                statement.setTimestamp(parameterIndex, new Timestamp(((Date) value).getTime()));
+            }
+        },
+        // Nulls and other types; never matches a value's class, so bindAny handles them
+        ANY(Void.class) {
+            @Override
+            void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+                bindAny(statement, parameterIndex, value);
+            }
+        };
+
+        private final Class<?> type;
+
+        Binder(Class<?> type) {
+            this.type = type;
+        }
+
+        abstract void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException;
+
+        static Binder forValue(Object value) {
+            for (Binder binder : values()) {
+                if (value != null && value.getClass() == binder.type) {
+                    return binder;
+                }
+            }
+            return ANY;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * JsonUtil provides shared, thread-safe JSON serialization for request and response bodies.
+ *
+ * Building an ObjectMapper is expensive, so a single mapper is configured once and never changed
+ * afterwards. For every DTO type an ObjectWriter and an ObjectReader are created on first use and
+ * cached; both are immutable and safe to share between threads.
+ *
+ * Readers ignore unknown properties, so HAL responses (with _links and similar fields) can be read
+ * straight into the DTOs.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-06-28
+ */
+public final class JsonUtil {
+
+    // Streams passed in by callers are left open
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+
+    private static final ConcurrentHashMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private JsonUtil() {
+    }
+
+    /**
+     * Returns the cached writer for the given type.
+     *
+     * @param type The type of the objects to write.
+     * @return The shared ObjectWriter.
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    /**
+     * Returns the cached reader for the given type.
+     *
+     * @param type The type of the objects to read.
+     * @return The shared ObjectReader.
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Serializes an object to a JSON string.
+     *
+     * @param object The object to serialize.
+     * @return The JSON string.
+     * @throws RuntimeException If there is a failure during JSON processing.
+     */
+    public static String toJson(Object object) {
+        try {
+            return writerFor(object.getClass()).writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert object to JSON", e);
+        }
+    }
+
+    /**
+     * Serializes an object to UTF-8 encoded JSON bytes, without an intermediate String.
+     *
+     * @param object The object to serialize.
+     * @return The JSON bytes.
+     * @throws RuntimeException If there is a failure during JSON processing.
+     */
+    public static byte[] toJsonBytes(Object object) {
+        try {
+            return writerFor(object.getClass()).writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert object to JSON", e);
+        }
+    }
+
+    /**
+     * Serializes an object as UTF-8 encoded JSON directly to a stream. The stream is not closed.
+     *
+     * @param object The object to serialize.
+     * @param out    The stream to write to.
+     * @throws UncheckedIOException If writing fails.
+     */
+    public static void writeJson(Object object, OutputStream out) {
+        try {
+            writerFor(object.getClass()).writeValue(out, object);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write object as JSON", e);
+        }
+    }
+
+    /**
+     * Reads a JSON string into an object of the given type.
+     *
+     * @param json The JSON string.
+     * @param type The type to read.
+     * @return The deserialized object.
+     * @throws RuntimeException If the JSON cannot be read into the type.
+     */
+    public static <T> T fromJson(String json, Class<T> type) {
+        try {
+            return readerFor(type).readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert JSON to " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON bytes into an object of the given type.
+     *
+     * @param json The JSON bytes.
+     * @param type The type to read.
+     * @return The deserialized object.
+     * @throws UncheckedIOException If the JSON cannot be read into the type.
+     */
+    public static <T> T fromJson(byte[] json, Class<T> type) {
+        try {
+            return readerFor(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to convert JSON to " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Reads JSON from a stream into an object of the given type. The stream is not closed.
+     *
+     * @param in   The stream to read.
+     * @param type The type to read.
+     * @return The deserialized object.
+     * @throws UncheckedIOException If the JSON cannot be read into the type.
+     */
+    public static <T> T fromJson(InputStream in, Class<T> type) {
+        try {
+            return readerFor(type).readValue(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to convert JSON to " + type.getSimpleName(), e);
+        }
+    }
+}
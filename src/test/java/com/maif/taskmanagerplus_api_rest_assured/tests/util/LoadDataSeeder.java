@@ -0,0 +1,412 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import lombok.Getter;
+
+/**
+ * LoadDataSeeder bulk-loads tasks, provinces and users into MySQL with LOAD DATA LOCAL INFILE,
+ * which parses rows on the server in one pass instead of binding and executing INSERT statements.
+ *
+ * The rows are never written to a file: the DTOs are encoded on the fly into tab-separated lines
+ * by an InputStream the driver sends to the server as the "file" (JdbcStatement.setLocalInfileInputStream).
+ * Only one buffer of encoded rows is in memory at a time, so a lazy stream (e.g. from
+ * SyntheticDataGenerator) of millions of rows is loaded without collecting it first.
+ *
+ * - Columns are the ones of the bulk insert methods of DataBaseInsertUtil.
+ * - Text is sent as UTF-8. Backslashes, tabs, line breaks and NUL characters are escaped, and
+ *   null values are sent as \N, so titles and descriptions arrive unchanged.
+ * - Every db.load-data.rows-per-statement rows a new LOAD DATA statement starts; each one commits
+ *   on its own, so a failure keeps the statements loaded before it.
+ * - A row that cannot be encoded (e.g. a task with an invalid due date) ends the load with an
+ *   IllegalStateException; the rows before it stay loaded.
+ * - The result reports rows, bytes, rows/sec, rows the server skipped and the number of warnings
+ *   it raised (e.g. for truncated values), plus the ID range of the loaded rows. With LOCAL the
+ *   server skips rows with a duplicate key instead of failing.
+ *
+ * Loading uses its own connection with allowLoadLocalInfile=true, so the pooled connections keep
+ * the driver's safe default. The server must allow it too (SET GLOBAL local_infile = 1). There is
+ * no LOAD DATA with db.mode=embedded; use the bulk insert methods there.
+ *
+ * Example:
+ * ```
+ * LoadDataSeeder.Result result = LoadDataSeeder.loadTasks(SyntheticDataGenerator.fromConfig().tasks(0, 1_000_000));
+ * System.out.println(result);
+ * LoadDataSeeder.deleteLoaded(result);
+ * ```
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-13
+ */
+public final class LoadDataSeeder {
+
+    private static final byte[] NULL_FIELD = { '\\', 'N' };
+
+    private LoadDataSeeder() {
+    }
+
+    /**
+     * Loads the tasks into the 'task' table. A null completed flag is stored as false, like insertTasks.
+     *
+     * @param tasks The tasks, consumed in order; their IDs are ignored.
+     * @return The rows loaded and the throughput.
+     * @throws IllegalStateException If the load fails.
+     */
+    public static Result loadTasks(Stream<TaskDTO> tasks) {
+        return load("task", DataBaseInsertUtil.TASK_COLUMNS, tasks.iterator(), (task, row) -> {
+            row.text(task.getTitle());
+            row.text(task.getDescription());
+            String dueDate = task.getDueDate();
+            // "yyyy-MM-dd" as is, ISO date-times in the wall-clock form insertTasks stores
+            if (dueDate != null && dueDate.length() != 10) {
+                try {
+                    dueDate = DataBaseInsertUtil.toTimestamp(dueDate).toString();
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid due date of task '" + task.getTitle() + "': " + dueDate, e);
+                }
+            }
+            row.text(dueDate);
+            row.flag(Boolean.TRUE.equals(task.getCompleted()));
+        });
+    }
+
+    /**
+     * Loads the provinces into the 'province' table.
+     *
+     * @param provinces The provinces, consumed in order; their IDs are ignored.
+     * @return The rows loaded and the throughput.
+     * @throws IllegalStateException If the load fails.
+     */
+    public static Result loadProvinces(Stream<ProvinceDTO> provinces) {
+        return load("province", DataBaseInsertUtil.PROVINCE_COLUMNS, provinces.iterator(), (province, row) -> {
+            row.text(province.getName());
+            row.text(province.getAbbreviation());
+        });
+    }
+
+    /**
+     * Loads the users into the 'usserr' table.
+     *
+     * @param users    The users, consumed in order; the password must already be a bcrypt hash.
+     * @param dtCreate The creation timestamp stored for every user.
+     * @param dtUpdate The update timestamp stored for every user (may be null).
+     * @return The rows loaded and the throughput; users with an email that already exists are skipped.
+     * @throws IllegalStateException If the load fails.
+     */
+    public static Result loadUsers(Stream<UserDTO> users, Timestamp dtCreate, Timestamp dtUpdate) {
+        String created = dtCreate == null ? null : dtCreate.toString();
+        String updated = dtUpdate == null ? null : dtUpdate.toString();
+        return load("usserr", DataBaseInsertUtil.USER_COLUMNS, users.iterator(), (user, row) -> {
+            row.text(user.getName());
+            row.text(user.getEmail());
+            row.text(user.getPassword());
+            row.text(created);
+            row.text(updated);
+        });
+    }
+
+    /**
+     * Deletes the rows of a load (IDs firstId..lastId) in one statement.
+     *
+     * @param result The result of a load.
+     * @return The number of deleted rows.
+     * @throws IllegalStateException If the delete fails.
+     */
+    public static int deleteLoaded(Result result) {
+        if (result.getRows() == 0) {
+            return 0;
+        }
+        try (Connection connection = ConnectionPool.shared().getConnection();
+             Statement statement = connection.createStatement()) {
+            return statement.executeUpdate("DELETE FROM " + result.getTable()
+                    + " WHERE id BETWEEN " + result.getFirstId() + " AND " + result.getLastId());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not delete the rows loaded into " + result.getTable(), e);
+        }
+    }
+
+    private static <T> Result load(String table, String[] columns, Iterator<? extends T> items, RowEncoder<T> encoder) {
+        if (ConfigLoader.isEmbeddedDatabase()) {
+            throw new IllegalStateException("LOAD DATA needs MySQL (db.mode=mysql); use the DataBaseInsertUtil bulk methods with db.mode=embedded");
+        }
+        long rowsPerStatement = ConfigLoader.getLongProperty("db.load-data.rows-per-statement", 500_000);
+        String sql = "LOAD DATA LOCAL INFILE 'generated-rows' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'"
+                + " (" + String.join(", ", columns) + ")";
+
+        long start = System.nanoTime();
+        long rows = 0;
+        long sent = 0;
+        long bytes = 0;
+        long warnings = 0;
+        try (Connection connection = openConnection();
+             Statement statement = connection.createStatement()) {
+            long previousMaxId = maxId(statement, table);
+            JdbcStatement mysqlStatement = statement.unwrap(JdbcStatement.class);
+            while (items.hasNext()) {
+                RowStream<T> stream = new RowStream<>(items, encoder, rowsPerStatement);
+                mysqlStatement.setLocalInfileInputStream(stream);
+                rows += statement.executeLargeUpdate(sql);
+                sent += stream.getRowCount();
+                bytes += stream.getByteCount();
+                warnings += warningCount(statement);
+                if (stream.getFailure() != null) {
+                    throw new IllegalStateException("LOAD DATA into " + table + " stopped after " + rows
+                            + " rows (IDs from " + (previousMaxId + 1) + " are loaded): "
+                            + stream.getFailure().getMessage(), stream.getFailure());
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long lastId = rows == 0 ? previousMaxId : maxId(statement, table);
+            return new Result(table, rows, sent - rows, bytes, warnings, elapsedNanos, previousMaxId + 1, lastId);
+        } catch (SQLException e) {
+            throw new IllegalStateException("LOAD DATA into " + table + " failed after " + rows + " rows"
+                    + " (the server needs local_infile=ON): " + e.getMessage(), e);
+        }
+    }
+
+    private static Connection openConnection() throws SQLException {
+        try {
+            Class.forName(ConfigLoader.getDriverClassName());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("JDBC driver not found: " + ConfigLoader.getDriverClassName(), e);
+        }
+        Properties properties = new Properties();
+        properties.setProperty("user", ConfigLoader.getUsername());
+        properties.setProperty("password", ConfigLoader.getPassword());
+        properties.setProperty("allowLoadLocalInfile", "true");
+        return DriverManager.getConnection(ConfigLoader.getDbUrl(), properties);
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long warningCount(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SHOW COUNT(*) WARNINGS")) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Writes the fields of one item to a row.
+     */
+    @FunctionalInterface
+    interface RowEncoder<T> {
+        void encode(T item, RowStream<T> row);
+    }
+
+    /**
+     * Streams items as LOAD DATA rows: fields separated by tabs, rows ended by '\n', text in UTF-8
+     * with '\' as escape character. Rows are encoded into a reused buffer when the reader needs
+     * more bytes, at most maxRows of them.
+     */
+    static final class RowStream<T> extends InputStream {
+
+        // Rows are encoded until at least this many bytes are buffered
+        private static final int FILL_TARGET = 16 * 1024;
+
+        private final Iterator<? extends T> items;
+        private final RowEncoder<T> encoder;
+        private final long maxRows;
+
+        private byte[] buffer = new byte[FILL_TARGET + 1024];
+        private int position;
+        private int limit;
+        private boolean firstField = true;
+
+        @Getter
+        private long rowCount;
+        @Getter
+        private long byteCount;
+        // Thrown by the encoder; the stream ends before the row that failed
+        @Getter
+        private RuntimeException failure;
+
+        RowStream(Iterator<? extends T> items, RowEncoder<T> encoder, long maxRows) {
+            this.items = items;
+            this.encoder = encoder;
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? buffer[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int copied = 0;
+            while (copied < length && fill()) {
+                int count = Math.min(length - copied, limit - position);
+                System.arraycopy(buffer, position, target, offset + copied, count);
+                position += count;
+                copied += count;
+            }
+            return copied == 0 ? -1 : copied;
+        }
+
+        /**
+         * Appends a text field; null is sent as \N.
+         */
+        void text(String value) {
+            separate();
+            if (value == null) {
+                put(NULL_FIELD, 0, NULL_FIELD.length);
+                return;
+            }
+            // Escapes take at most 2 bytes and a character at most 3 (4 for a surrogate pair)
+            ensureCapacity(value.length() * 3);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    switch (c) {
+                        case '\\': buffer[limit++] = '\\'; buffer[limit++] = '\\'; break;
+                        case '\t': buffer[limit++] = '\\'; buffer[limit++] = 't'; break;
+                        case '\n': buffer[limit++] = '\\'; buffer[limit++] = 'n'; break;
+                        case '\r': buffer[limit++] = '\\'; buffer[limit++] = 'r'; break;
+                        case '\0': buffer[limit++] = '\\'; buffer[limit++] = '0'; break;
+                        default: buffer[limit++] = (byte) c;
+                    }
+                } else if (c < 0x800) {
+                    buffer[limit++] = (byte) (0xC0 | c >> 6);
+                    buffer[limit++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[limit++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[limit++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[limit++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[limit++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // An unpaired surrogate is not valid UTF-16; send '?' like String.getBytes does
+                    buffer[limit++] = '?';
+                } else {
+                    buffer[limit++] = (byte) (0xE0 | c >> 12);
+                    buffer[limit++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[limit++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        /**
+         * Appends a boolean field as 1 or 0.
+         */
+        void flag(boolean value) {
+            separate();
+            ensureCapacity(1);
+            buffer[limit++] = (byte) (value ? '1' : '0');
+        }
+
+        /**
+         * Makes sure unread bytes are buffered, encoding further rows if needed.
+         *
+         * @return false at the end of the stream.
+         */
+        private boolean fill() {
+            if (position < limit) {
+                return true;
+            }
+            position = 0;
+            limit = 0;
+            while (failure == null && limit < FILL_TARGET && rowCount < maxRows && items.hasNext()) {
+                int rowStart = limit;
+                try {
+                    encoder.encode(items.next(), this);
+                } catch (RuntimeException e) {
+                    // Drop the partial row and end the stream, so the driver finishes the statement normally
+                    failure = e;
+                    limit = rowStart;
+                    break;
+                }
+                ensureCapacity(1);
+                buffer[limit++] = '\n';
+                firstField = true;
+                rowCount++;
+            }
+            byteCount += limit;
+            return limit > 0;
+        }
+
+        private void separate() {
+            if (!firstField) {
+                ensureCapacity(1);
+                buffer[limit++] = '\t';
+            }
+            firstField = false;
+        }
+
+        private void put(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, limit, length);
+            limit += length;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (limit + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + additional));
+            }
+        }
+    }
+
+    /**
+     * Outcome of a load.
+     */
+    @Getter
+    public static final class Result {
+        private final String table;
+        private final long rows;
+        // Rows the server skipped, e.g. duplicate emails (LOCAL implies IGNORE); each one is also a warning
+        private final long skipped;
+        private final long bytes;
+        private final long warnings;
+        private final long elapsedNanos;
+        // IDs of the loaded rows, assuming nobody else inserted into the table at the same time
+        private final long firstId;
+        private final long lastId;
+
+        Result(String table, long rows, long skipped, long bytes, long warnings, long elapsedNanos, long firstId, long lastId) {
+            this.table = table;
+            this.rows = rows;
+            this.skipped = skipped;
+            this.bytes = bytes;
+            this.warnings = warnings;
+            this.elapsedNanos = elapsedNanos;
+            this.firstId = firstId;
+            this.lastId = lastId;
+        }
+
+        public double getRowsPerSecond() {
+            return rows / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows into %s in %.1f s (%,.0f rows/s, %.1f MB sent, %d skipped, %d warnings, IDs %d..%d)",
+                    rows, table, elapsedNanos / 1_000_000_000.0, getRowsPerSecond(), bytes / 1_048_576.0,
+                    skipped, warnings, firstId, lastId);
+        }
+    }
+}
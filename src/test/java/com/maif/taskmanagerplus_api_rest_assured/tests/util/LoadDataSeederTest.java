@@ -0,0 +1,130 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the row encoding of LoadDataSeeder (RowStream). They read the stream directly,
+ * so they need no database.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-18
+ */
+public class LoadDataSeederTest {
+
+    @Test
+    public void shouldSeparateFieldsByTabsAndRowsByNewlines() {
+        LoadDataSeeder.RowStream<String[]> stream = new LoadDataSeeder.RowStream<>(
+                Arrays.asList(new String[] { "a", "b" }, new String[] { "c", null }).iterator(),
+                (fields, row) -> {
+                    for (String field : fields) {
+                        row.text(field);
+                    }
+                }, Long.MAX_VALUE);
+
+        assertEquals("a\tb\nc\t\\N\n", readAll(stream));
+        assertEquals(2, stream.getRowCount());
+    }
+
+    @Test
+    public void shouldEscapeSpecialCharacters() {
+        assertEquals("back\\\\slash\n", encode("back\\slash"));
+        assertEquals("tab\\there\n", encode("tab\there"));
+        assertEquals("line\\nbreak\n", encode("line\nbreak"));
+        assertEquals("carriage\\rreturn\n", encode("carriage\rreturn"));
+        assertEquals("nul\\0char\n", encode("nul\0char"));
+        assertEquals("\\N\n", encode(null));
+        assertEquals("\n", encode(""));
+    }
+
+    @Test
+    public void shouldEncodeTextAsUtf8() {
+        // 2-byte, 3-byte and 4-byte (surrogate pair) characters
+        String text = "ação € 日本 \uD83D\uDE00 end";
+        assertArrayEquals((text + "\n").getBytes(StandardCharsets.UTF_8), encodeBytes(text));
+    }
+
+    @Test
+    public void shouldReplaceUnpairedSurrogates() {
+        assertEquals("a?b?\n", encode("a\uD83Db\uDE00"));
+        assertEquals("end?\n", encode("end\uD83D"));
+    }
+
+    @Test
+    public void shouldGrowTheBufferForLongValues() {
+        char[] chars = new char[50_000];
+        Arrays.fill(chars, '€');
+        String text = new String(chars);
+        assertArrayEquals((text + "\n").getBytes(StandardCharsets.UTF_8), encodeBytes(text));
+    }
+
+    @Test
+    public void shouldStopAfterMaxRows() {
+        Iterator<String> items = List.of("1", "2", "3").iterator();
+        LoadDataSeeder.RowStream<String> first = new LoadDataSeeder.RowStream<>(items, (item, row) -> row.text(item), 2);
+        LoadDataSeeder.RowStream<String> second = new LoadDataSeeder.RowStream<>(items, (item, row) -> row.text(item), 2);
+
+        assertEquals("1\n2\n", readAll(first));
+        assertEquals("3\n", readAll(second));
+        assertEquals(4, first.getByteCount());
+    }
+
+    @Test
+    public void shouldEndTheStreamBeforeARowThatCannotBeEncoded() {
+        IllegalArgumentException invalid = new IllegalArgumentException("invalid");
+        LoadDataSeeder.RowStream<String> stream = new LoadDataSeeder.RowStream<>(List.of("ok", "bad", "never").iterator(),
+                (item, row) -> {
+                    row.text(item);
+                    if (item.equals("bad")) {
+                        throw invalid;
+                    }
+                }, Long.MAX_VALUE);
+
+        assertEquals("ok\n", readAll(stream));
+        assertEquals(1, stream.getRowCount());
+        assertSame(invalid, stream.getFailure());
+    }
+
+    @Test
+    public void shouldReportNoFailureForValidRows() {
+        LoadDataSeeder.RowStream<String> stream = new LoadDataSeeder.RowStream<>(List.of("ok").iterator(),
+                (item, row) -> row.text(item), Long.MAX_VALUE);
+        readAll(stream);
+        assertNull(stream.getFailure());
+    }
+
+    private static String encode(String value) {
+        return new String(encodeBytes(value), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeBytes(String value) {
+        LoadDataSeeder.RowStream<String> stream = new LoadDataSeeder.RowStream<>(
+                Arrays.asList(value).iterator(), (item, row) -> row.text(item), Long.MAX_VALUE);
+        return readBytes(stream);
+    }
+
+    private static String readAll(LoadDataSeeder.RowStream<?> stream) {
+        return new String(readBytes(stream), StandardCharsets.UTF_8);
+    }
+
+    // Small reads, so rows are split across read calls
+    private static byte[] readBytes(LoadDataSeeder.RowStream<?> stream) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[7];
+        int count;
+        while ((count = stream.read(chunk, 0, chunk.length)) != -1) {
+            out.write(chunk, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
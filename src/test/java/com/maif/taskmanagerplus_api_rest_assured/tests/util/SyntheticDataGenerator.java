@@ -0,0 +1,404 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+import com.maif.taskmanagerplus_api_rest_assured.model.ProvinceDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.TaskDTO;
+import com.maif.taskmanagerplus_api_rest_assured.model.UserDTO;
+
+/**
+ * SyntheticDataGenerator produces realistic, reproducible tasks, provinces and users for seeding
+ * and load data, e.g. "Review quarterly vendor contract" due 2024-03-14.
+ *
+ * Record n of a type is computed from the seed and n alone: every field is one hash of
+ * (seed, n, field), with no shared random generator. So the same seed always gives the same
+ * records, any record can be generated on its own (task(n)), and the streams can be split over
+ * threads with .parallel() without changing a single value. Texts are assembled from fixed word
+ * tables in a per-thread StringBuilder and due dates come from a precomputed table, so a record
+ * costs the DTO and its strings and nothing else.
+ *
+ * Distributions (uniform within the given ranges):
+ * - task title and description length in words, cut to the column lengths (150 and 255)
+ * - task due date: firstDueDate plus 0 to dueDateSpreadDays days
+ * - task completed: completedPercent of the tasks
+ * - province name and abbreviation: drawn from provinceNames distinct names and
+ *   provinceAbbreviations distinct abbreviations (2 to 6 letters)
+ * - user emails are unique per index; names repeat
+ *
+ * Usage:
+ * ```
+ * SyntheticDataGenerator generator = SyntheticDataGenerator.fromConfig();
+ * generator.tasks(0, 1_000_000).parallel().forEach(...);
+ * ```
+ *
+ * Instances are immutable and can be shared between threads.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-12
+ */
+public final class SyntheticDataGenerator {
+
+    // Column lengths of the API's schema
+    private static final int TITLE_MAX_LENGTH = 150;
+    private static final int DESCRIPTION_MAX_LENGTH = 255;
+    private static final int ABBREVIATION_MAX_LENGTH = 6;
+
+    private static final long MAX_ABBREVIATIONS = 308_915_776L; // 26^6
+    private static final int MAX_DUE_DATE_SPREAD_DAYS = 36_600;
+
+    // Password of generated users: sessions.password-hash, the bcrypt hash of auth.password
+    private static final String USER_PASSWORD = ConfigLoader.getProperty("sessions.password-hash");
+    private static final String USER_EMAIL_DOMAIN = "@seed.taskmanagerplus.com";
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Field numbers: every field of a record is an independent draw
+    private static final int TITLE_LENGTH = 0;
+    private static final int DESCRIPTION_LENGTH = 1;
+    private static final int DUE_DATE = 2;
+    private static final int COMPLETED = 3;
+    private static final int PROVINCE_NAME = 4;
+    private static final int PROVINCE_ABBREVIATION = 5;
+    private static final int FIRST_NAME = 6;
+    private static final int LAST_NAME = 7;
+    private static final int TITLE_WORDS = 64;
+    private static final int DESCRIPTION_WORDS = 128;
+
+    // Records of different types with the same index must not share their draws
+    private static final long TASK_STREAM = 1;
+    private static final long PROVINCE_STREAM = 2;
+    private static final long USER_STREAM = 3;
+
+    private static final String[] VERBS = {
+            "Review", "Prepare", "Update", "Schedule", "Send", "Check", "Plan", "Organize", "Fix", "Write",
+            "Call", "Book", "Clean", "Order", "Pay", "Renew", "Submit", "Draft", "Test", "Deploy",
+            "Archive", "Approve", "Cancel", "Confirm", "Design", "Document", "Follow up on", "Migrate",
+            "Print", "Publish", "Refactor", "Sign" };
+
+    private static final String[] ADJECTIVES = {
+            "quarterly", "monthly", "weekly", "annual", "urgent", "new", "pending", "shared", "final",
+            "internal", "customer", "team", "project", "budget", "marketing", "security", "travel",
+            "holiday", "insurance", "tax", "vendor", "release", "backup", "office" };
+
+    private static final String[] NOUNS = {
+            "report", "meeting", "invoice", "contract", "presentation", "roadmap", "proposal", "newsletter",
+            "dashboard", "checklist", "schedule", "order", "review", "agenda", "budget", "feedback",
+            "estimate", "receipt", "backlog", "migration", "documentation", "certificate", "survey",
+            "reservation", "license", "deployment", "inventory", "payroll", "website", "workshop" };
+
+    private static final String[] WORDS = {
+            "the", "a", "for", "with", "and", "before", "after", "from", "to", "of", "on", "by", "next",
+            "this", "all", "every", "open", "team", "client", "manager", "notes", "details", "items",
+            "numbers", "changes", "files", "data", "plan", "week", "month", "deadline", "version", "draft",
+            "request", "approval", "access", "account", "review", "summary", "status", "priority",
+            "questions", "comments", "results", "tickets", "tasks", "issues", "steps", "copies", "send",
+            "check", "confirm", "update", "include", "attach", "share", "collect", "compare", "finish" };
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "ra", "mi", "ten", "sa", "vor", "li", "da", "nu", "bel", "qua", "ri", "mon", "ta",
+            "ve", "sol", "ne", "go", "ar", "do", "pel", "si", "ma", "tor", "ze", "lun", "ba", "fi", "mar",
+            "ho", "ens" };
+
+    private static final String[] FIRST_NAMES = {
+            "Sophia", "Liam", "Olivia", "Noah", "Emma", "Lucas", "Ava", "Mateus", "Isabella", "Ethan",
+            "Mia", "Gabriel", "Amelia", "Leo", "Luna", "Hugo", "Chloe", "Rafael", "Alice", "Daniel",
+            "Laura", "Samuel", "Julia", "Arthur", "Clara", "Miguel", "Sara", "Pedro", "Helena", "Maicon",
+            "Nina", "Oscar" };
+
+    private static final String[] LAST_NAMES = {
+            "Jones", "Smith", "Silva", "Brown", "Santos", "Wilson", "Costa", "Taylor", "Moon", "Martin",
+            "Lee", "Oliveira", "Walker", "Souza", "Clark", "Pereira", "Young", "Lima", "King", "Fang",
+            "Wright", "Gomes", "Scott", "Ribeiro", "Green", "Almeida", "Baker", "Carvalho", "Adams",
+            "Rocha", "Hill", "Moreira" };
+
+    private static final String[] FIRST_NAMES_LOWER = toLowerCase(FIRST_NAMES);
+    private static final String[] LAST_NAMES_LOWER = toLowerCase(LAST_NAMES);
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(DESCRIPTION_MAX_LENGTH + 32));
+
+    private final long seed;
+    private final int titleMinWords;
+    private final int titleMaxWords;
+    private final int descriptionMinWords;
+    private final int descriptionMaxWords;
+    private final int completedPercent;
+    private final int provinceNames;
+    private final long provinceAbbreviations;
+    // ISO dates firstDueDate .. firstDueDate + dueDateSpreadDays, formatted once
+    private final String[] dueDates;
+
+    /**
+     * Creates a generator with the given distributions.
+     *
+     * @param seed                  The seed; equal seeds and settings give equal records.
+     * @param titleMinWords         The fewest words of a task title (at least 1).
+     * @param titleMaxWords         The most words of a task title.
+     * @param descriptionMinWords   The fewest words of a task description (0 gives empty descriptions).
+     * @param descriptionMaxWords   The most words of a task description.
+     * @param firstDueDate          The earliest due date.
+     * @param dueDateSpreadDays     The number of days after firstDueDate the due dates spread over.
+     * @param completedPercent      The share of completed tasks, 0 to 100.
+     * @param provinceNames         The number of distinct province names.
+     * @param provinceAbbreviations The number of distinct province abbreviations.
+     * @throws IllegalArgumentException If a setting is out of range.
+     */
+    public SyntheticDataGenerator(long seed, int titleMinWords, int titleMaxWords, int descriptionMinWords,
+            int descriptionMaxWords, LocalDate firstDueDate, int dueDateSpreadDays, int completedPercent,
+            int provinceNames, long provinceAbbreviations) {
+        checkRange("title words", titleMinWords, titleMaxWords, 1, DESCRIPTION_WORDS - TITLE_WORDS);
+        checkRange("description words", descriptionMinWords, descriptionMaxWords, 0, Integer.MAX_VALUE - DESCRIPTION_WORDS);
+        checkRange("due date spread days", 0, dueDateSpreadDays, 0, MAX_DUE_DATE_SPREAD_DAYS);
+        checkRange("completed percent", 0, completedPercent, 0, 100);
+        checkRange("province names", 1, provinceNames, 1, Integer.MAX_VALUE);
+        if (provinceAbbreviations < 1 || provinceAbbreviations > MAX_ABBREVIATIONS) {
+            throw new IllegalArgumentException("province abbreviations must be between 1 and " + MAX_ABBREVIATIONS
+                    + ", was " + provinceAbbreviations);
+        }
+        this.seed = seed;
+        this.titleMinWords = titleMinWords;
+        this.titleMaxWords = titleMaxWords;
+        this.descriptionMinWords = descriptionMinWords;
+        this.descriptionMaxWords = descriptionMaxWords;
+        this.completedPercent = completedPercent;
+        this.provinceNames = provinceNames;
+        this.provinceAbbreviations = provinceAbbreviations;
+        this.dueDates = new String[dueDateSpreadDays + 1];
+        for (int day = 0; day <= dueDateSpreadDays; day++) {
+            dueDates[day] = firstDueDate.plusDays(day).toString();
+        }
+    }
+
+    /**
+     * Creates a generator with default distributions: 2-6 title words, 4-24 description words, due
+     * dates over 2024, 30% completed, 1000 province names and 676 abbreviations.
+     *
+     * @param seed The seed.
+     */
+    public SyntheticDataGenerator(long seed) {
+        this(seed, 2, 6, 4, 24, LocalDate.of(2024, 1, 1), 365, 30, 1000, 676);
+    }
+
+    /**
+     * Creates a generator from the datagen.* settings.
+     *
+     * @return The generator.
+     */
+    public static SyntheticDataGenerator fromConfig() {
+        String firstDueDate = ConfigLoader.getProperty("datagen.task.first-due-date");
+        return new SyntheticDataGenerator(
+                ConfigLoader.getLongProperty("datagen.seed", 42),
+                ConfigLoader.getIntProperty("datagen.task.title-min-words", 2),
+                ConfigLoader.getIntProperty("datagen.task.title-max-words", 6),
+                ConfigLoader.getIntProperty("datagen.task.description-min-words", 4),
+                ConfigLoader.getIntProperty("datagen.task.description-max-words", 24),
+                firstDueDate == null || firstDueDate.trim().isEmpty() ? LocalDate.of(2024, 1, 1) : LocalDate.parse(firstDueDate.trim()),
+                ConfigLoader.getIntProperty("datagen.task.due-date-spread-days", 365),
+                ConfigLoader.getIntProperty("datagen.task.completed-percent", 30),
+                ConfigLoader.getIntProperty("datagen.province.names", 1000),
+                ConfigLoader.getLongProperty("datagen.province.abbreviations", 676));
+    }
+
+    /**
+     * Returns tasks from..from+count-1, generated lazily as the stream is consumed. Call .parallel()
+     * to spread the work over the common pool; the records stay the same.
+     *
+     * @param from  The index of the first task.
+     * @param count The number of tasks.
+     * @return The tasks, without IDs.
+     */
+    public Stream<TaskDTO> tasks(long from, long count) {
+        return LongStream.range(from, from + count).mapToObj(this::task);
+    }
+
+    /**
+     * Returns provinces from..from+count-1, generated lazily (see tasks).
+     *
+     * @param from  The index of the first province.
+     * @param count The number of provinces.
+     * @return The provinces, without IDs.
+     */
+    public Stream<ProvinceDTO> provinces(long from, long count) {
+        return LongStream.range(from, from + count).mapToObj(this::province);
+    }
+
+    /**
+     * Returns users from..from+count-1, generated lazily (see tasks).
+     *
+     * @param from  The index of the first user.
+     * @param count The number of users.
+     * @return The users, without IDs.
+     */
+    public Stream<UserDTO> users(long from, long count) {
+        return LongStream.range(from, from + count).mapToObj(this::user);
+    }
+
+    /**
+     * Generates task number index.
+     *
+     * @param index The index of the task.
+     * @return The task, without ID.
+     */
+    public TaskDTO task(long index) {
+        long record = recordKey(TASK_STREAM, index);
+        TaskDTO task = new TaskDTO();
+        task.setTitle(title(record));
+        task.setDescription(description(record));
+        task.setDueDate(dueDates[(int) below(draw(record, DUE_DATE), dueDates.length)]);
+        task.setCompleted(below(draw(record, COMPLETED), 100) < completedPercent);
+        return task;
+    }
+
+    /**
+     * Generates province number index.
+     *
+     * @param index The index of the province.
+     * @return The province, without ID.
+     */
+    public ProvinceDTO province(long index) {
+        long record = recordKey(PROVINCE_STREAM, index);
+        ProvinceDTO province = new ProvinceDTO();
+        province.setName(provinceName(below(draw(record, PROVINCE_NAME), provinceNames)));
+        province.setAbbreviation(abbreviation(below(draw(record, PROVINCE_ABBREVIATION), provinceAbbreviations)));
+        return province;
+    }
+
+    /**
+     * Generates user number index. The email contains the index, so it is unique per index.
+     *
+     * @param index The index of the user (0 or more).
+     * @return The user, without ID, with the bcrypt password hash sessions.password-hash.
+     */
+    public UserDTO user(long index) {
+        long record = recordKey(USER_STREAM, index);
+        int firstName = (int) below(draw(record, FIRST_NAME), FIRST_NAMES.length);
+        int lastName = (int) below(draw(record, LAST_NAME), LAST_NAMES.length);
+        UserDTO user = new UserDTO();
+        user.setName(buffer().append(FIRST_NAMES[firstName]).append(' ').append(LAST_NAMES[lastName]).toString());
+        user.setEmail(buffer().append(FIRST_NAMES_LOWER[firstName]).append('.').append(LAST_NAMES_LOWER[lastName])
+                .append('.').append(index).append(USER_EMAIL_DOMAIN).toString());
+        user.setPassword(USER_PASSWORD);
+        return user;
+    }
+
+    private String title(long record) {
+        int words = titleMinWords + (int) below(draw(record, TITLE_LENGTH), titleMaxWords - titleMinWords + 1);
+        StringBuilder title = buffer().append(pick(VERBS, record, TITLE_WORDS));
+        for (int i = 1; i < words; i++) {
+            // Adjectives in the middle, a noun at the end
+            String[] table = i == words - 1 ? NOUNS : ADJECTIVES;
+            if (!appendWord(title, pick(table, record, TITLE_WORDS + i), TITLE_MAX_LENGTH)) {
+                break;
+            }
+        }
+        return title.toString();
+    }
+
+    private String description(long record) {
+        int words = descriptionMinWords + (int) below(draw(record, DESCRIPTION_LENGTH), descriptionMaxWords - descriptionMinWords + 1);
+        StringBuilder description = buffer();
+        for (int i = 0; i < words; i++) {
+            String word = pick(WORDS, record, DESCRIPTION_WORDS + i);
+            if (i == 0) {
+                description.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else if (!appendWord(description, word, DESCRIPTION_MAX_LENGTH - 1)) {
+                break;
+            }
+        }
+        if (words > 0) {
+            description.append('.');
+        }
+        return description.toString();
+    }
+
+    /**
+     * Name number nameIndex: its digits in base 32 are syllables, so every index gives a distinct
+     * name (e.g. "Kaloten"), at most 21 characters long.
+     */
+    private static String provinceName(long nameIndex) {
+        StringBuilder name = buffer();
+        long rest = nameIndex;
+        // At least two syllables, so names do not look like abbreviations
+        for (int i = 0; i < 2 || rest > 0; i++) {
+            name.append(SYLLABLES[(int) (rest % SYLLABLES.length)]);
+            rest /= SYLLABLES.length;
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    /**
+     * Abbreviation number abbreviationIndex: its digits in base 26 as letters, at least two
+     * (AA, AB, ..., ZZ, BAA, ...).
+     */
+    private static String abbreviation(long abbreviationIndex) {
+        char[] letters = new char[ABBREVIATION_MAX_LENGTH];
+        int start = ABBREVIATION_MAX_LENGTH;
+        long rest = abbreviationIndex;
+        do {
+            letters[--start] = (char) ('A' + rest % 26);
+            rest /= 26;
+        } while (rest > 0 || start > ABBREVIATION_MAX_LENGTH - 2);
+        return new String(letters, start, ABBREVIATION_MAX_LENGTH - start);
+    }
+
+    private static boolean appendWord(StringBuilder text, String word, int maxLength) {
+        if (text.length() + 1 + word.length() > maxLength) {
+            return false;
+        }
+        text.append(' ').append(word);
+        return true;
+    }
+
+    private static String pick(String[] table, long record, int field) {
+        return table[(int) below(draw(record, field), table.length)];
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private long recordKey(long stream, long index) {
+        return mix(seed + stream * GOLDEN_GAMMA + mix(index));
+    }
+
+    private static long draw(long record, int field) {
+        return mix(record + (field + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Maps a random 64-bit value to 0..bound-1 (multiply-shift on the high bits, no division).
+     */
+    private static long below(long random, long bound) {
+        return Math.multiplyHigh(random >>> 1, bound << 1);
+    }
+
+    /**
+     * The SplitMix64 finalizer: a well-mixed 64-bit hash of z.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String[] toLowerCase(String[] words) {
+        String[] lower = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            lower[i] = words[i].toLowerCase(Locale.ROOT);
+        }
+        return lower;
+    }
+
+    private static void checkRange(String setting, int min, int max, int lowest, int highest) {
+        if (min < lowest || max < min || max > highest) {
+            throw new IllegalArgumentException(setting + " must be a range within " + lowest + ".." + highest
+                    + ", was " + min + ".." + max);
+        }
+    }
+}
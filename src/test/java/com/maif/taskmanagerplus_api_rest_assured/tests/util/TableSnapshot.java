@@ -0,0 +1,202 @@
+package com.maif.taskmanagerplus_api_rest_assured.tests.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.maif.taskmanagerplus_api_rest_assured.config.ConfigLoader;
+
+/**
+ * TableSnapshot records the rows that exist in a table ('task', 'province' or 'usserr') and puts
+ * them back later, so tests may change or delete fixture rows that were there before they ran.
+ *
+ * The snapshot is the highest ID plus a copy of all rows up to it. Restoring runs in one transaction:
+ * rows of the snapshot that were changed are updated back, and rows that were deleted are inserted
+ * again with their old ID. Only rows up to the snapshot's highest ID are touched.
+ *
+ * Rows created after the snapshot are not deleted here: they belong to whoever created them, and
+ * tests register theirs with CleanupRegistry, which deletes exactly those IDs. A "DELETE ... WHERE
+ * id > highest ID" would also delete the rows of other classes or of a load test running at the
+ * same time. TRUNCATE plus a reload of the copy would rewrite the whole table and fails on tables
+ * referenced by foreign keys (usserr). A rollback is not possible because the API commits in its
+ * own connections.
+ *
+ * Tables with more than db.snapshot.max-rows rows are not copied. A warning is printed, and changes
+ * to their existing rows are not undone; new rows are still deleted by CleanupRegistry.
+ *
+ * Author: Maicon Fang
+ * Date: 2024-07-06
+ */
+public class TableSnapshot {
+
+    private static final ConnectionPool pool = ConnectionPool.shared();
+
+    private final String tableName;
+    private final long highestId;
+    // null when the table was too large to copy
+    private final String[] columns;
+    private final Map<Long, Object[]> rows;
+
+    private TableSnapshot(String tableName, long highestId, String[] columns, Map<Long, Object[]> rows) {
+        this.tableName = tableName;
+        this.highestId = highestId;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Takes a snapshot of the table.
+     *
+     * @param tableName The table, which must have a numeric 'id' primary key.
+     * @return The snapshot.
+     * @throws IllegalStateException If the table cannot be read.
+     */
+    public static TableSnapshot take(String tableName) {
+        int maxRows = ConfigLoader.getIntProperty("db.snapshot.max-rows", 100_000);
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            long rowCount;
+            long highestId;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), COALESCE(MAX(id), 0) FROM " + tableName)) {
+                resultSet.next();
+                rowCount = resultSet.getLong(1);
+                highestId = resultSet.getLong(2);
+            }
+            if (rowCount > maxRows) {
+                System.err.println("WARNING: table " + tableName + " has " + rowCount + " rows, more than db.snapshot.max-rows="
+                        + maxRows + "; changes to its existing rows will not be restored");
+                return new TableSnapshot(tableName, highestId, null, null);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName + " WHERE id <= " + highestId)) {
+                String[] columns = columnNames(resultSet.getMetaData());
+                return new TableSnapshot(tableName, highestId, columns, readRows(resultSet, columns.length));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to take a snapshot of table " + tableName, e);
+        }
+    }
+
+    /**
+     * Puts the rows of the snapshot back into their recorded state.
+     *
+     * @return The number of rows updated, inserted or deleted.
+     * @throws IllegalStateException If the restore fails; nothing is changed in that case.
+     */
+    public int restore() {
+        if (rows == null) {
+            return 0;
+        }
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int changed = restoreRows(connection);
+                connection.commit();
+                return changed;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to restore table " + tableName, e);
+        }
+    }
+
+    /**
+     * Updates the changed rows and inserts the deleted rows of the snapshot.
+     */
+    private int restoreRows(Connection connection) throws SQLException {
+        Map<Long, Object[]> current;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName + " WHERE id <= " + highestId)) {
+            current = readRows(resultSet, columns.length);
+        }
+
+        int changed = 0;
+        try (PreparedStatement update = connection.prepareStatement(updateSql());
+             PreparedStatement insert = connection.prepareStatement(insertSql())) {
+            for (Map.Entry<Long, Object[]> entry : rows.entrySet()) {
+                Object[] values = entry.getValue();
+                Object[] currentValues = current.remove(entry.getKey());
+                if (currentValues == null) {
+                    bind(insert, values);
+                    insert.addBatch();
+                    changed++;
+                } else if (!Objects.deepEquals(values, currentValues)) {
+                    bind(update, values);
+                    update.setLong(values.length + 1, entry.getKey());
+                    update.addBatch();
+                    changed++;
+                }
+            }
+            update.executeBatch();
+            insert.executeBatch();
+        }
+
+        // Rows with an ID below the snapshot's highest ID that did not exist then
+        if (!current.isEmpty()) {
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + tableName + " WHERE id = ?")) {
+                for (Long id : current.keySet()) {
+                    delete.setLong(1, id);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+            changed += current.size();
+        }
+        return changed;
+    }
+
+    private String updateSql() {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tableName).append(" SET ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(columns[i]).append(" = ?");
+        }
+        return sql.append(" WHERE id = ?").toString();
+    }
+
+    private String insertSql() {
+        StringBuilder names = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            names.append(i > 0 ? ", " : "").append(columns[i]);
+            placeholders.append(i > 0 ? ", " : "").append('?');
+        }
+        return "INSERT INTO " + tableName + " (" + names + ") VALUES (" + placeholders + ")";
+    }
+
+    private static void bind(PreparedStatement statement, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+    }
+
+    private static String[] columnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnName(i + 1);
+        }
+        return columns;
+    }
+
+    /**
+     * Reads all rows keyed by their 'id' column. The values include the ID itself.
+     */
+    private static Map<Long, Object[]> readRows(ResultSet resultSet, int columnCount) throws SQLException {
+        Map<Long, Object[]> rows = new HashMap<>();
+        while (resultSet.next()) {
+            Object[] values = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = resultSet.getObject(i + 1);
+            }
+            rows.put(resultSet.getLong("id"), values);
+        }
+        return rows;
+    }
+}
@@ -3,16 +3,13 @@ package com.maif.taskmanagerplus_api_rest_assured.tests.util;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Adds authorization token and Content-Type header to the given RequestSpecification.
- * The authorization token is fetched using AuthUtil.getAuthToken().
- *
- * @param requestSpec The RequestSpecification to which headers will be added.
- * @return The updated RequestSpecification with Authorization and Content-Type headers.
+ * Helper methods shared by the tests: date and JSON conversion, and uniqueName/uniqueEmail,
+ * which give fixture names and emails a suffix unique to the run and the call, so tests
+ * running in parallel (and rows left behind by earlier runs) never match each other's data.
  * 
  * Author: Maicon Fang
  * Date: 2024-06-18
@@ -20,6 +17,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class TestUtil {
 
+    // Identifies this test run, so fixture data never collides with rows left behind by other runs
+    private static final String RUN_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    // Distinguishes fixtures created by tests running in parallel within the same run
+    private static final AtomicInteger FIXTURE_COUNTER = new AtomicInteger();
+
     
     /**
      * Converts a date string in "yyyy-MM-dd" format to LocalDate.
@@ -33,7 +36,7 @@ public class TestUtil {
     
     /**
      * Converts an object to its JSON string representation.
-     * This method uses Jackson's ObjectMapper to serialize the given object into a JSON string.
+     * This method uses the shared, cached Jackson writer of JsonUtil to serialize the given object into a JSON string.
      * If an exception occurs during serialization, it throws a RuntimeException.
      *
      * @param object The object to be converted to JSON.
@@ -41,14 +44,30 @@ public class TestUtil {
      * @throws RuntimeException If there is a failure during JSON processing.
      */
     public static String convertObjectToJson(Object object) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            return objectMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert object to JSON", e);
-        }
+        return JsonUtil.toJson(object);
     }
 
+    /**
+     * Returns the given name followed by a suffix that is unique for this run and this call,
+     * e.g. "Task to Get 1a2b3c4d-7". Tests running in parallel use it so their fixtures and
+     * filters never match each other's rows.
+     *
+     * @param name The readable part of the name.
+     * @return The name with a unique suffix.
+     */
+    public static String uniqueName(String name) {
+        return name + " " + RUN_ID + "-" + FIXTURE_COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Returns a unique email address in the taskmanagerplus.com domain for the given local part,
+     * e.g. "sophia.jones.1a2b3c4d-8@taskmanagerplus.com".
+     *
+     * @param localPart The readable part of the address, before the '@'.
+     * @return The unique email address.
+     */
+    public static String uniqueEmail(String localPart) {
+        return localPart + "." + RUN_ID + "-" + FIXTURE_COUNTER.incrementAndGet() + "@taskmanagerplus.com";
+    }
 
-    
 }
@@ -0,0 +1,30 @@
+-- Schema of the embedded database (db.mode=embedded), limited to the tables the fixtures write.
+-- Column types and lengths follow the API's MySQL schema; the script runs in H2's MySQL mode
+-- on first use and is safe to run again.
+
+CREATE TABLE IF NOT EXISTS task (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(150) NOT NULL,
+    description VARCHAR(255),
+    due_date DATE,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS province (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(80) NOT NULL,
+    abbreviation VARCHAR(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS usserr (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(80) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    dt_create DATETIME NOT NULL,
+    dt_update DATETIME,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usserr_email UNIQUE (email)
+);